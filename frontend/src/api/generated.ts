@@ -44,6 +44,29 @@ export interface CreateElectionRequestDto {
   candidateIds?: number[];
   /** @uniqueItems true */
   eligibleVoterIds?: number[];
+  votingMethod?: "PLURALITY" | "IRV" | "STV";
+  /** @format int32 */
+  seats?: number;
+  /** @format int64 */
+  voterRollId?: number;
+}
+
+export interface CreateVoterRollRequestDto {
+  name?: string;
+  /** @uniqueItems true */
+  memberIds?: number[];
+}
+
+export interface VoterRollDto {
+  /** @format int64 */
+  id?: number;
+  name?: string;
+  /** @format date-time */
+  createdAt?: string;
+  /** @format int64 */
+  memberCount?: number;
+  /** @format int64 */
+  electionCount?: number;
 }
 
 export interface ElectionDto {
@@ -51,15 +74,42 @@ export interface ElectionDto {
   id?: number;
   title?: string;
   status?: string;
+  votingMethod?: string;
+  /** @format int32 */
+  seats?: number;
   candidates?: UserDto[];
-  eligibleVoters?: UserDto[];
-  /** @uniqueItems true */
-  userIdsWhoVoted?: number[];
+  /** @format int64 */
+  electorateSize?: number;
+  /** @format int64 */
+  turnout?: number;
+  /** @format int64 */
+  voterRollId?: number;
+  voterRollName?: string;
+}
+
+export interface VoterStatusDto {
+  eligibleElectionIds?: number[];
+  votedElectionIds?: number[];
+}
+
+export interface ElectionVoterDto {
+  /** @format int64 */
+  id?: number;
+  firstName?: string;
+  lastName?: string;
+  voted?: boolean;
+}
+
+export interface ElectionVoterPageDto {
+  items?: ElectionVoterDto[];
+  /** @format int64 */
+  nextCursor?: number;
 }
 
 export interface CastVoteRequestDto {
   /** @format int64 */
   candidateId?: number;
+  ranking?: number[];
 }
 
 export interface ElectionResultDto {
@@ -70,6 +120,80 @@ export interface ElectionResultDto {
   count?: number;
 }
 
+export interface ElectionArchiveDto {
+  /** @format int64 */
+  electionId?: number;
+  title?: string;
+  /** @format date-time */
+  finalizedAt?: string;
+  /** @format date-time */
+  archivedAt?: string;
+  fileName?: string;
+  sha256?: string;
+  /** @format int64 */
+  ballots?: number;
+  /** @format int64 */
+  participations?: number;
+}
+
+export interface RoundTallyDto {
+  /** @format int64 */
+  candidateId?: number;
+  candidateName?: string;
+  /** @format double */
+  votes?: number;
+}
+
+export interface RoundDto {
+  /** @format int32 */
+  round?: number;
+  tallies?: RoundTallyDto[];
+  /** @format double */
+  exhausted?: number;
+  /** @format double */
+  threshold?: number;
+  elected?: number[];
+  excluded?: number[];
+}
+
+export interface BallotJournalDto {
+  /** @format int64 */
+  electionId?: number;
+  intact?: boolean;
+  /** @format int64 */
+  records?: number;
+  /** @format int64 */
+  ballots?: number;
+  /** @format int64 */
+  committed?: number;
+  /** @format int64 */
+  voided?: number;
+  /** @format int64 */
+  inDoubt?: number;
+  /** @format int64 */
+  appliedSeq?: number;
+  headHash?: string;
+  firstPreferences?: Record<string, number>;
+  /** @format int64 */
+  abstentions?: number;
+}
+
+export interface RankedResultDto {
+  /** @format int64 */
+  electionId?: number;
+  votingMethod?: string;
+  /** @format int32 */
+  seats?: number;
+  /** @format int64 */
+  ballots?: number;
+  /** @format int64 */
+  abstentions?: number;
+  /** @format double */
+  quota?: number;
+  elected?: number[];
+  rounds?: RoundDto[];
+}
+
 import type {
   AxiosInstance,
   AxiosRequestConfig,
@@ -405,6 +529,76 @@ export class Api<
         ...params,
       }),
 
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name ArchiveElection
+     * @request POST:/api/elections/{id}/archive
+     */
+    archiveElection: (id: number, params: RequestParams = {}) =>
+      this.request<void, any>({
+        path: `/api/elections/${id}/archive`,
+        method: "POST",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name GetArchives
+     * @request GET:/api/elections/archives
+     */
+    getArchives: (params: RequestParams = {}) =>
+      this.request<ElectionArchiveDto[], any>({
+        path: `/api/elections/archives`,
+        method: "GET",
+        format: "json",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name GetMyStatus
+     * @request GET:/api/elections/my-status
+     */
+    getMyStatus: (params: RequestParams = {}) =>
+      this.request<VoterStatusDto, any>({
+        path: `/api/elections/my-status`,
+        method: "GET",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name GetVoters
+     * @request GET:/api/elections/{id}/voters
+     */
+    getVoters: (
+      id: number,
+      query?: {
+        /** @format int64 */
+        after?: number;
+        /**
+         * @format int32
+         * @default 50
+         */
+        limit?: number;
+      },
+      params: RequestParams = {},
+    ) =>
+      this.request<ElectionVoterPageDto, any>({
+        path: `/api/elections/${id}/voters`,
+        method: "GET",
+        query: query,
+        ...params,
+      }),
+
     /**
      * No description
      *
@@ -447,6 +641,175 @@ export class Api<
         ...params,
       }),
 
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name GetResultRounds
+     * @request GET:/api/elections/{id}/results/rounds
+     */
+    getResultRounds: (id: number, params: RequestParams = {}) =>
+      this.request<RankedResultDto, any>({
+        path: `/api/elections/${id}/results/rounds`,
+        method: "GET",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name ExportResults
+     * @request GET:/api/elections/{id}/export/results
+     */
+    exportResults: (
+      id: number,
+      query?: {
+        /** @default "csv" */
+        format?: string;
+        /** @default false */
+        gzip?: boolean;
+      },
+      params: RequestParams = {},
+    ) =>
+      this.request<void, any>({
+        path: `/api/elections/${id}/export/results`,
+        method: "GET",
+        query: query,
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name ExportBallots
+     * @request GET:/api/elections/{id}/export/ballots
+     */
+    exportBallots: (
+      id: number,
+      query?: {
+        /** @default "csv" */
+        format?: string;
+        /** @default false */
+        gzip?: boolean;
+      },
+      params: RequestParams = {},
+    ) =>
+      this.request<void, any>({
+        path: `/api/elections/${id}/export/ballots`,
+        method: "GET",
+        query: query,
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags election-controller
+     * @name VerifyJournal
+     * @request GET:/api/elections/{id}/journal
+     */
+    verifyJournal: (id: number, params: RequestParams = {}) =>
+      this.request<BallotJournalDto, any>({
+        path: `/api/elections/${id}/journal`,
+        method: "GET",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags voter-roll-controller
+     * @name GetVoterRolls
+     * @request GET:/api/voter-rolls
+     */
+    getVoterRolls: (params: RequestParams = {}) =>
+      this.request<VoterRollDto[], any>({
+        path: `/api/voter-rolls`,
+        method: "GET",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags voter-roll-controller
+     * @name CreateVoterRoll
+     * @request POST:/api/voter-rolls
+     */
+    createVoterRoll: (
+      data: CreateVoterRollRequestDto,
+      params: RequestParams = {},
+    ) =>
+      this.request<VoterRollDto, any>({
+        path: `/api/voter-rolls`,
+        method: "POST",
+        body: data,
+        type: ContentType.Json,
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags voter-roll-controller
+     * @name GetVoterRoll
+     * @request GET:/api/voter-rolls/{id}
+     */
+    getVoterRoll: (id: number, params: RequestParams = {}) =>
+      this.request<VoterRollDto, any>({
+        path: `/api/voter-rolls/${id}`,
+        method: "GET",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags voter-roll-controller
+     * @name DeleteVoterRoll
+     * @request DELETE:/api/voter-rolls/{id}
+     */
+    deleteVoterRoll: (id: number, params: RequestParams = {}) =>
+      this.request<void, any>({
+        path: `/api/voter-rolls/${id}`,
+        method: "DELETE",
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags voter-roll-controller
+     * @name AddMembers
+     * @request POST:/api/voter-rolls/{id}/members
+     */
+    addMembers: (id: number, data: number[], params: RequestParams = {}) =>
+      this.request<VoterRollDto, any>({
+        path: `/api/voter-rolls/${id}/members`,
+        method: "POST",
+        body: data,
+        type: ContentType.Json,
+        ...params,
+      }),
+
+    /**
+     * No description
+     *
+     * @tags voter-roll-controller
+     * @name RemoveMembers
+     * @request DELETE:/api/voter-rolls/{id}/members
+     */
+    removeMembers: (id: number, data: number[], params: RequestParams = {}) =>
+      this.request<VoterRollDto, any>({
+        path: `/api/voter-rolls/${id}/members`,
+        method: "DELETE",
+        body: data,
+        type: ContentType.Json,
+        ...params,
+      }),
+
     /**
      * No description
      *
@@ -9,11 +9,13 @@ import {
     Group,
     Text,
     LoadingOverlay,
+    Select,
+    NumberInput,
 } from '@mantine/core';
 import { useForm } from '@mantine/form';
 import { notifications } from '@mantine/notifications';
 import { client } from '../../api';
-import {type CreateElectionRequestDto, type UserDto} from '../../api/generated';
+import {type CreateElectionRequestDto, type UserDto, type VoterRollDto} from '../../api/generated';
 import {UserSelectionList} from "./UserSelectionList.tsx";
 import {useDocumentTitle} from "@mantine/hooks";
 
@@ -21,6 +23,7 @@ export function CreateElectionPage() {
     useDocumentTitle('Wahl erstellen | Kapitänswahl')
     const navigate = useNavigate();
     const [users, setUsers] = useState<UserDto[]>([]);
+    const [voterRolls, setVoterRolls] = useState<VoterRollDto[]>([]);
     const [loading, setLoading] = useState(true);
     const [submitting, setSubmitting] = useState(false);
 
@@ -28,8 +31,9 @@ export function CreateElectionPage() {
     useEffect(() => {
         const loadUsers = async () => {
             try {
-                const response = await client.api.getUsers();
+                const [response, rolls] = await Promise.all([client.api.getUsers(), client.api.getVoterRolls()]);
                 setUsers(response.data.filter(u => u.username !== 'admin'));
+                setVoterRolls(rolls.data);
             } catch (error) {
                 console.error(error);
                 notifications.show({ title: 'Error', message: 'Benutzer konnten nicht geladen werden', color: 'red' });
@@ -46,20 +50,34 @@ export function CreateElectionPage() {
             title: '',
             candidateIds: [] as string[],     // Mantine MultiSelect uses strings
             eligibleVoterIds: [] as string[], // We will convert to numbers on submit
+            voterRollId: null as string | null, // Instead of eligibleVoterIds
+            newVoterRollName: '',              // Saves eligibleVoterIds as a voter roll for the next election
+            votingMethod: 'PLURALITY' as 'PLURALITY' | 'IRV' | 'STV',
+            seats: 1,
         },
         validate: {
             title: (val: string) => (val.length < 3 ? 'Titel ist zu kurz' : null),
             candidateIds: (val: string[]) => (val.length < 2 ? 'Wählen Sie zumindest zwei Kandidaten aus' : null),
-            eligibleVoterIds: (val: string[]) => (val.length < 1 ? 'Wählen Sie zumindest eine wahlberechtigten Benutzer aus' : null),
+            eligibleVoterIds: (val: string[], values) => (!values.voterRollId && val.length < 1 ? 'Wählen Sie zumindest eine wahlberechtigten Benutzer aus' : null),
+            seats: (val: number, values) => (values.votingMethod === 'STV' && (val < 1 || val > values.candidateIds.length) ? 'Ungültige Anzahl Sitze' : null),
         },
     });
     const handleSubmit = async (values: typeof form.values) => {
         setSubmitting(true);
         try {
+            let voterRollId = values.voterRollId ? parseInt(values.voterRollId) : undefined;
+            const eligibleVoterIds = values.eligibleVoterIds.map(id => parseInt(id));
+            if (!voterRollId && values.newVoterRollName.trim()) {
+                const roll = await client.api.createVoterRoll({ name: values.newVoterRollName.trim(), memberIds: eligibleVoterIds });
+                voterRollId = roll.data.id;
+            }
             const request: CreateElectionRequestDto = {
                 title: values.title,
                 candidateIds: values.candidateIds.map(id => parseInt(id)),
-                eligibleVoterIds: values.eligibleVoterIds.map(id => parseInt(id)),
+                eligibleVoterIds: voterRollId ? undefined : eligibleVoterIds,
+                voterRollId: voterRollId,
+                votingMethod: values.votingMethod,
+                seats: values.votingMethod === 'STV' ? values.seats : 1,
             }
             await client.api.createElection(request);
 
@@ -94,6 +112,26 @@ export function CreateElectionPage() {
                         {...form.getInputProps('title')}
                     />
 
+                    <Group grow align="flex-start">
+                        <Select
+                            label="Wahlverfahren"
+                            data={[
+                                { value: 'PLURALITY', label: 'Mehrheitswahl (eine Stimme)' },
+                                { value: 'IRV', label: 'Integrierte Stichwahl (Rangfolge)' },
+                                { value: 'STV', label: 'Übertragbare Einzelstimme (Rangfolge, mehrere Sitze)' },
+                            ]}
+                            allowDeselect={false}
+                            {...form.getInputProps('votingMethod')}
+                        />
+                        {form.values.votingMethod === 'STV' && (
+                            <NumberInput
+                                label="Sitze"
+                                min={1}
+                                {...form.getInputProps('seats')}
+                            />
+                        )}
+                    </Group>
+
                     {/* 2. Candidates Selection */}
                     <UserSelectionList
                         label="Kandidaten"
@@ -106,15 +144,34 @@ export function CreateElectionPage() {
                         <Text c="red" size="sm" mt={-10}>{form.errors.candidateIds}</Text>
                     )}
 
-                    <UserSelectionList
-                        label="Wahlberechtigt"
-                        description="Wähle aus, wer eine Stimme abgeben darf"
-                        users={users}
-                        selectedIds={form.values.eligibleVoterIds}
-                        onChange={(ids) => form.setFieldValue('eligibleVoterIds', ids)}
+                    <Select
+                        label="Wählerverzeichnis"
+                        description="Alle Mitglieder des Verzeichnisses sind wahlberechtigt, auch später hinzugefügte"
+                        placeholder="Wahlberechtigte einzeln auswählen"
+                        data={voterRolls.map(roll => ({ value: String(roll.id), label: `${roll.name} (${roll.memberCount} Mitglieder)` }))}
+                        clearable
+                        {...form.getInputProps('voterRollId')}
                     />
-                    {form.errors.eligibleVoterIds && (
-                        <Text c="red" size="sm" mt={-10}>{form.errors.eligibleVoterIds}</Text>
+
+                    {!form.values.voterRollId && (
+                        <>
+                            <UserSelectionList
+                                label="Wahlberechtigt"
+                                description="Wähle aus, wer eine Stimme abgeben darf"
+                                users={users}
+                                selectedIds={form.values.eligibleVoterIds}
+                                onChange={(ids) => form.setFieldValue('eligibleVoterIds', ids)}
+                            />
+                            {form.errors.eligibleVoterIds && (
+                                <Text c="red" size="sm" mt={-10}>{form.errors.eligibleVoterIds}</Text>
+                            )}
+                            <TextInput
+                                label="Als Wählerverzeichnis speichern"
+                                description="Optional: unter diesem Namen für weitere Wahlen wiederverwenden"
+                                placeholder="z. B. Mannschaft 2026"
+                                {...form.getInputProps('newVoterRollName')}
+                            />
+                        </>
                     )}
 
                     <Group justify="flex-end" mt="md">
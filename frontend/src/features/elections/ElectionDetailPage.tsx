@@ -16,27 +16,41 @@ import {
 } from '@mantine/core';
 import {IconArrowLeft, IconCheck, IconLock, IconX} from '@tabler/icons-react';
 import { client } from '../../api';
-import { type ElectionDto } from '../../api/generated';
+import { type ElectionDto, type ElectionVoterDto, type VoterStatusDto } from '../../api/generated';
 import { VoteForm } from './VoteForm';
 import { ElectionResults } from "./ElectionResults.tsx";
+import { ElectionRounds } from "./ElectionRounds.tsx";
 import {useAuth} from "../auth/AuthContext.tsx";
 import {openConfirmModal} from "@mantine/modals";
 import {notifications} from "@mantine/notifications";
 import {useDocumentTitle} from "@mantine/hooks";
 
+const VOTERS_PAGE_SIZE = 100;
+
 export function ElectionDetailPage() {
     useDocumentTitle('Wahl | Kapitänswahl')
     const { id } = useParams();
     const { user } = useAuth();
     const navigate = useNavigate();
     const [election, setElection] = useState<ElectionDto | null>(null);
+    const [myStatus, setMyStatus] = useState<VoterStatusDto | null>(null);
+    const [voters, setVoters] = useState<ElectionVoterDto[]>([]);
+    const [votersCursor, setVotersCursor] = useState<number | undefined>(undefined);
     const [loading, setLoading] = useState(true);
 
     // Helper to re-fetch data (e.g., after voting)
     const loadElection = async () => {
         try {
-            const res = await client.api.getElection(parseInt(id!));
+            const electionId = parseInt(id!);
+            const [res, statusRes, votersRes] = await Promise.all([
+                client.api.getElection(electionId),
+                client.api.getMyStatus(),
+                client.api.getVoters(electionId, { limit: VOTERS_PAGE_SIZE }),
+            ]);
             setElection(res.data);
+            setMyStatus(statusRes.data);
+            setVoters(votersRes.data.items || []);
+            setVotersCursor(votersRes.data.nextCursor);
         } catch (error) {
             console.error(error);
         } finally {
@@ -48,6 +62,16 @@ export function ElectionDetailPage() {
         loadElection();
     }, [id]);
 
+    const loadMoreVoters = async () => {
+        try {
+            const res = await client.api.getVoters(parseInt(id!), { after: votersCursor, limit: VOTERS_PAGE_SIZE });
+            setVoters(prev => [...prev, ...(res.data.items || [])]);
+            setVotersCursor(res.data.nextCursor);
+        } catch (error) {
+            console.error(error);
+        }
+    };
+
     const handleCloseElection = () => {
         openConfirmModal({
             title: 'Wahl abschließen',
@@ -88,10 +112,10 @@ export function ElectionDetailPage() {
     const isAdmin = user?.role === 'ROLE_ADMIN';
     const isOpen = election.status === 'OPEN';
 
-    const totalEligible = election.eligibleVoters?.length || 0;
-    const totalVoted = election.userIdsWhoVoted?.length || 0;
-    const hasVoted = election.userIdsWhoVoted?.includes(user?.id!) || false;
-    const isEligible = election.eligibleVoters?.some(voter => voter.id === user?.id);
+    const totalEligible = election.electorateSize || 0;
+    const totalVoted = election.turnout || 0;
+    const hasVoted = myStatus?.votedElectionIds?.includes(election.id!) || false;
+    const isEligible = myStatus?.eligibleElectionIds?.includes(election.id!) || false;
 
     return (
         <Container size="md" py="xl">
@@ -129,6 +153,9 @@ export function ElectionDetailPage() {
                 {election.status === 'COMPLETED' && (
                     <ElectionResults electionId={election.id!} />
                 )}
+                {election.status === 'COMPLETED' && election.votingMethod !== 'PLURALITY' && (
+                    <ElectionRounds electionId={election.id!} />
+                )}
 
                 {/* CASE 2: ELECTION IS OPEN AND USER HAS NOT VOTED -> SHOW FORM */}
                 {election.status === 'OPEN' && isEligible && !hasVoted && (
@@ -166,8 +193,8 @@ export function ElectionDetailPage() {
                             {totalVoted} / {totalEligible}
                         </Badge>
                     </Group>
-                    {election.eligibleVoters?.map(voter => {
-                        const hasVoted = election.userIdsWhoVoted?.includes(voter.id!);
+                    {voters.map(voter => {
+                        const hasVoted = voter.voted;
                         return (
                             <Group key={voter.id} justify="space-between" py="xs" style={{ borderBottom: '1px solid var(--mantine-color-gray-2)' }}>
                                 <Group gap="sm">
@@ -192,6 +219,13 @@ export function ElectionDetailPage() {
                             </Group>
                         );
                     })}
+                    {votersCursor !== undefined && votersCursor !== null && (
+                        <Center mt="md">
+                            <Button variant="subtle" onClick={loadMoreVoters}>
+                                Weitere laden
+                            </Button>
+                        </Center>
+                    )}
                 </Paper>
             </Stack>
         </Container>
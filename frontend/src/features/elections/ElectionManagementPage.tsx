@@ -15,11 +15,11 @@ import {
     Text,
     Divider
 } from '@mantine/core';
-import { IconPlus, IconTrash, IconCheck, IconUser } from '@tabler/icons-react';
+import { IconPlus, IconTrash, IconCheck, IconUser, IconArchive } from '@tabler/icons-react';
 import { openConfirmModal } from '@mantine/modals';
 import { useAuth } from '../auth/AuthContext';
 import { client } from '../../api';
-import { type ElectionDto } from '../../api/generated';
+import { type ElectionDto, type VoterStatusDto } from '../../api/generated';
 import { useDocumentTitle } from "@mantine/hooks";
 
 export function ElectionManagementPage() {
@@ -27,6 +27,7 @@ export function ElectionManagementPage() {
     const navigate = useNavigate();
     const { user } = useAuth();
     const [elections, setElections] = useState<ElectionDto[]>([]);
+    const [myStatus, setMyStatus] = useState<VoterStatusDto | null>(null);
     const [loading, setLoading] = useState(true);
 
     const isAdmin = user?.role === 'ROLE_ADMIN';
@@ -38,8 +39,12 @@ export function ElectionManagementPage() {
     const loadElections = async () => {
         try {
             setLoading(true);
-            const response = await client.api.getElections();
+            const [response, statusResponse] = await Promise.all([
+                client.api.getElections(),
+                client.api.getMyStatus(),
+            ]);
             setElections(response.data);
+            setMyStatus(statusResponse.data);
         } catch (error) {
             console.error("Failed to fetch elections", error);
         } finally {
@@ -56,9 +61,9 @@ export function ElectionManagementPage() {
         }
     };
 
-    const totalEligible = (election: ElectionDto) => election.eligibleVoters?.length || 0;
-    const totalVoted = (election: ElectionDto) => election.userIdsWhoVoted?.length || 0;
-    const hasVoted = (election: ElectionDto) => election.userIdsWhoVoted?.includes(user?.id!) || false;
+    const totalEligible = (election: ElectionDto) => election.electorateSize || 0;
+    const totalVoted = (election: ElectionDto) => election.turnout || 0;
+    const hasVoted = (election: ElectionDto) => myStatus?.votedElectionIds?.includes(election.id!) || false;
 
     const openDeleteModal = (election: ElectionDto) => {
         openConfirmModal({
@@ -80,6 +85,25 @@ export function ElectionManagementPage() {
         });
     };
 
+    const openArchiveModal = (election: ElectionDto) => {
+        openConfirmModal({
+            title: 'Wahl archivieren',
+            centered: true,
+            children: (
+                <p>Die Wahl <strong>{election.title}</strong> wird mit allen Stimmzetteln in eine Archivdatei exportiert und danach aus der Liste entfernt.</p>
+            ),
+            labels: { confirm: 'Wahl archivieren', cancel: 'Abbrechen' },
+            onConfirm: async () => {
+                try {
+                    await client.api.archiveElection(election.id!);
+                    setElections(prev => prev.filter(e => e.id !== election.id));
+                } catch (error) {
+                    console.error(error);
+                }
+            }
+        });
+    };
+
     // --- 1. DESKTOP VIEW (Table Rows) ---
     const desktopRows = elections.map((election) => (
         <Table.Tr
@@ -111,6 +135,18 @@ export function ElectionManagementPage() {
 
             <Table.Td align="right">
                 <Group gap="xs" justify="flex-end">
+                    {isAdmin && election.status === 'COMPLETED' && (
+                        <ActionIcon
+                            variant="subtle"
+                            color="gray"
+                            onClick={(e) => {
+                                e.stopPropagation();
+                                openArchiveModal(election);
+                            }}
+                        >
+                            <IconArchive size={16} />
+                        </ActionIcon>
+                    )}
                     {isAdmin && (
                         <ActionIcon
                             variant="subtle"
@@ -144,6 +180,20 @@ export function ElectionManagementPage() {
                     {election.title}
                 </Text>
 
+                {isAdmin && election.status === 'COMPLETED' && (
+                    <ActionIcon
+                        variant="light"
+                        color="gray"
+                        size="md"
+                        mr="xs"
+                        onClick={(e) => {
+                            e.stopPropagation();
+                            openArchiveModal(election);
+                        }}
+                    >
+                        <IconArchive size={18} />
+                    </ActionIcon>
+                )}
                 {isAdmin && (
                     <ActionIcon
                         variant="light"
@@ -0,0 +1,71 @@
+import { useEffect, useState } from 'react';
+import { Paper, Text, Table, Badge, Loader, Center, ScrollArea } from '@mantine/core';
+import { client } from '../../api';
+import { type RankedResultDto } from '../../api/generated';
+
+// Round-by-round count of an IRV/STV election
+export function ElectionRounds({ electionId }: { electionId: number }) {
+    const [result, setResult] = useState<RankedResultDto | null>(null);
+    const [loading, setLoading] = useState(true);
+
+    useEffect(() => {
+        client.api.getResultRounds(electionId)
+            .then(res => setResult(res.data))
+            .catch(err => console.error("Failed to load rounds", err))
+            .finally(() => setLoading(false));
+    }, [electionId]);
+
+    if (loading) return <Center p="xl"><Loader /></Center>;
+    if (!result) return null;
+
+    const rounds = result.rounds || [];
+    // Every candidate that shows up in any round, in the order of the first round
+    const candidates = new Map<number, string>();
+    rounds.forEach(round => round.tallies?.forEach(t => candidates.set(t.candidateId!, t.candidateName || '')));
+
+    const format = (votes?: number) => (votes ?? 0).toLocaleString('de-DE', { maximumFractionDigits: 2 });
+
+    return (
+        <Paper p="lg" radius="md" withBorder>
+            <Text size="lg" fw={700} mb="xs">Auszählung nach Runden</Text>
+            <Text c="dimmed" size="sm" mb="md">
+                {result.votingMethod === 'STV'
+                    ? `Übertragbare Einzelstimmgebung, ${result.seats} Sitze, Quote ${format(result.quota)}`
+                    : 'Integrierte Stichwahl'}
+                {' · '}{result.ballots} Stimmzettel, {result.abstentions} Enthaltungen
+            </Text>
+
+            <ScrollArea>
+                <Table striped withTableBorder>
+                    <Table.Thead>
+                        <Table.Tr>
+                            <Table.Th>Kandidat</Table.Th>
+                            {rounds.map(round => <Table.Th key={round.round}>Runde {round.round}</Table.Th>)}
+                        </Table.Tr>
+                    </Table.Thead>
+                    <Table.Tbody>
+                        {[...candidates.entries()].map(([id, name]) => (
+                            <Table.Tr key={id}>
+                                <Table.Td fw={result.elected?.includes(id) ? 700 : 400}>{name}</Table.Td>
+                                {rounds.map(round => {
+                                    const tally = round.tallies?.find(t => t.candidateId === id);
+                                    return (
+                                        <Table.Td key={round.round}>
+                                            {tally ? format(tally.votes) : ''}
+                                            {round.elected?.includes(id) && <Badge ml="xs" size="xs" color="green">gewählt</Badge>}
+                                            {round.excluded?.includes(id) && <Badge ml="xs" size="xs" color="red">ausgeschieden</Badge>}
+                                        </Table.Td>
+                                    );
+                                })}
+                            </Table.Tr>
+                        ))}
+                        <Table.Tr>
+                            <Table.Td c="dimmed">Erschöpft</Table.Td>
+                            {rounds.map(round => <Table.Td key={round.round} c="dimmed">{format(round.exhausted)}</Table.Td>)}
+                        </Table.Tr>
+                    </Table.Tbody>
+                </Table>
+            </ScrollArea>
+        </Paper>
+    );
+}
@@ -0,0 +1,84 @@
+import { useState } from 'react';
+import { Paper, Button, Stack, Text, Alert, Group, Badge, ActionIcon } from '@mantine/core';
+import { IconInfoCircle, IconX } from '@tabler/icons-react';
+import { notifications } from '@mantine/notifications';
+import { client } from '../../api';
+import { type CastVoteRequestDto, type ElectionDto } from '../../api/generated';
+
+interface RankedVoteFormProps {
+    election: ElectionDto;
+    onVoteSuccess: () => void;
+}
+
+// Ballot for IRV/STV elections: candidates are clicked in order of preference
+export function RankedVoteForm({ election, onVoteSuccess }: RankedVoteFormProps) {
+    const [ranking, setRanking] = useState<number[]>([]);
+    const [submitting, setSubmitting] = useState(false);
+
+    const candidates = election.candidates || [];
+    const nameOf = (id: number) => {
+        const candidate = candidates.find(c => c.id === id);
+        return candidate ? `${candidate.firstName} ${candidate.lastName}` : `#${id}`;
+    };
+
+    const submit = async (request: CastVoteRequestDto) => {
+        setSubmitting(true);
+        try {
+            await client.api.castVote(election.id!, request);
+
+            notifications.show({ title: 'Stimme abgegeben', message: 'Danke für die Teilnahme!', color: 'green' });
+            onVoteSuccess();
+        } catch (error) {
+            console.error(error);
+            notifications.show({ title: 'Fehler', message: 'Stimme konnte nicht abgegeben werden.', color: 'red' });
+        } finally {
+            setSubmitting(false);
+        }
+    };
+
+    return (
+        <Paper p="lg" radius="md" withBorder>
+            <Text size="lg" fw={700} mb="md">Gib deine Stimme ab</Text>
+
+            <Alert variant="light" color="blue" title="Rangfolge" icon={<IconInfoCircle />}>
+                Klicke die Kandidaten in der Reihenfolge deiner Präferenz an. Du musst nicht alle einordnen.
+                {election.votingMethod === 'STV' && ` Es werden ${election.seats} Sitze vergeben.`}
+                {' '}Deine Stimme ist anonym und kann nach der Abgabe nicht mehr geändert werden.
+            </Alert>
+
+            <Text fw={500} mt="xl" mb="xs">Deine Rangfolge</Text>
+            <Stack gap="xs">
+                {ranking.length === 0 && <Text c="dimmed" size="sm">Noch niemand ausgewählt</Text>}
+                {ranking.map((id, index) => (
+                    <Group key={id} justify="space-between">
+                        <Group gap="sm">
+                            <Badge variant="filled" circle>{index + 1}</Badge>
+                            <Text>{nameOf(id)}</Text>
+                        </Group>
+                        <ActionIcon variant="subtle" color="gray" onClick={() => setRanking(prev => prev.filter(r => r !== id))}>
+                            <IconX size={16} />
+                        </ActionIcon>
+                    </Group>
+                ))}
+            </Stack>
+
+            <Text fw={500} mt="xl" mb="xs">Kandidaten</Text>
+            <Group gap="xs">
+                {candidates.filter(c => !ranking.includes(c.id!)).map(candidate => (
+                    <Button key={candidate.id} variant="light" onClick={() => setRanking(prev => [...prev, candidate.id!])}>
+                        {candidate.firstName} {candidate.lastName}
+                    </Button>
+                ))}
+            </Group>
+
+            <Group justify="flex-end" mt="xl">
+                <Button variant="default" onClick={() => submit({ ranking: [] })} loading={submitting}>
+                    Enthaltung
+                </Button>
+                <Button onClick={() => submit({ ranking })} loading={submitting} disabled={ranking.length === 0} size="md">
+                    Stimme abgeben
+                </Button>
+            </Group>
+        </Paper>
+    );
+}
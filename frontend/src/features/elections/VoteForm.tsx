@@ -4,6 +4,7 @@ import { IconInfoCircle } from '@tabler/icons-react';
 import { notifications } from '@mantine/notifications';
 import { client } from '../../api';
 import {type CastVoteRequestDto, type ElectionDto} from '../../api/generated';
+import { RankedVoteForm } from './RankedVoteForm';
 
 interface VoteFormProps {
     election: ElectionDto;
@@ -11,6 +12,13 @@ interface VoteFormProps {
 }
 
 export function VoteForm({ election, onVoteSuccess }: VoteFormProps) {
+    if (election.votingMethod === 'IRV' || election.votingMethod === 'STV') {
+        return <RankedVoteForm election={election} onVoteSuccess={onVoteSuccess} />;
+    }
+    return <PluralityVoteForm election={election} onVoteSuccess={onVoteSuccess} />;
+}
+
+function PluralityVoteForm({ election, onVoteSuccess }: VoteFormProps) {
     const [value, setValue] = useState<string | null>(null); // Candidate ID or "abstain"
     const [submitting, setSubmitting] = useState(false);
 
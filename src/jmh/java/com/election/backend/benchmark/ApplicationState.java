@@ -0,0 +1,96 @@
+package com.election.backend.benchmark;
+
+import com.election.backend.AnonymousElectionApplication;
+import com.election.backend.service.TallyService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The whole application on an embedded H2 database, seeded with one open
+ * election: {@link #CANDIDATES} candidates, {@link #VOTERS} eligible voters and
+ * {@link #VOTES} ballots. Started once per fork.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    static final int CANDIDATES = 50;
+    static final int VOTERS = 50_000;
+    static final int VOTES = 100_000;
+
+    ConfigurableApplicationContext context;
+    long electionId;
+    long[] candidateIds;
+    long[] voterIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        SpringApplication application = new SpringApplication(AnonymousElectionApplication.class);
+        application.setAdditionalProfiles("local");
+        context = application.run(
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.show-sql=false",
+            "--server.port=0",
+            "--management.server.port=0",
+            "--logging.level.root=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        // The ballots went straight into the table, load them into the live tally like a restart would
+        context.getBean(TallyService.class).afterSingletonsInstantiated();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES + VOTERS; i++) {
+            // Real hashes are not needed here, PasswordBenchmark covers BCrypt
+            users.add(new Object[]{"bench" + i, "{noop}x", "ROLE_USER", "First" + i, "Last" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, password, role, first_name, last_name) VALUES (?, ?, ?, ?, ?)", users);
+        List<Long> ids = jdbc.queryForList("SELECT id FROM users WHERE username LIKE 'bench%' ORDER BY id", Long.class);
+        candidateIds = ids.subList(0, CANDIDATES).stream().mapToLong(Long::longValue).toArray();
+        voterIds = ids.subList(CANDIDATES, ids.size()).stream().mapToLong(Long::longValue).toArray();
+
+        electionId = new SimpleJdbcInsert(jdbc).withTableName("election").usingGeneratedKeyColumns("id")
+            .usingColumns("title", "status", "voting_method", "seats")
+            .executeAndReturnKey(Map.of("title", "Benchmark", "status", "OPEN", "voting_method", "PLURALITY", "seats", 1))
+            .longValue();
+
+        List<Object[]> candidates = new ArrayList<>();
+        for (long id : candidateIds) {
+            candidates.add(new Object[]{electionId, id});
+        }
+        jdbc.batchUpdate("INSERT INTO election_candidates (election_id, candidates_id) VALUES (?, ?)", candidates);
+
+        List<Object[]> voters = new ArrayList<>();
+        for (long id : voterIds) {
+            voters.add(new Object[]{electionId, id});
+        }
+        jdbc.batchUpdate("INSERT INTO election_eligible_voters (election_id, eligible_voters_id) VALUES (?, ?)", voters);
+
+        List<Object[]> votes = new ArrayList<>();
+        for (int i = 0; i < VOTES; i++) {
+            votes.add(new Object[]{electionId, candidateIds[i % CANDIDATES]});
+        }
+        jdbc.batchUpdate("INSERT INTO vote (election_id, candidate_id) VALUES (?, ?)", votes);
+    }
+}
@@ -0,0 +1,86 @@
+package com.election.backend.benchmark;
+
+import com.election.backend.dto.ElectionDto;
+import com.election.backend.dto.UserDto;
+import com.election.backend.mapper.UserMapper;
+import com.election.backend.mapper.UserMapperImpl;
+import com.election.backend.model.AppUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of an election with a large
+ * candidate list, as done by GET /api/elections/{id}. No Spring context needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"100", "10000", "50000"})
+    int size;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private List<AppUser> users;
+    private ElectionDto election;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            AppUser user = new AppUser();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            user.setRole("ROLE_USER");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            users.add(user);
+        }
+        election = mapElection();
+    }
+
+    @Benchmark
+    public List<UserDto> mapUsers() {
+        return users.stream().map(userMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public ElectionDto mapElection() {
+        return ElectionDto.builder()
+            .id(1L)
+            .title("Benchmark")
+            .status("OPEN")
+            .votingMethod("PLURALITY")
+            .seats(1)
+            .candidates(users.stream().map(userMapper::toDto).toList())
+            .electorateSize(size)
+            .turnout(size / 2)
+            .build();
+    }
+
+    @Benchmark
+    public byte[] serializeElection() {
+        return objectMapper.writeValueAsBytes(election);
+    }
+}
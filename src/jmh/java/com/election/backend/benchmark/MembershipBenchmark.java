@@ -0,0 +1,87 @@
+package com.election.backend.benchmark;
+
+import com.election.backend.model.AppUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eligibility lookups: a set of AppUser entities (hashed over every field by
+ * the Lombok equals and hashCode), a set of their ids, and the RoaringBitmap
+ * the ElectorateIndex keeps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MembershipBenchmark {
+
+    @Param({"1000", "50000"})
+    int size;
+
+    private Set<AppUser> entities;
+    private Set<Long> ids;
+    private RoaringBitmap bitmap;
+    private AppUser[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entities = new HashSet<>();
+        ids = new HashSet<>();
+        bitmap = new RoaringBitmap();
+        // Every other id is eligible, so half the lookups miss
+        for (int i = 0; i < size * 2; i += 2) {
+            entities.add(appUser(i));
+            ids.add((long) i);
+            bitmap.add(i);
+        }
+        bitmap.runOptimize();
+        probes = new AppUser[1024];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = appUser((int) ((long) i * size * 2 / probes.length));
+        }
+    }
+
+    @Benchmark
+    public boolean entitySet() {
+        return entities.contains(probes[next++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean idSet() {
+        return ids.contains(probes[next++ & 1023].getId());
+    }
+
+    @Benchmark
+    public boolean bitmap() {
+        return bitmap.contains(Math.toIntExact(probes[next++ & 1023].getId()));
+    }
+
+    private static AppUser appUser(int id) {
+        AppUser user = new AppUser();
+        user.setId((long) id);
+        user.setUsername("user" + id);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv" + id);
+        user.setRole("ROLE_USER");
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        return user;
+    }
+}
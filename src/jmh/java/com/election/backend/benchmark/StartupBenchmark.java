@@ -0,0 +1,99 @@
+package com.election.backend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time from launching the packaged application to the end of its context
+ * refresh (Flyway, Hibernate, Tomcat and all beans up), in a fresh JVM each time:
+ * <ul>
+ *   <li>baseline: the executable jar with the prod profile, as deployed today</li>
+ *   <li>aot: the extracted jar with AOT-generated bean definitions and the fast-startup profile</li>
+ *   <li>fast-startup: as aot, plus the class data sharing archive from the training run</li>
+ * </ul>
+ * Needs the output of {@code mvn -Pfast-startup package} and the database from
+ * application.yaml (PGHOST, PGPORT, ...); run with
+ * {@code mvn -Pbenchmarks -Dskip.frontend.build=true test -Djmh.args=StartupBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path FAST_STARTUP = TARGET.resolve("fast-startup");
+
+    @Param({"baseline", "aot", "fast-startup"})
+    public String mode;
+
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path archive = FAST_STARTUP.resolve("application.jsa");
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException(archive + " not found, build with mvn -Pfast-startup package first");
+        }
+        String jar;
+        try (var jars = Files.list(FAST_STARTUP)) {
+            jar = jars.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(".jar"))
+                .findFirst()
+                .orElseThrow();
+        }
+
+        command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("fast-startup")) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (mode.equals("baseline")) {
+            command.add("-Dspring.profiles.active=prod");
+        } else {
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-Dspring.profiles.active=prod,fast-startup");
+        }
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-jar");
+        command.add((mode.equals("baseline") ? TARGET : FAST_STARTUP).resolve(jar).toString());
+        // Free ports, so a running instance does not get in the way
+        command.add("--server.port=0");
+        command.add("--management.server.port=0");
+    }
+
+    @Benchmark
+    public int startUntilRefreshed() throws Exception {
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        if (!process.waitFor(2, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Application did not start within 2 minutes: " + String.join(" ", command));
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Application failed to start (exit " + process.exitValue() + "), run "
+                + String.join(" ", command) + " to see why");
+        }
+        return process.exitValue();
+    }
+}
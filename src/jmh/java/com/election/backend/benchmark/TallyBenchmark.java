@@ -0,0 +1,95 @@
+package com.election.backend.benchmark;
+
+import com.election.backend.dto.ElectionResultDto;
+import com.election.backend.event.VoteCastEvent;
+import com.election.backend.repository.VoteRepository;
+import com.election.backend.service.RankedChoiceTally;
+import com.election.backend.service.TallyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tally aggregation: GROUP BY over the seeded vote table versus the in-memory
+ * tally, single vote increments, and a full STV count over packed ballots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TallyBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tallies {
+        VoteRepository voteRepo;
+        TallyService tallyService;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState app) {
+            voteRepo = app.bean(VoteRepository.class);
+            tallyService = app.bean(TallyService.class);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RankedBallots {
+        @Param({"100000"})
+        int ballots;
+
+        RankedChoiceTally tally;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int[] candidateIds = new int[20];
+            for (int i = 0; i < candidateIds.length; i++) {
+                candidateIds[i] = i + 1;
+            }
+            tally = new RankedChoiceTally(candidateIds);
+            // Skewed preferences, so rounds both elect with surplus and exclude
+            SplittableRandom random = new SplittableRandom(42);
+            for (int b = 0; b < ballots; b++) {
+                int[] ranking = new int[1 + random.nextInt(6)];
+                for (int p = 0; p < ranking.length; p++) {
+                    ranking[p] = 1 + Math.min(candidateIds.length - 1, (int) Math.abs(random.nextDouble() * random.nextDouble() * 20));
+                }
+                tally.addBallot(ranking);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ElectionResultDto> groupByVoteTable(ApplicationState app, Tallies tallies) {
+        return tallies.voteRepo.countVotesByElection(app.electionId);
+    }
+
+    @Benchmark
+    public Map<Long, Long> liveTally(ApplicationState app, Tallies tallies) {
+        return tallies.tallyService.counts(app.electionId);
+    }
+
+    @Benchmark
+    public void countVote(ApplicationState app, Tallies tallies) {
+        tallies.tallyService.onVoteCast(new VoteCastEvent(app.electionId, app.candidateIds[0]));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RankedChoiceTally.Result stvCount(RankedBallots ranked) {
+        return ranked.tally.count(5, false);
+    }
+}
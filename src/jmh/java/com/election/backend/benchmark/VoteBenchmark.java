@@ -0,0 +1,62 @@
+package com.election.backend.benchmark;
+
+import com.election.backend.controller.ElectionController;
+import com.election.backend.dto.CastVoteRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The castVote path end to end: status lock, eligibility and candidate checks,
+ * participation insert and ballot insert. Every call runs in a transaction that
+ * is rolled back, so the same voters can vote over and over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteBenchmark {
+
+    @State(Scope.Thread)
+    public static class Voter {
+        ElectionController controller;
+        TransactionTemplate transactionTemplate;
+        CastVoteRequestDto request = new CastVoteRequestDto();
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState app) {
+            controller = app.bean(ElectionController.class);
+            transactionTemplate = app.bean(TransactionTemplate.class);
+            request.setCandidateId(app.candidateIds[0]);
+        }
+    }
+
+    @Benchmark
+    public void castVote(ApplicationState app, Voter voter) {
+        // Round robin over the electorate, each call authenticates as the next voter
+        int index = voter.next++ % app.voterIds.length;
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+            "bench" + (ApplicationState.CANDIDATES + index), null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        voter.transactionTemplate.executeWithoutResult(tx -> {
+            tx.setRollbackOnly();
+            voter.controller.castVote(app.electionId, voter.request);
+        });
+    }
+}
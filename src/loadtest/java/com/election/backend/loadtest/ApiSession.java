@@ -0,0 +1,127 @@
+package com.election.backend.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One logged-in browser: keeps the cookies it was given (session or token
+ * cookie) and revalidates GETs with the ETag it saw last, like the frontend does.
+ * Every request is timed into the shared {@link LatencyStats} under its endpoint name.
+ * <p>
+ * Cookies are handled by hand because the server marks them Secure and the
+ * JDK cookie manager would not send them back over plain http.
+ */
+class ApiSession {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final int MAX_LOGIN_ATTEMPTS = 20;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LatencyStats stats;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> cookies = new ConcurrentHashMap<>();
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    ApiSession(HttpClient client, String baseUrl, LatencyStats stats, ObjectMapper objectMapper) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.objectMapper = objectMapper;
+    }
+
+    record Response(int status, String body) {
+    }
+
+    /**
+     * Form login. A 429 (password check queue full) is retried after the
+     * Retry-After the server sends; every attempt is recorded.
+     */
+    boolean login(String username, String password) throws InterruptedException {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+            + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        for (int attempt = 0; attempt < MAX_LOGIN_ATTEMPTS; attempt++) {
+            HttpResponse<String> response = send("POST /api/login", request("/api/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)));
+            if (response.statusCode() != 429) {
+                return response.statusCode() == 200;
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Duration.ofSeconds(retryAfter));
+        }
+        return false;
+    }
+
+    Response get(String endpoint, String path) {
+        HttpRequest.Builder builder = request(path).GET();
+        String etag = etags.get(path);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        HttpResponse<String> response = send(endpoint, builder);
+        response.headers().firstValue("ETag").ifPresent(value -> etags.put(path, value));
+        return new Response(response.statusCode(), response.body());
+    }
+
+    Response post(String endpoint, String path, Object body) {
+        HttpRequest.Builder builder = request(path)
+            .header("Content-Type", "application/json")
+            .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        HttpResponse<String> response = send(endpoint, builder);
+        return new Response(response.statusCode(), response.body());
+    }
+
+    JsonNode json(Response response) {
+        if (response.status() != 200 && response.status() != 202) {
+            throw new IllegalStateException("Unexpected status " + response.status() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (!cookies.isEmpty()) {
+            builder.header("Cookie", String.join("; ", cookies.entrySet().stream()
+                .map(cookie -> cookie.getKey() + "=" + cookie.getValue()).toList()));
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // Timeouts and refused connections count as status 0
+            stats.record(endpoint, 0, System.nanoTime() - start);
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        stats.record(endpoint, response.statusCode(), System.nanoTime() - start);
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            String pair = header.split(";", 2)[0];
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,277 @@
+package com.election.backend.loadtest;
+
+import com.election.backend.AnonymousElectionApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Election day against a real server: seeds voters and one election through
+ * the user and election APIs, then runs one session per voter (login,
+ * /api/auth/me, election list, my-status, vote, polling the election), closes
+ * the election, lets a share of the voters read the results and finally checks
+ * the database: one ballot per participation, nobody counted twice.
+ * <p>
+ * Without --base-url the application is started in this JVM, on an in-memory
+ * H2 database or (--database=postgres) on the datasource from application.yaml.
+ * Run with
+ * <pre>
+ *   mvn -Ploadtest -Dskip.frontend.build=true test -Dloadtest.args="--voters=2000 --ramp-up=PT1M"
+ * </pre>
+ * Every n-th voter (--double-vote-every) submits its ballot twice at the same
+ * time; exactly one of the two must be accepted.
+ */
+public class ElectionDaySimulation {
+
+    private static final String VOTE = "POST /api/elections/{id}/vote";
+
+    private final SimulationOptions options;
+    private final LatencyStats stats = new LatencyStats();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client = HttpClient.newBuilder()
+        .executor(executor)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final AtomicLong failedSessions = new AtomicLong();
+    private final AtomicLong doubleVotesAccepted = new AtomicLong();
+    private final Queue<ApiSession> resultReaders = new ConcurrentLinkedQueue<>();
+
+    private String baseUrl;
+    private JdbcTemplate jdbc;
+
+    ElectionDaySimulation(SimulationOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulationOptions options = SimulationOptions.parse(args);
+        ConfigurableApplicationContext context = options.baseUrl() == null ? startApplication(options) : null;
+        boolean passed;
+        try {
+            passed = new ElectionDaySimulation(options).run(context);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(SimulationOptions options) {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--management.server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN"));
+        if ("h2".equals(options.database())) {
+            args.addAll(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        } else if (!"postgres".equals(options.database())) {
+            throw new IllegalArgumentException("--database must be h2 or postgres");
+        }
+        // DevTools would restart this main class with the application's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(AnonymousElectionApplication.class);
+        application.setAdditionalProfiles("local");
+        return application.run(args.toArray(String[]::new));
+    }
+
+    boolean run(ConfigurableApplicationContext context) throws Exception {
+        if (context != null) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            jdbc = context.getBean(JdbcTemplate.class);
+        } else {
+            if (options.jdbcUrl() == null) {
+                throw new IllegalArgumentException("--base-url needs --jdbc-url for the verification");
+            }
+            baseUrl = options.baseUrl();
+            jdbc = new JdbcTemplate(new DriverManagerDataSource(options.jdbcUrl(), options.jdbcUser(), options.jdbcPassword()));
+        }
+
+        // 1. Seed voters and the election through the API
+        ApiSession admin = new ApiSession(client, baseUrl, stats, objectMapper);
+        if (!admin.login(options.adminUser(), options.adminPassword())) {
+            throw new IllegalStateException("Admin login failed");
+        }
+        String prefix = "lt-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        List<String> usernames = seedVoters(admin, prefix);
+        Map<String, Long> ids = findUserIds(admin, prefix);
+        List<Long> candidateIds = usernames.subList(0, options.candidates()).stream().map(ids::get).toList();
+        Map<String, Object> election = new LinkedHashMap<>();
+        election.put("title", "Load test " + prefix);
+        election.put("candidateIds", candidateIds);
+        election.put("eligibleVoterIds", ids.values());
+        long electionId = admin.json(admin.post("POST /api/elections", "/api/elections", election)).get("id").asLong();
+
+        // 2. Voters arrive evenly spread over the ramp-up
+        System.out.printf("Running %d voter sessions over %s against %s%n", options.voters(), options.rampUp(), baseUrl);
+        long start = System.nanoTime();
+        long spacing = options.rampUp().toNanos() / options.voters();
+        List<CompletableFuture<Void>> sessions = new ArrayList<>(options.voters());
+        for (int i = 0; i < usernames.size(); i++) {
+            long delay = start + i * spacing - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            int voter = i;
+            sessions.add(CompletableFuture.runAsync(() -> voterSession(voter, usernames.get(voter), electionId, candidateIds), executor));
+        }
+        CompletableFuture.allOf(sessions.toArray(CompletableFuture[]::new)).join();
+        long votingNanos = System.nanoTime() - start;
+
+        // 3. Close, then the waiting voters look at the results
+        ApiSession.Response closed = admin.post("POST /api/elections/{id}/close", "/api/elections/" + electionId + "/close", null);
+        if (closed.status() != 200) {
+            throw new IllegalStateException("Closing the election failed with " + closed.status());
+        }
+        List<CompletableFuture<Void>> reads = resultReaders.stream()
+            .map(session -> CompletableFuture.runAsync(() ->
+                session.get("GET /api/elections/{id}/results", "/api/elections/" + electionId + "/results"), executor))
+            .toList();
+        CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).join();
+        long totalNanos = System.nanoTime() - start;
+
+        // 4. Report
+        System.out.printf("%nVoting phase %.1f s, whole run %.1f s, %d failed sessions%n%n",
+            votingNanos / 1e9, totalNanos / 1e9, failedSessions.get());
+        stats.print(System.out, totalNanos);
+        Path reportDir = Path.of(options.reportDir());
+        stats.write(reportDir);
+        System.out.println("Histograms written to " + reportDir.toAbsolutePath());
+
+        return verify(admin, electionId);
+    }
+
+    private List<String> seedVoters(ApiSession admin, String prefix) throws InterruptedException {
+        List<String> usernames = new ArrayList<>(options.voters());
+        List<Map<String, String>> users = new ArrayList<>(options.voters());
+        for (int i = 0; i < options.voters(); i++) {
+            String username = prefix + i;
+            usernames.add(username);
+            users.add(Map.of("username", username, "password", options.voterPassword(),
+                "firstName", "Voter", "lastName", String.valueOf(i)));
+        }
+        long start = System.nanoTime();
+        JsonNode job = admin.json(admin.post("POST /api/users/import", "/api/users/import", users));
+        while ("RUNNING".equals(job.get("status").asString())) {
+            Thread.sleep(1000);
+            job = admin.json(admin.get("GET /api/users/import/{jobId}", "/api/users/import/" + job.get("id").asString()));
+        }
+        if (!"COMPLETED".equals(job.get("status").asString()) || job.get("created").asInt() != options.voters()) {
+            throw new IllegalStateException("User import did not create all voters: " + job);
+        }
+        System.out.printf("Imported %d voters in %.1f s%n", options.voters(), (System.nanoTime() - start) / 1e9);
+        return usernames;
+    }
+
+    private Map<String, Long> findUserIds(ApiSession admin, String prefix) {
+        Map<String, Long> ids = new HashMap<>();
+        String after = "";
+        do {
+            JsonNode page = admin.json(admin.get("GET /api/users/page", "/api/users/page?limit=200&q=" + prefix + after));
+            for (JsonNode user : page.get("items")) {
+                ids.put(user.get("username").asString(), user.get("id").asLong());
+            }
+            after = page.get("nextCursor").isNull() ? null : "&after=" + page.get("nextCursor").asLong();
+        } while (after != null);
+        return ids;
+    }
+
+    private void voterSession(int voter, String username, long electionId, List<Long> candidateIds) {
+        ApiSession session = new ApiSession(client, baseUrl, stats, objectMapper);
+        try {
+            if (!session.login(username, options.voterPassword())) {
+                throw new IllegalStateException("Login failed");
+            }
+            session.get("GET /api/auth/me", "/api/auth/me");
+            session.get("GET /api/elections", "/api/elections");
+            session.get("GET /api/elections/my-status", "/api/elections/my-status");
+
+            // One in twenty abstains
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Map<String, Object> ballot = new HashMap<>();
+            ballot.put("candidateId", random.nextInt(20) == 0 ? null : candidateIds.get(random.nextInt(candidateIds.size())));
+            String path = "/api/elections/" + electionId + "/vote";
+            if (options.doubleVoteEvery() > 0 && voter % options.doubleVoteEvery() == 0) {
+                // Double submit, as from a double click or two open tabs
+                CompletableFuture<ApiSession.Response> first = CompletableFuture.supplyAsync(() -> session.post(VOTE, path, ballot), executor);
+                CompletableFuture<ApiSession.Response> second = CompletableFuture.supplyAsync(() -> session.post(VOTE, path, ballot), executor);
+                if (first.join().status() == 200 && second.join().status() == 200) {
+                    doubleVotesAccepted.incrementAndGet();
+                }
+            } else {
+                session.post(VOTE, path, ballot);
+            }
+
+            // Watching the turnout while the election is open
+            session.get("GET /api/elections/my-status", "/api/elections/my-status");
+            for (int i = 0; i < options.polls(); i++) {
+                Thread.sleep(options.pollInterval());
+                session.get("GET /api/elections/{id}", "/api/elections/" + electionId);
+            }
+            if (voter % Math.max(1, options.voters() / Math.max(1, options.resultReaders())) == 0) {
+                resultReaders.add(session);
+            }
+        } catch (RuntimeException | InterruptedException e) {
+            if (failedSessions.incrementAndGet() <= 10) {
+                System.err.println("Session of " + username + " failed: " + e);
+            }
+        }
+    }
+
+    private boolean verify(ApiSession admin, long electionId) {
+        long ballots = jdbc.queryForObject("SELECT COUNT(*) FROM vote WHERE election_id = ?", Long.class, electionId);
+        long participations = jdbc.queryForObject("SELECT COUNT(*) FROM election_participation WHERE election_id = ?", Long.class, electionId);
+        long voters = jdbc.queryForObject("SELECT COUNT(DISTINCT user_id) FROM election_participation WHERE election_id = ?", Long.class, electionId);
+        long accepted = stats.count(VOTE, 200);
+        long counted = 0;
+        for (JsonNode line : admin.json(admin.get("GET /api/elections/{id}/results", "/api/elections/" + electionId + "/results"))) {
+            counted += line.get("count").asLong();
+        }
+
+        System.out.printf("%nVerification: %d ballots, %d participations (%d distinct voters), %d votes accepted, %d counted in the results%n",
+            ballots, participations, voters, accepted, counted);
+        boolean passed = true;
+        if (ballots != participations) {
+            System.out.println("FAILED: ballot count differs from participation count");
+            passed = false;
+        }
+        if (participations != voters || doubleVotesAccepted.get() > 0) {
+            System.out.printf("FAILED: double votes (%d double submits accepted twice)%n", doubleVotesAccepted.get());
+            passed = false;
+        }
+        if (accepted != ballots || counted != ballots) {
+            System.out.println("FAILED: accepted votes, stored ballots and results disagree");
+            passed = false;
+        }
+        if (passed) {
+            System.out.println("PASSED: one ballot per participation, no double votes");
+        }
+        return passed;
+    }
+}
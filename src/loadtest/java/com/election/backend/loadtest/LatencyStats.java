@@ -0,0 +1,76 @@
+package com.election.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and status code counts per endpoint. Latencies are kept in
+ * microseconds with three significant digits, up to one minute.
+ */
+class LatencyStats {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, int status, long nanos) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latency.recordValue(Math.min(MAX_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos))));
+        stats.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    long count(String endpoint, int status) {
+        Endpoint stats = endpoints.get(endpoint);
+        LongAdder adder = stats == null ? null : stats.statuses.get(status);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Prints one line per endpoint; throughput is requests per second over the whole run.
+     */
+    void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%-32s %8s %8s %8s %8s %8s %8s %8s  %s%n",
+            "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "status codes");
+        endpoints.forEach((name, stats) -> {
+            Histogram h = stats.latency;
+            Map<Integer, Long> statuses = new TreeMap<>();
+            stats.statuses.forEach((code, adder) -> statuses.put(code, adder.sum()));
+            out.printf("%-32s %8d %8.1f %8.2f %8.2f %8.2f %8.2f %8.2f  %s%n",
+                name, h.getTotalCount(), h.getTotalCount() / seconds,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0, statuses);
+        });
+    }
+
+    /**
+     * Writes the full percentile distribution of every endpoint in milliseconds,
+     * one .hgrm file each (plottable with the HdrHistogram plotter).
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Path file = directory.resolve(entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,66 @@
+package com.election.backend.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the simulation, given as {@code --name=value}.
+ *
+ * @param baseUrl         server to load; null starts the application in-process
+ * @param database        in-process database: "h2" (in memory) or "postgres" (datasource from application.yaml)
+ * @param jdbcUrl         database of an external server, needed for the final verification
+ * @param voters          sessions to run, one per voter
+ * @param candidates      candidates standing (taken from the seeded voters)
+ * @param rampUp          sessions start evenly spread over this time
+ * @param polls           election polls per session after voting
+ * @param pollInterval    pause between two polls
+ * @param doubleVoteEvery every n-th session submits its vote twice at the same time (0 = never)
+ * @param resultReaders   sessions that fetch the results after the election is closed
+ * @param reportDir       where the per-endpoint histograms (.hgrm) are written
+ */
+record SimulationOptions(String baseUrl, String database, String jdbcUrl, String jdbcUser, String jdbcPassword,
+                         String adminUser, String adminPassword, String voterPassword,
+                         int voters, int candidates, Duration rampUp, int polls, Duration pollInterval,
+                         int doubleVoteEvery, int resultReaders, String reportDir) {
+
+    static SimulationOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        SimulationOptions options = new SimulationOptions(
+            values.remove("base-url"),
+            option(values, "database", "h2"),
+            values.remove("jdbc-url"),
+            option(values, "jdbc-user", "dev"),
+            option(values, "jdbc-password", "dev"),
+            option(values, "admin-user", "admin"),
+            option(values, "admin-password", "rsuDbIBigjfUiceR"),
+            option(values, "voter-password", "loadtest"),
+            Integer.parseInt(option(values, "voters", "20000")),
+            Integer.parseInt(option(values, "candidates", "5")),
+            Duration.parse(option(values, "ramp-up", "PT10M")),
+            Integer.parseInt(option(values, "polls", "3")),
+            Duration.parse(option(values, "poll-interval", "PT5S")),
+            Integer.parseInt(option(values, "double-vote-every", "20")),
+            Integer.parseInt(option(values, "result-readers", "1000")),
+            option(values, "report-dir", "target/loadtest"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (options.candidates > options.voters) {
+            throw new IllegalArgumentException("More candidates than voters");
+        }
+        return options;
+    }
+
+    // Removes the option, so whatever is left over at the end was misspelled
+    private static String option(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+}
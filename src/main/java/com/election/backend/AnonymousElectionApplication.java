@@ -1,9 +1,14 @@
 package com.election.backend;
 
+import com.election.backend.config.AotRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(AotRuntimeHints.class)
 public class AnonymousElectionApplication {
 
 	public static void main(String[] args) {
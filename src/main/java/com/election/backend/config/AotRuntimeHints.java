@@ -0,0 +1,51 @@
+package com.election.backend.config;
+
+import com.election.backend.mapper.UserMapperImpl;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection the AOT-processed application needs beyond what Spring infers from
+ * the bean definitions: the MapStruct-generated mapper, the Lombok-generated
+ * accessors and constructors of the entities (used by Hibernate) and the DTOs
+ * (bound by Jackson, which includes nested types).
+ * <p>
+ * Packages are scanned at build time, so new entities and DTOs are covered
+ * without being listed here.
+ */
+public class AotRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String BASE_PACKAGE = "com.election.backend";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(UserMapperImpl.class,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (Class<?> entity : scan(BASE_PACKAGE + ".model", classLoader)) {
+            hints.reflection().registerType(entity,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.ACCESS_DECLARED_FIELDS);
+        }
+
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), scan(BASE_PACKAGE + ".dto", classLoader).toArray(Class<?>[]::new));
+    }
+
+    // Every top-level class, record and enum of the package
+    private static List<Class<?>> scan(String packageName, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        return scanner.findCandidateComponents(packageName).stream()
+            .map(BeanDefinition::getBeanClassName)
+            .<Class<?>>map(name -> ClassUtils.resolveClassName(name, classLoader))
+            .toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.election.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConnectionLimitingDataSource} in front of the Hikari pool, with
+ * as many permits as the pool has connections. On by default together with
+ * virtual threads (election.db-limiter.enabled).
+ */
+@Configuration
+@ConditionalOnProperty(name = "election.db-limiter.enabled", havingValue = "true")
+public class ConnectionLimiterConfig {
+
+    // Static: post processors are created before the rest of the configuration
+    @Bean
+    public static BeanPostProcessor connectionLimiter(@Value("${election.db-limiter.acquire-timeout}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // After initialization, so the pool settings are bound already
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                limiter.bindTo(registry);
+            }
+        };
+    }
+}
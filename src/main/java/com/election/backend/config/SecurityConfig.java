@@ -1,15 +1,31 @@
 package com.election.backend.config;
 
-import com.election.backend.repository.UserRepository;
+import com.election.backend.dto.AuthTokenDto;
+import com.election.backend.security.AuthTokenService;
+import com.election.backend.security.LoginThrottledException;
+import com.election.backend.security.OffloadingPasswordEncoder;
+import com.election.backend.security.PasswordCheckExecutor;
+import com.election.backend.security.PrincipalCache;
+import com.election.backend.security.TimedPasswordEncoder;
+import com.election.backend.security.TokenAuthenticationFilter;
+import com.election.backend.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,10 +33,16 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -32,24 +54,57 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins}")
     private String corsAllowedOrigins;
 
+    @Value("${election.login.retry-after-seconds}")
+    private int loginRetryAfterSeconds;
+
+    // "session": form login + HTTP session, "token": stateless signed tokens
+    @Value("${election.auth.mode}")
+    private String authMode;
+
+    @Value("${election.auth.token.cookie-name}")
+    private String tokenCookieName;
+
     @Bean
-    public UserDetailsService userDetailsService(UserRepository repo) {
-        return username -> repo.findByUsernameIgnoreCase(username)
-            .map(user -> User.withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().replace("ROLE_", ""))
+    public UserDetailsService userDetailsService(PrincipalCache principalCache) {
+        return username -> principalCache.get(username)
+            .map(user -> User.withUsername(user.username())
+                .password(user.password())
+                .roles(user.role().replace("ROLE_", ""))
                 .build())
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Crucial: Never store plain text!
+    public PasswordEncoder passwordEncoder(@Value("${election.password.bcrypt-strength}") int strength, MeterRegistry registry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), registry); // Crucial: Never store plain text!
+    }
+
+    // Login provider whose BCrypt checks run on the bounded PasswordCheckExecutor
+    private AuthenticationManager loginAuthenticationManager(UserDetailsService userDetailsService, PasswordEncoder encoder,
+                                                             PasswordCheckExecutor passwordCheckExecutor) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(new OffloadingPasswordEncoder(encoder, passwordCheckExecutor));
+        return new ProviderManager(provider);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, UserDetailsService userDetailsService, PasswordEncoder encoder,
+                                           PasswordCheckExecutor passwordCheckExecutor, AuthTokenService tokenService,
+                                           PrincipalCache principalCache, ObjectMapper objectMapper) throws Exception {
+        boolean tokenMode = "token".equalsIgnoreCase(authMode);
+        if (tokenMode) {
+            if (!tokenService.hasKeys()) {
+                throw new IllegalStateException("election.auth.mode=token requires election.auth.token.keys");
+            }
+            http
+                // No session at all: every request carries its signed token
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService, tokenCookieName), UsernamePasswordAuthenticationFilter.class);
+        }
+
         http
+            .authenticationManager(loginAuthenticationManager(userDetailsService, encoder, passwordCheckExecutor))
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             // 1. Disable CSRF for easier testing (optional, but often needed for API dev)
             .csrf(csrf -> csrf.disable())
@@ -76,8 +131,18 @@ public class SecurityConfig {
                 .successHandler((request, response, authentication) -> {
                     // 2. On success, return 200 OK (instead of redirecting to /home)
                     response.setStatus(HttpServletResponse.SC_OK);
+                    if (tokenMode) {
+                        UserPrincipal user = principalCache.get(authentication.getName()).orElseThrow();
+                        writeToken(response, tokenService.issue(user), tokenService.getTtl(), objectMapper);
+                    }
                 })
                 .failureHandler((request, response, exception) -> {
+                    if (exception instanceof LoginThrottledException) {
+                        // Password check queue is full: tell the client to come back instead of piling up
+                        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginRetryAfterSeconds));
+                        return;
+                    }
                     // 3. On failure, return 401 Unauthorized (instead of redirecting to /login?error)
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 })
@@ -86,6 +151,10 @@ public class SecurityConfig {
             .logout(logout -> logout
                 .logoutUrl("/api/logout") // 4. The URL to logout
                 .logoutSuccessHandler((request, response, authentication) -> {
+                    if (tokenMode) {
+                        // Tokens can't be revoked server side, dropping the cookie logs the browser out
+                        response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie("", Duration.ZERO).toString());
+                    }
                     response.setStatus(HttpServletResponse.SC_OK);
                 })
             )
@@ -96,6 +165,24 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Token in the body for API clients (Authorization: Bearer ...) and as cookie for the browser app
+    private void writeToken(HttpServletResponse response, String token, Duration ttl, ObjectMapper objectMapper) throws IOException {
+        response.addHeader(HttpHeaders.SET_COOKIE, tokenCookie(token, ttl).toString());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new AuthTokenDto(token, ttl.toSeconds()));
+    }
+
+    // Same attributes as the session cookie (cross-site frontend)
+    private ResponseCookie tokenCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(tokenCookieName, value)
+            .httpOnly(true)
+            .secure(true)
+            .sameSite("None")
+            .path("/")
+            .maxAge(maxAge)
+            .build();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
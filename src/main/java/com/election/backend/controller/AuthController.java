@@ -2,8 +2,7 @@ package com.election.backend.controller;
 
 import com.election.backend.dto.UserDto;
 import com.election.backend.mapper.UserMapper;
-import com.election.backend.model.AppUser;
-import com.election.backend.repository.UserRepository;
+import com.election.backend.security.PrincipalCache;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,11 +13,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     private final UserMapper userMapper;
 
-    public AuthController(UserRepository userRepository, UserMapper userMapper) {
-        this.userRepository = userRepository;
+    public AuthController(PrincipalCache principalCache, UserMapper userMapper) {
+        this.principalCache = principalCache;
         this.userMapper = userMapper;
     }
 
@@ -28,8 +27,8 @@ public class AuthController {
         // Spring Security injects the logged-in principal here
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        // Find the full user details from the database based on the authenticated name
-        return userRepository.findByUsername(auth.getName())
+        // Cached user details for the authenticated name (no query per request)
+        return principalCache.get(auth.getName())
             .map(userMapper::toDto)
             .orElseThrow(() -> new RuntimeException("User not found"));
     }
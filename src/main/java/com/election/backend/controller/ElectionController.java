@@ -1,19 +1,63 @@
 package com.election.backend.controller;
 
+import com.election.backend.dto.BallotDto;
+import com.election.backend.dto.BallotJournalDto;
+import com.election.backend.dto.BulkBallotResultDto;
 import com.election.backend.dto.CastVoteRequestDto;
 import com.election.backend.dto.CreateElectionRequestDto;
+import com.election.backend.dto.ElectionArchiveDto;
 import com.election.backend.dto.ElectionDto;
 import com.election.backend.dto.ElectionResultDto;
+import com.election.backend.dto.ElectionSummaryDto;
+import com.election.backend.dto.ElectionSummaryPageDto;
+import com.election.backend.dto.ElectionVoterDto;
+import com.election.backend.dto.ElectionVoterPageDto;
+import com.election.backend.dto.RankedResultDto;
+import com.election.backend.dto.VoterStatusDto;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.event.ParticipationRecordedEvent;
+import com.election.backend.event.VoteCastEvent;
 import com.election.backend.mapper.UserMapper;
 import com.election.backend.model.AppUser;
 import com.election.backend.model.Election;
 import com.election.backend.model.ElectionStatus;
 import com.election.backend.model.Vote;
+import com.election.backend.model.VotingMethod;
+import com.election.backend.repository.ElectionArchiveRepository;
 import com.election.backend.repository.ElectionRepository;
+import com.election.backend.repository.ElectionSummary;
 import com.election.backend.repository.UserRepository;
 import com.election.backend.repository.VoteRepository;
+import com.election.backend.repository.VoterRollRepository;
+import com.election.backend.security.PrincipalCache;
+import com.election.backend.service.BallotImportService;
+import com.election.backend.service.BallotJournal;
+import com.election.backend.service.BallotSpec;
+import com.election.backend.service.BallotSpecCache;
+import com.election.backend.service.ElectionArchiveService;
+import com.election.backend.service.ElectionEventBroadcaster;
+import com.election.backend.service.ElectionExportService;
+import com.election.backend.service.ElectionResultService;
+import com.election.backend.service.ElectionSnapshotCache;
+import com.election.backend.service.ElectorateIndex;
+import com.election.backend.service.RankingCodec;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,62 +66,251 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/elections")
 public class ElectionController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepo;
     private final ElectionRepository electionRepo;
+    private final VoterRollRepository voterRollRepo;
     private final VoteRepository voteRepo;
     private final UserMapper userMapper;
+    private final BallotImportService ballotImportService;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
+    private final ElectionSnapshotCache snapshotCache;
+    private final ElectionEventBroadcaster eventBroadcaster;
+    private final ElectorateIndex electorateIndex;
+    private final BallotSpecCache ballotSpecs;
+    private final ElectionResultService resultService;
+    private final ElectionArchiveService archiveService;
+    private final ElectionArchiveRepository archiveRepo;
+    private final BallotJournal ballotJournal;
+    private final ElectionExportService exportService;
 
-    public ElectionController(UserRepository userRepo, ElectionRepository electionRepo, VoteRepository voteRepo, UserMapper userMapper) {
+    public ElectionController(UserRepository userRepo, ElectionRepository electionRepo, VoterRollRepository voterRollRepo,
+                              VoteRepository voteRepo, UserMapper userMapper,
+                              BallotImportService ballotImportService,
+                              ApplicationEventPublisher events, ObjectMapper objectMapper, PrincipalCache principalCache,
+                              ElectionSnapshotCache snapshotCache, ElectionEventBroadcaster eventBroadcaster,
+                              ElectorateIndex electorateIndex, BallotSpecCache ballotSpecs, ElectionResultService resultService,
+                              ElectionArchiveService archiveService, ElectionArchiveRepository archiveRepo,
+                              BallotJournal ballotJournal, ElectionExportService exportService) {
         this.userRepo = userRepo;
         this.electionRepo = electionRepo;
+        this.voterRollRepo = voterRollRepo;
         this.voteRepo = voteRepo;
         this.userMapper = userMapper;
+        this.ballotImportService = ballotImportService;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.snapshotCache = snapshotCache;
+        this.eventBroadcaster = eventBroadcaster;
+        this.electorateIndex = electorateIndex;
+        this.ballotSpecs = ballotSpecs;
+        this.resultService = resultService;
+        this.archiveService = archiveService;
+        this.archiveRepo = archiveRepo;
+        this.ballotJournal = ballotJournal;
+        this.exportService = exportService;
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ElectionDto createElection(@RequestBody CreateElectionRequestDto request) {
         Election election = new Election();
         election.setTitle(request.getTitle());
         election.setStatus(ElectionStatus.OPEN);
 
+        VotingMethod method = request.getVotingMethod() == null ? VotingMethod.PLURALITY : request.getVotingMethod();
+        int seats = request.getSeats() == null ? 1 : request.getSeats();
+        if (seats < 1 || seats != 1 && method != VotingMethod.STV) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only STV elections can have more than one seat");
+        }
+        if (request.getCandidateIds() == null || seats > request.getCandidateIds().size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "More seats than candidates");
+        }
+        election.setVotingMethod(method);
+        election.setSeats(seats);
+
         // Fetch Users from DB based on IDs sent
         List<AppUser> candidates = userRepo.findAllById(request.getCandidateIds());
-        List<AppUser> voters = userRepo.findAllById(request.getEligibleVoterIds());
-
         election.setCandidates(new HashSet<>(candidates));
-        election.setEligibleVoters(new HashSet<>(voters));
 
-        Election saved = electionRepo.save(election);
+        Set<Long> voterIds = request.getEligibleVoterIds() == null ? Set.of() : request.getEligibleVoterIds();
+        if (request.getVoterRollId() != null) {
+            if (!voterIds.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either eligible voters or a voter roll, not both");
+            }
+            // One reference instead of a row per voter, the electorate index reads the roll
+            election.setVoterRoll(voterRollRepo.findById(request.getVoterRollId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Voter roll not found")));
+        } else {
+            election.setEligibleVoters(new HashSet<>(userRepo.findAllById(voterIds)));
+        }
+
+        // Flushed so the join rows are visible to the electorate index when mapping
+        Election saved = electionRepo.saveAndFlush(election);
+        ballotJournal.register(saved.getId());
+        events.publishEvent(new ElectionUpdatedEvent(saved.getId()));
         return mapToDto(saved); // No user context needed for create response
     }
 
+    // Served from the snapshot cache, so If-None-Match revalidation of an unchanged
+    // election is a 304 without touching the database. The ETag is a hash of the
+    // content, after a restart or on another replica the same data gets the same tag.
     @GetMapping("/{id}")
-    public ElectionDto getElection(@PathVariable Long id) {
-
-        return electionRepo.findById(id)
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = ElectionDto.class)))
+    public ResponseEntity<byte[]> getElection(@PathVariable Long id, WebRequest webRequest) {
+        ElectionSnapshotCache.Snapshot snapshot = snapshotCache.get(id, () -> electionRepo.findById(id)
             .map(this::mapToDto)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null; // 304 Not Modified
+        }
+        return snapshotResponse(snapshot);
     }
 
     // 2. GET ALL ELECTIONS
-    // Visible to everyone, but we flag if the current user has voted
+    // Visible to everyone and identical for everyone; per-user flags come from /my-status
     @GetMapping
-    public List<ElectionDto> getElections() {
-        return electionRepo.findAll().stream()
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ElectionDto.class))))
+    public ResponseEntity<byte[]> getElections(WebRequest webRequest) {
+        ElectionSnapshotCache.Snapshot snapshot = snapshotCache.getList(() -> electionRepo.findAll(Sort.by("id")).stream()
             .map(this::mapToDto)
+            .toList());
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null; // 304 Not Modified
+        }
+        return snapshotResponse(snapshot);
+    }
+
+    // Which elections the current user may vote in and has voted in: open elections from
+    // the bitmaps, the others (which no longer change) by two indexed lookups on the user
+    @GetMapping("/my-status")
+    public VoterStatusDto getMyStatus() {
+        Long currentUserId = principalCache.idOf(SecurityContextHolder.getContext().getAuthentication());
+        List<Long> eligible = new ArrayList<>(electionRepo.findClosedIdsEligibleFor(currentUserId));
+        List<Long> voted = new ArrayList<>(electionRepo.findClosedIdsVotedBy(currentUserId));
+        for (Long electionId : electionRepo.findOpenIds()) {
+            if (electorateIndex.isEligible(electionId, currentUserId)) {
+                eligible.add(electionId);
+            }
+            if (electorateIndex.hasVoted(electionId, currentUserId)) {
+                voted.add(electionId);
+            }
+        }
+        return new VoterStatusDto(eligible, voted);
+    }
+
+    // Eligible voters with their check mark, paged by user id
+    @GetMapping("/{id}/voters")
+    public ElectionVoterPageDto getVoters(@PathVariable Long id,
+                                          @RequestParam(required = false) Long after,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!electionRepo.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+
+        // Fetch one extra id to know whether there is a next page
+        List<Long> ids = electorateIndex.eligibleVoters(id, after == null ? -1 : after, limit + 1);
+        boolean hasMore = ids.size() > limit;
+        List<Long> pageIds = ids.subList(0, Math.min(ids.size(), limit));
+
+        Map<Long, AppUser> users = userRepo.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(AppUser::getId, Function.identity()));
+        List<ElectionVoterDto> items = pageIds.stream()
+            .map(users::get)
+            .filter(user -> user != null)
+            .map(user -> ElectionVoterDto.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .voted(electorateIndex.hasVoted(id, user.getId()))
+                .build())
             .toList();
+
+        return new ElectionVoterPageDto(items, hasMore ? pageIds.getLast() : null);
+    }
+
+    // Live updates (Server-Sent Events) for all elections:
+    // "turnout" {electionId, turnout}, "status" {electionId, status} when closed, "deleted" {electionId}
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return eventBroadcaster.subscribe(null);
+    }
+
+    // Live updates for a single election, same events as above
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamElectionEvents(@PathVariable Long id) {
+        if (!electionRepo.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return eventBroadcaster.subscribe(id);
+    }
+
+    // Lightweight listing for overview pages: counts instead of collections,
+    // keyset paginated (newest first) and optionally filtered by status
+    @GetMapping("/summaries")
+    public ElectionSummaryPageDto getElectionSummaries(@RequestParam(required = false) Set<ElectionStatus> status,
+                                                       @RequestParam(required = false) Long after,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Set<ElectionStatus> statuses = status == null || status.isEmpty() ? EnumSet.allOf(ElectionStatus.class) : status;
+
+        // Fetch one extra row to know whether there is a next page
+        List<ElectionSummary> rows = electionRepo.findSummaries(statuses, after == null ? Long.MAX_VALUE : after, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<ElectionSummaryDto> items = rows.stream()
+            .limit(limit)
+            .map(row -> ElectionSummaryDto.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .status(row.getStatus().name())
+                .candidateCount(row.getCandidateCount())
+                .electorateSize(row.getElectorateSize())
+                .turnout(row.getTurnout())
+                .build())
+            .toList();
+
+        return new ElectionSummaryPageDto(items, hasMore ? items.getLast().getId() : null);
     }
 
     @DeleteMapping("/{id}")
@@ -89,81 +322,230 @@ public class ElectionController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found");
         }
 
-        // 1. Clean up the votes first (to avoid Foreign Key constraint error)
-        voteRepo.deleteByElectionId(id);
+        // One DELETE per table, votes and results first (to avoid Foreign Key constraint error)
+        archiveService.deleteElection(id);
+    }
+
+    // Moves a completed election with its ballots to an export file, in the background
+    @PostMapping("/{id}/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void archiveElection(@PathVariable Long id) {
+        ElectionStatus status = electionRepo.findStatusById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found"));
+        if (status != ElectionStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Only completed elections can be archived");
+        }
+        archiveService.submit(id);
+    }
 
-        // 2. Now safe to delete the election
-        electionRepo.deleteById(id);
+    @GetMapping("/archives")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<ElectionArchiveDto> getArchives() {
+        return archiveRepo.findAllByOrderByArchivedAtDesc().stream()
+            .map(archive -> ElectionArchiveDto.builder()
+                .electionId(archive.getElectionId())
+                .title(archive.getTitle())
+                .finalizedAt(archive.getFinalizedAt())
+                .archivedAt(archive.getArchivedAt())
+                .fileName(archive.getFileName())
+                .sha256(archive.getSha256())
+                .ballots(archive.getBallots())
+                .participations(archive.getParticipations())
+                .build())
+            .toList();
     }
 
     // 3. GET RESULTS
     // Only allows access if the election is COMPLETED
     @GetMapping("/{id}/results")
-    public List<ElectionResultDto> getResults(@PathVariable Long id) {
-        Election election = electionRepo.findById(id)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    public ResponseEntity<List<ElectionResultDto>> getResults(@PathVariable Long id) {
+        // Stored when the election was closed, never recomputed
+        ElectionResultService.FinalResult result = resultService.getResults(id);
+
+        // Final, so clients may keep it without ever revalidating
+        return ResponseEntity.ok()
+            .eTag("\"" + result.checksum() + "\"")
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .body(result.results());
+    }
 
-        if (election.getStatus() != ElectionStatus.COMPLETED) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Election is still open. Results are hidden.");
+    // Round-by-round count of a completed IRV/STV election
+    @GetMapping("/{id}/results/rounds")
+    public ResponseEntity<RankedResultDto> getResultRounds(@PathVariable Long id) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .body(resultService.getRankedResult(id));
+    }
+
+    // Downloads for auditors, streamed from a database cursor while the client reads.
+    // format=csv|ndjson, gzip=true sends a .gz file.
+    @GetMapping("/{id}/export/results")
+    public void exportResults(@PathVariable Long id,
+                              @RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(defaultValue = "false") boolean gzip,
+                              HttpServletResponse response) throws IOException {
+        ElectionExportService.Format exportFormat = ElectionExportService.Format.parse(format);
+        exportService.checkExportable(id);
+        try (Writer out = exportWriter(response, "election-" + id + "-results", exportFormat, gzip)) {
+            exportService.writeResults(id, exportFormat, out);
         }
+    }
 
-        return voteRepo.countVotesByElection(id);
+    // Anonymous ballots, no ids and sorted by content
+    @GetMapping("/{id}/export/ballots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportBallots(@PathVariable Long id,
+                              @RequestParam(defaultValue = "csv") String format,
+                              @RequestParam(defaultValue = "false") boolean gzip,
+                              HttpServletResponse response) throws IOException {
+        ElectionExportService.Format exportFormat = ElectionExportService.Format.parse(format);
+        exportService.checkExportable(id);
+        try (Writer out = exportWriter(response, "election-" + id + "-ballots", exportFormat, gzip)) {
+            exportService.writeBallots(id, exportFormat, out);
+        }
     }
 
     @PostMapping("/{id}/vote")
     @Transactional // Critical: All or nothing
     public void castVote(@PathVariable Long id, @RequestBody CastVoteRequestDto request) {
         // 1. Identify User
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        AppUser currentUser = userRepo.findByUsernameIgnoreCase(username).orElseThrow();
+        Long currentUserId = principalCache.idOf(SecurityContextHolder.getContext().getAuthentication());
 
-        // 2. Load Election
-        Election election = electionRepo.findById(id)
+        // 2. Load Election status (the aggregate itself is never loaded on this path)
+        // Shared lock until commit: closing waits for this vote instead of missing it
+        ElectionStatus status = electionRepo.lockStatusById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
         // 3. Validation Checks
-        if (election.getStatus() != ElectionStatus.OPEN) {
+        if (status != ElectionStatus.OPEN) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Election is closed");
         }
-        if (!election.getEligibleVoters().contains(currentUser)) {
+        if (!electorateIndex.isEligible(id, currentUserId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not eligible to vote");
         }
-        if (election.getUserIdsWhoVoted().contains(currentUser.getId())) {
+        if (electorateIndex.hasVoted(id, currentUserId)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Already voted");
         }
+        // Ensure candidate is actually running in this election (null -> Abstain)
+        // Ranked ballots: every preference must be a candidate, the first one is stored as the candidate
+        // Checked against the cached spec, no queries
+        BallotSpec spec = ballotSpecs.get(id);
+        List<Long> ranking = request.getRanking() == null ? List.of() : request.getRanking();
+        Long candidateId = request.getCandidateId();
+        if (!spec.ranked()) {
+            if (!ranking.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a ranked election");
+            }
+            if (candidateId != null && !spec.isCandidate(candidateId)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is not a candidate");
+            }
+        } else {
+            if (ranking.isEmpty() && candidateId != null) {
+                ranking = List.of(candidateId);
+            }
+            if (!spec.isValidRanking(ranking)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ranking must list distinct candidates");
+            }
+            candidateId = ranking.isEmpty() ? null : ranking.getFirst();
+        }
 
         // 4. Record Participation (The "Check mark" on the list)
-        election.getUserIdsWhoVoted().add(currentUser.getId());
+        // One insert; the unique constraint rejects a second vote even under concurrency
+        try {
+            electionRepo.recordParticipation(id, currentUserId);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already voted");
+        }
+        events.publishEvent(new ParticipationRecordedEvent(id, currentUserId));
 
         // 5. Create the Anonymous Vote (The "Ballot in the box")
+        if (ballotJournal.isEnabled()) {
+            // On disk before we commit, copied into the vote table in the background
+            ballotJournal.append(id, candidateId, ranking);
+            events.publishEvent(new VoteCastEvent(id, candidateId));
+            return;
+        }
         Vote vote = new Vote();
-        vote.setElection(election);
-
-        if (request.getCandidateId() != null) {
-            AppUser candidate = userRepo.findById(request.getCandidateId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid candidate"));
+        vote.setElection(electionRepo.getReferenceById(id));
 
-            // Ensure candidate is actually running in this election
-            if (!election.getCandidates().contains(candidate)) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is not a candidate");
-            }
-            vote.setCandidate(candidate);
+        if (candidateId != null) {
+            vote.setCandidate(userRepo.getReferenceById(candidateId));
         }
         // else: candidate remains null -> Abstain
+        vote.setRanking(RankingCodec.encode(ranking));
 
         voteRepo.save(vote);
-        electionRepo.save(election);
+
+        // Counted in the live tally once this transaction commits
+        events.publishEvent(new VoteCastEvent(id, candidateId));
+    }
+
+    // Bulk import of anonymous ballots (digitized paper ballots, kiosks)
+    // Body: JSON array or NDJSON stream of {"candidateId": ...}, read lazily and committed in chunks
+    @PostMapping(value = "/{id}/ballots", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkBallotResultDto> importBallots(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        try (MappingIterator<BallotDto> ballots = objectMapper.readerFor(BallotDto.class).readValues(request.getInputStream())) {
+            BulkBallotResultDto result = ballotImportService.importBallots(id, ballots);
+            return result.getError() == null ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+        }
     }
 
     @PostMapping("/{id}/close")
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
     public void closeElection(@PathVariable Long id) {
-        Election election = electionRepo.findById(id)
+        // Exclusive lock: waits for votes in flight, later votes see COMPLETED
+        Election election = electionRepo.findByIdForUpdate(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (election.getStatus() == ElectionStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Election is already closed");
+        }
+
+        // Ballots still in the journal go into the vote table first
+        ballotJournal.drain(id);
+        // The electorate is final too: a roll is copied, later edits to it don't reach back.
+        // Edits in flight commit first, the lock keeps new ones out until the copy commits.
+        if (election.getVoterRoll() != null) {
+            voterRollRepo.lockSharedById(election.getVoterRoll().getId());
+        }
+        electionRepo.copyVoterRollMembers(id);
 
         election.setStatus(ElectionStatus.COMPLETED);
+        // Count once and store the result, it is final from here on
+        resultService.finalizeElection(election);
         electionRepo.save(election);
+        events.publishEvent(new ElectionUpdatedEvent(id));
+    }
+
+    // Replays the election's ballot journal: hash chain check and recount
+    @GetMapping("/{id}/journal")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BallotJournalDto verifyJournal(@PathVariable Long id) {
+        return ballotJournal.verify(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Election has no ballot journal"));
+    }
+
+    private static Writer exportWriter(HttpServletResponse response, String name, ElectionExportService.Format format,
+                                       boolean gzip) throws IOException {
+        String fileName = name + "." + format.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        OutputStream body = response.getOutputStream();
+        if (gzip) {
+            body = new GZIPOutputStream(body, 65536);
+        }
+        return new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 65536);
+    }
+
+    // no-cache: clients may store the response but must revalidate it with If-None-Match
+    private ResponseEntity<byte[]> snapshotResponse(ElectionSnapshotCache.Snapshot snapshot) {
+        return ResponseEntity.ok()
+            .eTag(snapshot.etag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.json());
     }
 
     private ElectionDto mapToDto(Election election) {
@@ -171,13 +553,17 @@ public class ElectionController {
             .id(election.getId())
             .title(election.getTitle())
             .status(election.getStatus().name())
+            .votingMethod(election.getVotingMethod().name())
+            .seats(election.getSeats())
+            // Sorted, so the same election always serializes (and hashes) the same
             .candidates(election.getCandidates().stream()
+                .sorted(Comparator.comparing(AppUser::getId))
                 .map(userMapper::toDto)
                 .toList())
-            .eligibleVoters(election.getEligibleVoters().stream()
-                .map(userMapper::toDto)
-                .toList())
-            .userIdsWhoVoted(election.getUserIdsWhoVoted())
+            .electorateSize(electorateIndex.electorateSize(election.getId()))
+            .turnout(electorateIndex.turnout(election.getId()))
+            .voterRollId(election.getVoterRoll() == null ? null : election.getVoterRoll().getId())
+            .voterRollName(election.getVoterRoll() == null ? null : election.getVoterRoll().getName())
             .build();
     }
 }
@@ -3,30 +3,64 @@ package com.election.backend.controller;
 import com.election.backend.dto.ResetPasswordRequestDto;
 import com.election.backend.dto.UpdateUserRequestDto;
 import com.election.backend.dto.UserDto;
+import com.election.backend.dto.UserImportJobDto;
+import com.election.backend.dto.UserPageDto;
+import com.election.backend.event.UserChangedEvent;
 import com.election.backend.mapper.UserMapper;
 import com.election.backend.model.AppUser;
 import com.election.backend.repository.UserRepository;
 import com.election.backend.dto.CreateUserRequestDto;
+import com.election.backend.security.PrincipalCache;
+import com.election.backend.service.UserImportService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository repo;
     private final UserMapper userMapper;
     private final PasswordEncoder encoder;
-
-    public UserController(UserRepository repo, UserMapper userMapper, PasswordEncoder encoder) {
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserImportService importService;
+    private final PrincipalCache principalCache;
+    private final ApplicationEventPublisher events;
+
+    public UserController(UserRepository repo, UserMapper userMapper, PasswordEncoder encoder,
+                          TransactionTemplate transactionTemplate, ObjectMapper objectMapper, UserImportService importService,
+                          PrincipalCache principalCache, ApplicationEventPublisher events) {
         this.repo = repo;
         this.userMapper = userMapper;
         this.encoder = encoder;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.importService = importService;
+        this.principalCache = principalCache;
+        this.events = events;
     }
 
     // 1. List all users (Admin only)
@@ -37,6 +71,47 @@ public class UserController {
             .toList();
     }
 
+    // 1b. Searchable, keyset paginated listing (ordered by id)
+    // q matches the beginning of username, first name or last name (case-insensitive)
+    @GetMapping("/page")
+    public UserPageDto getUserPage(@RequestParam(required = false) String q,
+                                   @RequestParam(required = false) Long after,
+                                   @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether there is a next page
+        List<UserDto> rows = repo.findPage(toPrefixPattern(q), after == null ? 0L : after, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<UserDto> items = hasMore ? rows.subList(0, limit) : rows;
+
+        return new UserPageDto(items, hasMore ? items.getLast().getId() : null);
+    }
+
+    // 1c. Export all users as NDJSON (Admin only)
+    // Streams from a database cursor, so memory use does not depend on the number of users
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = out -> transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<UserDto> users = repo.streamAll();
+                 OutputStream buffered = new BufferedOutputStream(out)) {
+                Iterator<UserDto> it = users.iterator();
+                while (it.hasNext()) {
+                    buffered.write(objectMapper.writeValueAsBytes(it.next()));
+                    buffered.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     // 2. Create a new user (Admin only)
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -54,6 +129,29 @@ public class UserController {
         return userMapper.toDto(savedUser);
     }
 
+    // 2b. Bulk import (Admin only), runs in the background
+    // Poll GET /api/users/import/{jobId} for progress and per-row errors
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UserImportJobDto importUsers(@RequestBody List<CreateUserRequestDto> users) {
+        return importService.submit(users);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UserImportJobDto importUsersCsv(@RequestBody String csv) {
+        return importService.submit(importService.parseCsv(csv));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportJobDto getImportJob(@PathVariable String jobId) {
+        return importService.getJob(jobId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found"));
+    }
+
     // 3. Delete a user (Admin only)
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -64,7 +162,14 @@ public class UserController {
         if (user.getUsername().equals("admin")){
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot delete default admin user");
         }
-        repo.deleteById(id);
+        try {
+            repo.deleteById(id);
+        } catch (DataIntegrityViolationException e) {
+            // Candidates and listed voters stay, closed elections keep their electorate
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "User is part of an election");
+        }
+        principalCache.invalidate(user.getUsername());
+        events.publishEvent(new UserChangedEvent(id));
     }
 
     // 4. Update User Details
@@ -78,10 +183,16 @@ public class UserController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot modify default admin user");
         }
 
+        String oldUsername = user.getUsername();
+
         // MapStruct updates the fields
         userMapper.updateEntityFromRequest(request, user);
 
-        return userMapper.toDto(repo.save(user));
+        AppUser saved = repo.save(user);
+        principalCache.invalidate(oldUsername);
+        principalCache.invalidate(saved.getUsername());
+        events.publishEvent(new UserChangedEvent(id));
+        return userMapper.toDto(saved);
     }
 
     // 5. Reset Password
@@ -98,5 +209,18 @@ public class UserController {
 
         user.setPassword(encoder.encode(request.getNewPassword()));
         repo.save(user);
+        principalCache.invalidate(user.getUsername());
+        events.publishEvent(new UserChangedEvent(id));
+    }
+
+    private static String toPrefixPattern(String query) {
+        if (query == null || query.isBlank()) {
+            return "%";
+        }
+        String escaped = query.trim().toLowerCase(Locale.ROOT)
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_");
+        return escaped + "%";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.election.backend.controller;
+
+import com.election.backend.dto.CreateVoterRollRequestDto;
+import com.election.backend.dto.VoterRollDto;
+import com.election.backend.repository.VoterRollRepository;
+import com.election.backend.repository.VoterRollSummary;
+import com.election.backend.service.VoterRollService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+
+// Named electorates for elections, see VoterRollService
+@RestController
+@RequestMapping("/api/voter-rolls")
+@PreAuthorize("hasRole('ADMIN')")
+public class VoterRollController {
+
+    private final VoterRollRepository repo;
+    private final VoterRollService service;
+
+    public VoterRollController(VoterRollRepository repo, VoterRollService service) {
+        this.repo = repo;
+        this.service = service;
+    }
+
+    @GetMapping
+    public List<VoterRollDto> getVoterRolls() {
+        return repo.findSummaries().stream()
+            .map(this::mapToDto)
+            .toList();
+    }
+
+    @PostMapping
+    public VoterRollDto createVoterRoll(@RequestBody CreateVoterRollRequestDto request) {
+        return getVoterRoll(service.create(request.getName(), request.getMemberIds()));
+    }
+
+    @GetMapping("/{id}")
+    public VoterRollDto getVoterRoll(@PathVariable Long id) {
+        return repo.findSummaryById(id)
+            .map(this::mapToDto)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter roll not found"));
+    }
+
+    // Changes the electorate of every election that uses the roll, also running ones
+    @PostMapping("/{id}/members")
+    public VoterRollDto addMembers(@PathVariable Long id, @RequestBody Set<Long> userIds) {
+        service.addMembers(id, userIds);
+        return getVoterRoll(id);
+    }
+
+    @DeleteMapping("/{id}/members")
+    public VoterRollDto removeMembers(@PathVariable Long id, @RequestBody Set<Long> userIds) {
+        service.removeMembers(id, userIds);
+        return getVoterRoll(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteVoterRoll(@PathVariable Long id) {
+        service.delete(id);
+    }
+
+    private VoterRollDto mapToDto(VoterRollSummary row) {
+        return VoterRollDto.builder()
+            .id(row.getId())
+            .name(row.getName())
+            .createdAt(row.getCreatedAt())
+            .memberCount(row.getMemberCount())
+            .electionCount(row.getElectionCount())
+            .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AuthTokenDto {
+    private String token;
+    private long expiresIn; // Seconds
+}
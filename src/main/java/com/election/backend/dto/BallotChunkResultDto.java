@@ -0,0 +1,16 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BallotChunkResultDto {
+    private int chunk;          // 0-based chunk number
+    private long firstBallot;   // 0-based index of the first ballot in this chunk
+    private int accepted;       // Committed ballots
+    private int rejected;       // Ballots that failed validation
+    private List<String> errors;
+}
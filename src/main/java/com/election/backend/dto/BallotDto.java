@@ -0,0 +1,18 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BallotDto {
+    // If null, it is an Abstain
+    private Long candidateId;
+
+    // Ranked elections (IRV/STV): candidate ids, first preference first. Empty -> Abstain
+    private List<Long> ranking;
+}
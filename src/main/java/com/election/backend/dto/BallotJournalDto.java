@@ -0,0 +1,25 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class BallotJournalDto {
+    private Long electionId;
+    // Hash chain valid to the end and matching the applied checkpoint
+    private boolean intact;
+    private long records;
+    private long ballots;
+    private long committed;
+    private long voided;
+    // No commit or void record yet (vote transaction still running)
+    private long inDoubt;
+    private long appliedSeq;
+    private String headHash;
+    // Committed ballots per first preference, abstentions separately
+    private Map<Long, Long> firstPreferences;
+    private long abstentions;
+}
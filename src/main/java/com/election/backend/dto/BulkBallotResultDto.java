@@ -0,0 +1,16 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkBallotResultDto {
+    private Long electionId;
+    private long accepted;
+    private long rejected;
+    private List<BallotChunkResultDto> chunks; // One acknowledgement per committed chunk
+    private String error; // Set if the import stopped early (e.g. malformed input)
+}
@@ -3,9 +3,14 @@ package com.election.backend.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 public class CastVoteRequestDto {
     // If null, it is an Abstain
     private Long candidateId;
+
+    // Ranked elections (IRV/STV): candidate ids, first preference first. Empty -> Abstain
+    private List<Long> ranking;
 }
@@ -1,5 +1,6 @@
 package com.election.backend.dto;
 
+import com.election.backend.model.VotingMethod;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -11,4 +12,7 @@ public class CreateElectionRequestDto {
     private String title;
     private Set<Long> candidateIds;      // Who can be elected
     private Set<Long> eligibleVoterIds;  // Who can vote
+    private Long voterRollId;            // Or: everyone on this roll
+    private VotingMethod votingMethod;   // Defaults to PLURALITY
+    private Integer seats;               // Defaults to 1, only STV elects more than one
 }
@@ -0,0 +1,13 @@
+package com.election.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+public class CreateVoterRollRequestDto {
+    private String name;
+    private Set<Long> memberIds; // Optional, unknown ids are ignored
+}
@@ -0,0 +1,19 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class ElectionArchiveDto {
+    private Long electionId;
+    private String title;
+    private Instant finalizedAt;
+    private Instant archivedAt;
+    private String fileName;
+    private String sha256;
+    private long ballots;
+    private long participations;
+}
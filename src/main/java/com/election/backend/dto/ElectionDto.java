@@ -4,7 +4,6 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
-import java.util.Set;
 
 @Data
 @Builder
@@ -12,7 +11,11 @@ public class ElectionDto {
     private Long id;
     private String title;
     private String status;
+    private String votingMethod; // PLURALITY, IRV or STV
+    private int seats;
     private List<UserDto> candidates; // Options to choose from
-    private List<UserDto> eligibleVoters;
-    private Set<Long> userIdsWhoVoted;
+    private long electorateSize; // Number of eligible voters, the voters themselves are paged via /{id}/voters
+    private long turnout;        // Number of voters who already voted
+    private Long voterRollId;    // Set if the electorate is a voter roll
+    private String voterRollName;
 }
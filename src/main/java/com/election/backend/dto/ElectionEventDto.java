@@ -0,0 +1,12 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ElectionEventDto {
+    private Long electionId;
+    private Long turnout;  // Set on "turnout" events
+    private String status; // Set on "status" events
+}
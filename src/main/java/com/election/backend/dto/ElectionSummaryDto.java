@@ -0,0 +1,15 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ElectionSummaryDto {
+    private Long id;
+    private String title;
+    private String status;
+    private long candidateCount;
+    private long electorateSize; // Number of eligible voters
+    private long turnout;        // Number of voters who already voted
+}
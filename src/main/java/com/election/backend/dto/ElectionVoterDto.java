@@ -0,0 +1,13 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ElectionVoterDto {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private boolean voted;
+}
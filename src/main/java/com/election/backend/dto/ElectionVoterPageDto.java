@@ -0,0 +1,13 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ElectionVoterPageDto {
+    private List<ElectionVoterDto> items; // Ordered by user id
+    private Long nextCursor; // Pass as "after" to get the next page, null on the last page
+}
@@ -0,0 +1,19 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class RankedResultDto {
+    private Long electionId;
+    private String votingMethod; // IRV or STV
+    private int seats;
+    private long ballots;        // Ballots with at least one preference
+    private long abstentions;
+    private Double quota;        // Droop quota for STV, null for IRV
+    private List<Long> elected;  // In the order they were elected
+    private List<RoundDto> rounds;
+}
@@ -0,0 +1,17 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class RoundDto {
+    private int round;
+    private List<RoundTallyDto> tallies; // Candidates still in the count or elected earlier
+    private double exhausted;            // Ballots without a further preference
+    private double threshold;            // Votes needed to be elected in this round
+    private List<Long> elected;          // Elected in this round
+    private List<Long> excluded;         // Excluded in this round
+}
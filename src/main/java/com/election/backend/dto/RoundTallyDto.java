@@ -0,0 +1,12 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RoundTallyDto {
+    private Long candidateId;
+    private String candidateName;
+    private double votes; // Fractional once STV surpluses have been transferred
+}
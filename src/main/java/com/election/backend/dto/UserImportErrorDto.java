@@ -0,0 +1,12 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserImportErrorDto {
+    private int row; // 1-based row in the submitted list (CSV header not counted)
+    private String username;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UserImportJobDto {
+    private String id;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private int total;
+    private int processed;
+    private int created;
+    private int failed;
+    private List<UserImportErrorDto> errors;
+}
@@ -0,0 +1,16 @@
+package com.election.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class VoterRollDto {
+    private Long id;
+    private String name;
+    private Instant createdAt;
+    private long memberCount;
+    private long electionCount; // Elections whose electorate this roll is
+}
@@ -0,0 +1,14 @@
+package com.election.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// The current user's rights across all elections
+@Data
+@AllArgsConstructor
+public class VoterStatusDto {
+    private List<Long> eligibleElectionIds;
+    private List<Long> votedElectionIds;
+}
@@ -0,0 +1,12 @@
+package com.election.backend.event;
+
+import java.util.Map;
+
+/**
+ * Published inside each committed chunk of a bulk ballot import.
+ *
+ * @param electionId the election the ballots belong to
+ * @param counts     ballots per candidate id, the null key holds the abstentions
+ */
+public record BallotsImportedEvent(Long electionId, Map<Long, Long> counts) {
+}
@@ -0,0 +1,7 @@
+package com.election.backend.event;
+
+/**
+ * Published inside the deleteElection transaction.
+ */
+public record ElectionDeletedEvent(Long electionId) {
+}
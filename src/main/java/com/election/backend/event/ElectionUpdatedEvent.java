@@ -0,0 +1,8 @@
+package com.election.backend.event;
+
+/**
+ * Published inside the transaction that created an election or changed its
+ * data (e.g. closing it). Votes have their own {@link VoteCastEvent}.
+ */
+public record ElectionUpdatedEvent(Long electionId) {
+}
@@ -0,0 +1,12 @@
+package com.election.backend.event;
+
+/**
+ * Published inside the castVote transaction once the voter's check mark is
+ * written. Deliberately separate from {@link VoteCastEvent}, so no listener ever
+ * sees a voter together with the chosen candidate.
+ *
+ * @param electionId the election the voter took part in
+ * @param userId     the voter
+ */
+public record ParticipationRecordedEvent(Long electionId, Long userId) {
+}
@@ -0,0 +1,14 @@
+package com.election.backend.event;
+
+import java.util.Map;
+
+/**
+ * Published by the change feed when another node that shares the database took
+ * ballots (votes or imports) for an election.
+ *
+ * @param electionId the election the ballots belong to
+ * @param counts     ballots per candidate id as counted by the other nodes, the
+ *                   null key holds the abstentions
+ */
+public record RemoteBallotsEvent(Long electionId, Map<Long, Long> counts) {
+}
@@ -0,0 +1,8 @@
+package com.election.backend.event;
+
+/**
+ * Published after a user was updated, got a new password or was deleted.
+ * Elections embed user data, so election snapshots depend on it.
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,11 @@
+package com.election.backend.event;
+
+/**
+ * Published inside the castVote transaction. Listeners that keep derived state
+ * (tallies, caches) should react AFTER_COMMIT so rolled back votes never count.
+ *
+ * @param electionId  the election the ballot was cast in
+ * @param candidateId the chosen candidate, or null for an abstention
+ */
+public record VoteCastEvent(Long electionId, Long candidateId) {
+}
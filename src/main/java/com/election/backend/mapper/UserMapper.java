@@ -4,6 +4,7 @@ import com.election.backend.dto.CreateUserRequestDto;
 import com.election.backend.dto.UpdateUserRequestDto;
 import com.election.backend.dto.UserDto;
 import com.election.backend.model.AppUser;
+import com.election.backend.security.UserPrincipal;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -14,6 +15,8 @@ public interface UserMapper {
 
     UserDto toDto(AppUser user);
 
+    UserDto toDto(UserPrincipal principal);
+
     AppUser toEntity(UserDto userDto);
 
 
@@ -3,6 +3,9 @@ package com.election.backend.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -19,20 +22,54 @@ public class Election {
     @Enumerated(EnumType.STRING)
     private ElectionStatus status; // OPEN, COMPLETED
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @ColumnDefault("'PLURALITY'") // Elections created before ranked voting existed
+    private VotingMethod votingMethod = VotingMethod.PLURALITY;
+
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int seats = 1;
+
+    // FINAL RESULT: set once when the election is closed, the rows live in election_result
+    private Instant finalizedAt;
+    private Long totalVotes;
+    private String resultChecksum; // SHA-256 over the result rows, checked whenever they are loaded
+
     // PASSIVE VOTING RIGHT: Who can be voted FOR (Candidates)
     @ManyToMany
-    @JoinTable(name = "election_candidates")
+    @JoinTable(
+        name = "election_candidates",
+        joinColumns = @JoinColumn(name = "election_id"),
+        inverseJoinColumns = @JoinColumn(name = "candidates_id")
+    )
     private Set<AppUser> candidates = new HashSet<>();
 
     // ACTIVE VOTING RIGHT: Who is ALLOWED to vote
     @ManyToMany
-    @JoinTable(name = "election_eligible_voters")
+    @JoinTable(
+        name = "election_eligible_voters",
+        joinColumns = @JoinColumn(name = "election_id"),
+        inverseJoinColumns = @JoinColumn(name = "eligible_voters_id")
+    )
     private Set<AppUser> eligibleVoters = new HashSet<>();
 
+    // ...or everyone on this roll, as it is now (then eligibleVoters is empty). Closing
+    // copies the members into eligibleVoters, the roll is only followed while OPEN.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "voter_roll_id")
+    private VoterRoll voterRoll;
+
     // TRACKING: Who HAS already voted (To prevent double voting)
     // We store IDs here to keep it simple and separate from the Vote content
+    // The unique constraint is what actually prevents double votes: castVote inserts
+    // into this table directly and a second insert for the same voter fails.
     @ElementCollection
-    @CollectionTable(name = "election_participation")
-    @Column(name = "user_id")
+    @CollectionTable(
+        name = "election_participation",
+        joinColumns = @JoinColumn(name = "election_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_election_participation_voter", columnNames = {"election_id", "user_id"})
+    )
+    @Column(name = "user_id", nullable = false)
     private Set<Long> userIdsWhoVoted = new HashSet<>();
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.election.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// What is left in the database of an archived election: where its export is and how to check it
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "election_archive")
+public class ElectionArchive {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id, the election row is gone
+    @Column(nullable = false, unique = true)
+    private Long electionId;
+
+    @Column(nullable = false)
+    private String title;
+
+    private Instant finalizedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false)
+    private String fileName; // Relative to election.archive.directory
+
+    @Column(nullable = false)
+    private String sha256; // Of the .ndjson.gz file
+
+    @Column(nullable = false)
+    private long ballots;
+
+    @Column(nullable = false)
+    private long participations;
+}
@@ -0,0 +1,31 @@
+package com.election.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a finalized result. Written once on close and never updated.
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "election_result", uniqueConstraints = @UniqueConstraint(name = "uk_election_result_position", columnNames = {"election_id", "position"}))
+public class ElectionResult {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Election election;
+
+    @Column(nullable = false)
+    private int position; // Display order, by votes descending
+
+    // Plain id without a foreign key: the result outlives renamed or deleted users
+    private Long candidateId; // NULL -> Abstain
+
+    @Column(nullable = false)
+    private String candidateName; // Frozen at close time
+
+    @Column(nullable = false)
+    private long voteCount;
+}
@@ -12,10 +12,16 @@ public class Vote {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Not null: on PostgreSQL the vote table is partitioned by election_id
+    @ManyToOne(optional = false)
     private Election election;
 
     // The candidate chosen. If NULL, it counts as "Abstain" (Enthaltung)
+    // On ranked ballots this is the first preference
     @ManyToOne
     private AppUser candidate;
+
+    // Ranked ballots only: the full preference order, packed by RankingCodec
+    @Column(length = 4000)
+    private byte[] ranking;
 }
\ No newline at end of file
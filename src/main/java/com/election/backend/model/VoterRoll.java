@@ -0,0 +1,37 @@
+package com.election.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+// A named electorate that any number of elections can reference
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "voter_roll")
+public class VoterRoll {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Written in batches by VoterRollService and read as a bitmap by ElectorateIndex,
+    // mapped for counting in queries. Excluded so that printing or hashing a roll does not load it.
+    @ElementCollection
+    @CollectionTable(name = "voter_roll_member", joinColumns = @JoinColumn(name = "roll_id"))
+    @Column(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Long> memberIds = new HashSet<>();
+}
@@ -0,0 +1,7 @@
+package com.election.backend.model;
+
+public enum VotingMethod {
+    PLURALITY, // One cross, most votes wins
+    IRV,       // Instant-runoff: ranked ballots, one seat, lowest is eliminated until someone has a majority
+    STV        // Single transferable vote: ranked ballots, several seats, Droop quota with surplus transfer
+}
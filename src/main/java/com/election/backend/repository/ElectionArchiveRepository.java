@@ -0,0 +1,11 @@
+package com.election.backend.repository;
+
+import com.election.backend.model.ElectionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ElectionArchiveRepository extends JpaRepository<ElectionArchive, Long> {
+
+    List<ElectionArchive> findAllByOrderByArchivedAtDesc();
+}
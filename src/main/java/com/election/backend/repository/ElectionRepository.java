@@ -1,7 +1,124 @@
 package com.election.backend.repository;
 
 import com.election.backend.model.Election;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.model.VotingMethod;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface ElectionRepository extends JpaRepository<Election, Long> {
+
+    // Keyset page of summaries, newest first. The SIZE() calls become correlated
+    // count subqueries, so the whole page is a single statement.
+    @Query("SELECT e.id AS id, e.title AS title, e.status AS status, " +
+        "SIZE(e.candidates) AS candidateCount, " +
+        "SIZE(e.eligibleVoters) + SIZE(r.memberIds) AS electorateSize, " +
+        "SIZE(e.userIdsWhoVoted) AS turnout " +
+        "FROM Election e LEFT JOIN e.voterRoll r ON e.status = com.election.backend.model.ElectionStatus.OPEN " +
+        "WHERE e.status IN :statuses AND e.id < :after " +
+        "ORDER BY e.id DESC")
+    List<ElectionSummary> findSummaries(@Param("statuses") Collection<ElectionStatus> statuses, @Param("after") Long after, Limit limit);
+
+    // Status only, without loading the election or any of its collections
+    @Query("SELECT e.status FROM Election e WHERE e.id = :id")
+    Optional<ElectionStatus> findStatusById(@Param("id") Long id);
+
+    // Status under a shared row lock held until commit. Votes and ballot imports take it,
+    // closing takes the exclusive lock, so an election is only finalized once every
+    // in-flight ballot has committed, and no ballot gets in afterwards.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT e.status FROM Election e WHERE e.id = :id")
+    Optional<ElectionStatus> lockStatusById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Election e WHERE e.id = :id")
+    Optional<Election> findByIdForUpdate(@Param("id") Long id);
+
+    // Exclusive lock without loading the election, taken before deleting it so that
+    // no vote or journal apply inserts into it halfway through
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.status FROM Election e WHERE e.id = :id")
+    Optional<ElectionStatus> lockStatusForUpdateById(@Param("id") Long id);
+
+    @Query("SELECT e.votingMethod FROM Election e WHERE e.id = :id")
+    Optional<VotingMethod> findVotingMethodById(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM Election e WHERE e.status = com.election.backend.model.ElectionStatus.OPEN ORDER BY e.id")
+    List<Long> findOpenIds();
+
+    // Elections that are no longer open which the user could vote in, through
+    // idx_election_eligible_voters_voter instead of every electorate. Closing copied
+    // roll members into election_eligible_voters, so the rolls need not be looked at.
+    @Query(value = "SELECT v.election_id FROM election_eligible_voters v JOIN election e ON e.id = v.election_id " +
+        "WHERE v.eligible_voters_id = :userId AND e.status <> 'OPEN'", nativeQuery = true)
+    List<Long> findClosedIdsEligibleFor(@Param("userId") Long userId);
+
+    // Elections that are no longer open which the user voted in, through idx_election_participation_voter
+    @Query(value = "SELECT p.election_id FROM election_participation p JOIN election e ON e.id = p.election_id " +
+        "WHERE p.user_id = :userId AND e.status <> 'OPEN'", nativeQuery = true)
+    List<Long> findClosedIdsVotedBy(@Param("userId") Long userId);
+
+    @Query("SELECT e.id FROM Election e WHERE e.voterRoll.id = :rollId")
+    List<Long> findIdsByVoterRollId(@Param("rollId") Long rollId);
+
+    // Elections whose electorate changes with the roll
+    @Query("SELECT e.id FROM Election e WHERE e.voterRoll.id = :rollId " +
+        "AND e.status = com.election.backend.model.ElectionStatus.OPEN")
+    List<Long> findOpenIdsByVoterRollId(@Param("rollId") Long rollId);
+
+    // Freezes the electorate of a roll election: its members become eligible-voter
+    // rows, which later roll edits and the member cascade on user deletion don't touch
+    @Modifying
+    @Query(value = "INSERT INTO election_eligible_voters (election_id, eligible_voters_id) " +
+        "SELECT e.id, m.user_id FROM election e JOIN voter_roll_member m ON m.roll_id = e.voter_roll_id " +
+        "WHERE e.id = :electionId AND NOT EXISTS (SELECT 1 FROM election_eligible_voters v " +
+        "WHERE v.election_id = e.id AND v.eligible_voters_id = m.user_id)", nativeQuery = true)
+    int copyVoterRollMembers(@Param("electionId") Long electionId);
+
+    @Query("SELECT c.id FROM Election e JOIN e.candidates c WHERE e.id = :electionId")
+    Set<Long> findCandidateIds(@Param("electionId") Long electionId);
+
+    // Single insert guarded by uk_election_participation_voter.
+    // Throws DataIntegrityViolationException if the user already voted.
+    @Modifying
+    @Query(value = "INSERT INTO election_participation (election_id, user_id) VALUES (:electionId, :userId)", nativeQuery = true)
+    void recordParticipation(@Param("electionId") Long electionId, @Param("userId") Long userId);
+
+    // Completed elections finalized before the cutoff, candidates for archival
+    @Query("SELECT e.id FROM Election e WHERE e.status = com.election.backend.model.ElectionStatus.COMPLETED " +
+        "AND e.finalizedAt < :cutoff ORDER BY e.id")
+    List<Long> findIdsFinalizedBefore(@Param("cutoff") Instant cutoff);
+
+    // Set-based deletes of the collection tables and the election row itself,
+    // so deleting an election never loads its electorate or participation
+    @Modifying
+    @Query(value = "DELETE FROM election_participation WHERE election_id = :electionId", nativeQuery = true)
+    int deleteParticipation(@Param("electionId") Long electionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM election_eligible_voters WHERE election_id = :electionId", nativeQuery = true)
+    int deleteEligibleVoters(@Param("electionId") Long electionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM election_candidates WHERE election_id = :electionId", nativeQuery = true)
+    int deleteCandidates(@Param("electionId") Long electionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM ballot_journal_checkpoint WHERE election_id = :electionId", nativeQuery = true)
+    int deleteJournalCheckpoint(@Param("electionId") Long electionId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Election e WHERE e.id = :electionId")
+    int deleteElectionRow(@Param("electionId") Long electionId);
 }
@@ -0,0 +1,18 @@
+package com.election.backend.repository;
+
+import com.election.backend.model.ElectionResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ElectionResultRepository extends JpaRepository<ElectionResult, Long> {
+
+    List<ElectionResult> findByElectionIdOrderByPosition(Long electionId);
+
+    @Modifying
+    @Query("DELETE FROM ElectionResult r WHERE r.election.id = :electionId")
+    int deleteByElectionId(@Param("electionId") Long electionId);
+}
@@ -0,0 +1,21 @@
+package com.election.backend.repository;
+
+import com.election.backend.model.ElectionStatus;
+
+/**
+ * Projection for the election listing: the election row plus collection sizes,
+ * computed in the same query instead of loading the collections.
+ */
+public interface ElectionSummary {
+    Long getId();
+
+    String getTitle();
+
+    ElectionStatus getStatus();
+
+    long getCandidateCount();
+
+    long getElectorateSize();
+
+    long getTurnout();
+}
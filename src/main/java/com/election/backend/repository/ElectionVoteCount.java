@@ -0,0 +1,13 @@
+package com.election.backend.repository;
+
+/**
+ * Projection for the per-election / per-candidate vote counts.
+ * candidateId is null for abstentions.
+ */
+public interface ElectionVoteCount {
+    Long getElectionId();
+
+    Long getCandidateId();
+
+    long getCount();
+}
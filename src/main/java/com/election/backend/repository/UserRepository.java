@@ -1,14 +1,53 @@
 package com.election.backend.repository;
 
+import com.election.backend.dto.UserDto;
 import com.election.backend.model.AppUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByUsername(String username);
 
-    Optional<AppUser> findByUsernameIgnoreCase(String username);
+    // LOWER rather than the UPPER of derived IgnoreCase queries, so every
+    // case-insensitive lookup uses idx_users_username_lower
+    @Query("SELECT u FROM AppUser u WHERE LOWER(u.username) = LOWER(:username)")
+    Optional<AppUser> findByUsernameIgnoreCase(@Param("username") String username);
 
-    boolean existsByUsernameIgnoreCase(String username);
-}
\ No newline at end of file
+    @Query("SELECT COUNT(u) > 0 FROM AppUser u WHERE LOWER(u.username) = LOWER(:username)")
+    boolean existsByUsernameIgnoreCase(@Param("username") String username);
+
+    // Batch variant of existsByUsernameIgnoreCase, usernames must be lowercase
+    @Query("SELECT LOWER(u.username) FROM AppUser u WHERE LOWER(u.username) IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Keyset page of users ordered by id. prefix is lowercase, LIKE-escaped and ends with '%'.
+    // Selects the DTO directly, so no entities (and no password hashes) are loaded.
+    @Query("SELECT new com.election.backend.dto.UserDto(u.id, u.username, u.role, u.firstName, u.lastName) " +
+        "FROM AppUser u " +
+        "WHERE u.id > :after " +
+        "AND (LOWER(u.username) LIKE :prefix ESCAPE '!' " +
+        "     OR LOWER(u.firstName) LIKE :prefix ESCAPE '!' " +
+        "     OR LOWER(u.lastName) LIKE :prefix ESCAPE '!') " +
+        "ORDER BY u.id")
+    List<UserDto> findPage(@Param("prefix") String prefix, @Param("after") Long after, Limit limit);
+
+    // Database cursor over all users, must be consumed inside a transaction
+    @Query("SELECT new com.election.backend.dto.UserDto(u.id, u.username, u.role, u.firstName, u.lastName) " +
+        "FROM AppUser u ORDER BY u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserDto> streamAll();
+}
@@ -3,6 +3,7 @@ package com.election.backend.repository;
 import com.election.backend.dto.ElectionResultDto;
 import com.election.backend.model.Vote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -24,5 +25,18 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
         "GROUP BY c.id, c.firstName, c.lastName")
     List<ElectionResultDto> countVotesByElection(@Param("electionId") Long electionId);
 
-    void deleteByElectionId(Long electionId);
+    // Raw counts of the open elections for the in-memory tally (no names, no join on users)
+    @Query("SELECT v.election.id AS electionId, v.candidate.id AS candidateId, COUNT(v) AS count " +
+        "FROM Vote v " +
+        "WHERE v.election.status = com.election.backend.model.ElectionStatus.OPEN " +
+        "GROUP BY v.election.id, v.candidate.id")
+    List<ElectionVoteCount> countOpenVotes();
+
+    // One set-based statement; a derived delete would load and remove every ballot entity
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.election.id = :electionId")
+    int deleteByElectionId(@Param("electionId") Long electionId);
+
+    @Query("SELECT COUNT(v) FROM Vote v WHERE v.election.id = :electionId")
+    long countByElectionId(@Param("electionId") Long electionId);
 }
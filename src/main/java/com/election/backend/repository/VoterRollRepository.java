@@ -0,0 +1,38 @@
+package com.election.backend.repository;
+
+import com.election.backend.model.VoterRoll;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface VoterRollRepository extends JpaRepository<VoterRoll, Long> {
+
+    boolean existsByNameIgnoreCase(String name);
+
+    String SUMMARY = "SELECT r.id AS id, r.name AS name, r.createdAt AS createdAt, " +
+        "SIZE(r.memberIds) AS memberCount, " +
+        "(SELECT COUNT(e) FROM Election e WHERE e.voterRoll = r) AS electionCount " +
+        "FROM VoterRoll r ";
+
+    @Query(SUMMARY + "ORDER BY r.name")
+    List<VoterRollSummary> findSummaries();
+
+    @Query(SUMMARY + "WHERE r.id = :id")
+    Optional<VoterRollSummary> findSummaryById(@Param("id") Long id);
+
+    // Exclusive lock held until commit, taken before the members change. Closing an election
+    // on the roll takes the shared one while it copies the members, so the frozen electorate
+    // is the member list before or after an edit, never part of it.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM VoterRoll r WHERE r.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT r.id FROM VoterRoll r WHERE r.id = :id")
+    Optional<Long> lockSharedById(@Param("id") Long id);
+}
@@ -0,0 +1,19 @@
+package com.election.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection for the voter roll listing: the roll row plus its member count
+ * and the number of elections that reference it.
+ */
+public interface VoterRollSummary {
+    Long getId();
+
+    String getName();
+
+    Instant getCreatedAt();
+
+    long getMemberCount();
+
+    long getElectionCount();
+}
@@ -0,0 +1,112 @@
+package com.election.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed tokens for the stateless auth mode.
+ * <p>
+ * Format: {@code <kid>.<base64url(userId:role:expiresAt:username)>.<base64url(signature)>}.
+ * The signature covers everything before the last dot. Keys are configured as
+ * {@code kid:secret} pairs; the first key signs, all of them verify, so a key
+ * can be rotated by prepending a new one and dropping the old one after the token TTL.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final Duration ttl;
+
+    public AuthTokenService(@Value("${election.auth.token.keys}") String keys,
+                            @Value("${election.auth.token.ttl}") Duration ttl) {
+        Arrays.stream(keys.split(","))
+            .map(String::trim)
+            .filter(pair -> !pair.isEmpty())
+            .forEach(pair -> {
+                int colon = pair.indexOf(':');
+                if (colon <= 0 || colon == pair.length() - 1) {
+                    throw new IllegalArgumentException("Auth token keys must be configured as kid:secret");
+                }
+                this.keys.put(pair.substring(0, colon),
+                    new SecretKeySpec(pair.substring(colon + 1).getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            });
+        this.ttl = ttl;
+    }
+
+    public boolean hasKeys() {
+        return !keys.isEmpty();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(UserPrincipal user) {
+        Map.Entry<String, SecretKeySpec> signingKey = keys.entrySet().iterator().next();
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        String payload = user.id() + ":" + user.role() + ":" + expiresAt + ":" + user.username();
+
+        String unsigned = signingKey.getKey() + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return unsigned + "." + ENCODER.encodeToString(sign(signingKey.getValue(), unsigned));
+    }
+
+    /**
+     * @return the principal, or empty if the token is malformed, expired, signed with an unknown key or tampered with
+     */
+    public Optional<TokenPrincipal> verify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return Optional.empty();
+        }
+
+        SecretKeySpec key = keys.get(token.substring(0, firstDot));
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        try {
+            String unsigned = token.substring(0, lastDot);
+            byte[] signature = DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(key, unsigned))) {
+                return Optional.empty();
+            }
+
+            // userId:role:expiresAt:username (the username may itself contain ':')
+            String[] parts = new String(DECODER.decode(token.substring(firstDot + 1, lastDot)), StandardCharsets.UTF_8).split(":", 4);
+            if (parts.length != 4 || Instant.ofEpochSecond(Long.parseLong(parts[2])).isBefore(Instant.now())) {
+                return Optional.empty();
+            }
+            return Optional.of(new TokenPrincipal(Long.parseLong(parts[0]), parts[3], parts[1]));
+        } catch (IllegalArgumentException e) { // Bad base64 or numbers
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] sign(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.election.backend.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password check queue is full. The login failure handler
+ * turns it into 429 Too Many Requests with a Retry-After header.
+ */
+public class LoginThrottledException extends AuthenticationServiceException {
+
+    public LoginThrottledException(String msg) {
+        super(msg);
+    }
+}
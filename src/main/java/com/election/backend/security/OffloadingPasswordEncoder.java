@@ -0,0 +1,34 @@
+package com.election.backend.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Decorates the application's encoder for the login provider only:
+ * {@link #matches} runs on the {@link PasswordCheckExecutor}, encoding stays
+ * on the calling thread.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordCheckExecutor executor;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordCheckExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.check(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
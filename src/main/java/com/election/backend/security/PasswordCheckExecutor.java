@@ -0,0 +1,72 @@
+package com.election.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs BCrypt login checks on a small dedicated pool instead of the Tomcat
+ * request threads. At most (threads + queue-capacity) checks are admitted;
+ * anything beyond that is rejected right away with {@link LoginThrottledException},
+ * so a login storm cannot take the CPU away from voting.
+ */
+@Component
+public class PasswordCheckExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter throttled;
+
+    public PasswordCheckExecutor(@Value("${election.login.password-check-threads}") int threads,
+                                 @Value("${election.login.queue-capacity}") int queueCapacity,
+                                 MeterRegistry registry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("password-check-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued / executor.queue.remaining show how close logins are to being throttled
+        new ExecutorServiceMetrics(executor, "password-check", Tags.empty()).bindTo(registry);
+        this.throttled = Counter.builder("election.login.throttled")
+            .description("Logins rejected because the password check queue was full")
+            .register(registry);
+    }
+
+    public boolean check(BooleanSupplier passwordCheck) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(passwordCheck::getAsBoolean);
+        } catch (RejectedExecutionException e) {
+            throttled.increment();
+            throw new LoginThrottledException("Too many concurrent logins");
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new AuthenticationServiceException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Password check failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
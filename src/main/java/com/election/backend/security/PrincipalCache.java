@@ -0,0 +1,72 @@
+package com.election.backend.security;
+
+import com.election.backend.event.UserChangedEvent;
+import com.election.backend.repository.UserRepository;
+import com.election.backend.service.CallerLoading;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Username (case-insensitive) to {@link UserPrincipal}.
+ * <p>
+ * Used by login, castVote and /api/auth/me. Every write to a user
+ * (update, password reset, delete) must call {@link #invalidate(String)}.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository repo;
+    private final AsyncCache<String, UserPrincipal> cache;
+
+    public PrincipalCache(UserRepository repo,
+                          @Value("${election.principal-cache.maximum-size}") long maximumSize,
+                          @Value("${election.principal-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.repo = repo;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite) // Safety net for writes that bypass invalidate()
+            .buildAsync();
+    }
+
+    public Optional<UserPrincipal> get(String username) {
+        // Unknown users are not cached, so a user created later is found right away
+        // Loaded outside the cache's locks, see CallerLoading
+        return Optional.ofNullable(CallerLoading.get(cache.asMap(), key(username), () -> repo.findByUsernameIgnoreCase(username)
+            .map(user -> new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                user.getFirstName(), user.getLastName()))
+            .orElse(null)));
+    }
+
+    /**
+     * Id of the authenticated user. Token logins carry it already, so only
+     * session logins go through the cache.
+     */
+    public Long idOf(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof TokenPrincipal token) {
+            return token.id();
+        }
+        return get(authentication.getName()).map(UserPrincipal::id).orElseThrow();
+    }
+
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(key(username));
+    }
+
+    // Also covers writes on other nodes, replayed by the change feed, where only the id is known
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.synchronous().asMap().values().removeIf(user -> user.id().equals(event.userId()));
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,16 @@
+package com.election.backend.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal restored from a signed auth token, without touching the database.
+ * {@link #getName()} is the username, so code that calls
+ * {@code authentication.getName()} works the same in session and token mode.
+ */
+public record TokenPrincipal(Long id, String username, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
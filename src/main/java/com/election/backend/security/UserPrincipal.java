@@ -0,0 +1,10 @@
+package com.election.backend.security;
+
+/**
+ * What the request path needs to know about a logged-in user, cached by
+ * {@link PrincipalCache} so it is not re-read from the users table per request.
+ *
+ * @param password the BCrypt hash, needed to verify logins
+ */
+public record UserPrincipal(Long id, String username, String password, String role, String firstName, String lastName) {
+}
@@ -0,0 +1,188 @@
+package com.election.backend.service;
+
+import com.election.backend.dto.BallotChunkResultDto;
+import com.election.backend.dto.BallotDto;
+import com.election.backend.dto.BulkBallotResultDto;
+import com.election.backend.event.BallotsImportedEvent;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.repository.ElectionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports anonymous ballots (scanned paper ballots, kiosks) in bulk.
+ * <p>
+ * Ballots are validated against the cached {@link BallotSpec} and written with plain JDBC
+ * batch inserts, one transaction per chunk. Vote ids stay IDENTITY generated:
+ * we never need them back, so the inserts can be batched without switching the
+ * entity to a sequence.
+ */
+@Slf4j
+@Service
+public class BallotImportService {
+
+    private static final String INSERT_VOTE = "INSERT INTO vote (election_id, candidate_id, ranking) VALUES (?, ?, ?)";
+
+    private final ElectionRepository electionRepo;
+    private final BallotSpecCache ballotSpecs;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public BallotImportService(ElectionRepository electionRepo, BallotSpecCache ballotSpecs, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher events,
+                               @Value("${election.ballots.chunk-size}") int chunkSize,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.electionRepo = electionRepo;
+        this.ballotSpecs = ballotSpecs;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads the ballots lazily and commits them chunk by chunk. Chunks committed
+     * before a malformed ballot is hit stay committed and are acknowledged.
+     */
+    public BulkBallotResultDto importBallots(Long electionId, Iterator<BallotDto> ballots) {
+        ElectionStatus status = electionRepo.findStatusById(electionId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (status != ElectionStatus.OPEN) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Election is closed");
+        }
+        BallotSpec spec = ballotSpecs.get(electionId);
+        boolean ranked = spec.ranked();
+
+        List<BallotChunkResultDto> chunks = new ArrayList<>();
+        long accepted = 0;
+        long rejected = 0;
+        long index = 0;
+        String error = null;
+
+        List<Object[]> rows = new ArrayList<>(chunkSize);
+        List<String> errors = new ArrayList<>();
+        long firstBallot = 0;
+        try {
+            while (ballots.hasNext()) {
+                BallotDto ballot = ballots.next();
+                Long candidateId = ballot == null ? null : ballot.getCandidateId();
+                List<Long> ranking = ballot == null || ballot.getRanking() == null ? List.of() : ballot.getRanking();
+                if (ranked && ranking.isEmpty() && candidateId != null) {
+                    ranking = List.of(candidateId);
+                }
+                if (!ranked && !ranking.isEmpty()) {
+                    errors.add("Ballot " + index + ": not a ranked election");
+                } else if (ranked && !spec.isValidRanking(ranking)) {
+                    errors.add("Ballot " + index + ": ranking must list distinct candidates");
+                } else if (!ranked && candidateId != null && !spec.isCandidate(candidateId)) {
+                    errors.add("Ballot " + index + ": user " + candidateId + " is not a candidate");
+                } else {
+                    // Ranked ballots store their first preference as the candidate
+                    Long firstPreference = ranked ? (ranking.isEmpty() ? null : ranking.getFirst()) : candidateId;
+                    rows.add(new Object[]{electionId, firstPreference, RankingCodec.encode(ranking)});
+                }
+                index++;
+
+                if (index - firstBallot == chunkSize) {
+                    BallotChunkResultDto chunk = commitChunk(electionId, chunks.size(), firstBallot, rows, errors);
+                    if (chunk == null) {
+                        error = "Election was closed after ballot " + firstBallot;
+                        rows.clear();
+                        errors.clear();
+                        break;
+                    }
+                    chunks.add(chunk);
+                    accepted += chunk.getAccepted();
+                    rejected += chunk.getRejected();
+                    rows = new ArrayList<>(chunkSize);
+                    errors = new ArrayList<>();
+                    firstBallot = index;
+                }
+            }
+        } catch (JacksonException e) {
+            // Don't commit the partial chunk, the client re-sends from firstBallot
+            error = "Malformed ballot after index " + index + ": " + e.getOriginalMessage();
+            rows.clear();
+            errors.clear();
+        }
+
+        if (!rows.isEmpty() || !errors.isEmpty()) {
+            BallotChunkResultDto chunk = commitChunk(electionId, chunks.size(), firstBallot, rows, errors);
+            if (chunk == null) {
+                error = "Election was closed after ballot " + firstBallot;
+            } else {
+                chunks.add(chunk);
+                accepted += chunk.getAccepted();
+                rejected += chunk.getRejected();
+            }
+        }
+
+        log.info("Imported {} ballots into election {} ({} rejected)", accepted, electionId, rejected);
+        return BulkBallotResultDto.builder()
+            .electionId(electionId)
+            .accepted(accepted)
+            .rejected(rejected)
+            .chunks(chunks)
+            .error(error)
+            .build();
+    }
+
+    // Returns null if the election was closed in the meantime, nothing is written then
+    private BallotChunkResultDto commitChunk(Long electionId, int chunk, long firstBallot, List<Object[]> rows, List<String> errors) {
+        Boolean open = transactionTemplate.execute(tx -> {
+            // Same shared lock as castVote, so a closed election never receives another chunk
+            if (electionRepo.lockStatusById(electionId).orElse(null) != ElectionStatus.OPEN) {
+                return false;
+            }
+            jdbcTemplate.batchUpdate(INSERT_VOTE, rows, batchSize, (ps, row) -> {
+                ps.setLong(1, (Long) row[0]);
+                if (row[1] == null) {
+                    ps.setNull(2, Types.BIGINT);
+                } else {
+                    ps.setLong(2, (Long) row[1]);
+                }
+                if (row[2] == null) {
+                    ps.setNull(3, Types.VARBINARY);
+                } else {
+                    ps.setBytes(3, (byte[]) row[2]);
+                }
+            });
+
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : rows) {
+                counts.merge((Long) row[1], 1L, Long::sum);
+            }
+            events.publishEvent(new BallotsImportedEvent(electionId, counts));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(open)) {
+            return null;
+        }
+
+        return BallotChunkResultDto.builder()
+            .chunk(chunk)
+            .firstBallot(firstBallot)
+            .accepted(rows.size())
+            .rejected(errors.size())
+            .errors(errors)
+            .build();
+    }
+}
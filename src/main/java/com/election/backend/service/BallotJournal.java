@@ -0,0 +1,693 @@
+package com.election.backend.service;
+
+import com.election.backend.dto.BallotJournalDto;
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.repository.ElectionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write path for cast ballots when {@code election.ballots.storage=journal}.
+ * <p>
+ * castVote appends the ballot to the election's journal file
+ * ({@link BallotJournalSegment}) and returns once it is on disk; concurrent votes
+ * share one fsync (group commit). When the vote transaction ends, a commit or
+ * void record resolves the ballot. A scheduled applier copies committed ballots
+ * into the vote table and advances the election's row in
+ * {@code ballot_journal_checkpoint} in the same transaction, so every ballot is
+ * inserted exactly once. Closing an election applies what is left first.
+ * <p>
+ * On startup every journal is replayed. Ballots whose vote transaction outcome
+ * never made it to disk are settled with the participation count: each
+ * committed vote left exactly one participation row. Journals are also replayed
+ * with {@code storage=database}, so switching back loses nothing.
+ * <p>
+ * The hash chain makes edits of the file detectable; the checkpoint keeps the
+ * hash of the last applied ballot, so even a rewritten chain no longer matches
+ * the database. {@link #verify} replays a journal and recounts it.
+ */
+@Slf4j
+@Service
+public class BallotJournal {
+
+    private static final String INSERT_VOTE = "INSERT INTO vote (election_id, candidate_id, ranking) VALUES (?, ?, ?)";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ElectionRepository electionRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int initialSegmentSize;
+    private final Duration drainTimeout;
+    private final int batchSize;
+    private final DistributionSummary groupCommitSize;
+
+    // Journals of open elections; closed and deleted ones are only read on demand
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final Lock openLock = new ReentrantLock();
+
+    // Group commit: appenders take a ticket and wait until the fsync thread has made it durable
+    private final Lock flushLock = new ReentrantLock();
+    private final Condition flushWanted = flushLock.newCondition();
+    private final Condition flushed = flushLock.newCondition();
+    private final Set<Segment> dirty = new HashSet<>();
+    private long appended;
+    private long durable;
+    private long failedThrough;
+    private RuntimeException failure;
+    private Thread flusher;
+
+    public BallotJournal(ElectionRepository electionRepo, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         MeterRegistry registry,
+                         @Value("${election.ballots.storage}") String storage,
+                         @Value("${election.ballots.journal.directory}") Path directory,
+                         @Value("${election.ballots.journal.initial-segment-size}") int initialSegmentSize,
+                         @Value("${election.ballots.journal.drain-timeout}") Duration drainTimeout,
+                         @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        if (!storage.equals("database") && !storage.equals("journal")) {
+            throw new IllegalStateException("election.ballots.storage must be database or journal, not " + storage);
+        }
+        this.electionRepo = electionRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = storage.equals("journal");
+        this.directory = directory;
+        this.initialSegmentSize = initialSegmentSize;
+        this.drainTimeout = drainTimeout;
+        this.batchSize = batchSize;
+        this.groupCommitSize = DistributionSummary.builder("election.journal.group.commit")
+            .description("Journal records made durable per fsync")
+            .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs before the tallies are rebuilt from the vote table, which then includes the recovered ballots
+    @PostConstruct
+    void start() throws IOException {
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "election-*.ballots")) {
+                for (Path file : files) {
+                    recover(file);
+                }
+            }
+        }
+        if (enabled) {
+            Files.createDirectories(directory);
+            // Open elections created before the journal was switched on
+            jdbcTemplate.update("INSERT INTO ballot_journal_checkpoint (election_id, applied_seq, base_participation) " +
+                "SELECT e.id, 0, (SELECT COUNT(*) FROM election_participation p WHERE p.election_id = e.id) " +
+                "FROM election e WHERE e.status = 'OPEN' " +
+                "AND NOT EXISTS (SELECT 1 FROM ballot_journal_checkpoint c WHERE c.election_id = e.id)");
+            flusher = Thread.ofPlatform().name("ballot-journal-fsync").daemon().start(this::flushLoop);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join();
+        }
+        segments.values().forEach(Segment::close);
+        segments.clear();
+    }
+
+    /**
+     * Starts the journal of a new election, in the creating transaction.
+     */
+    public void register(Long electionId) {
+        if (enabled) {
+            jdbcTemplate.update("INSERT INTO ballot_journal_checkpoint (election_id, applied_seq, base_participation) VALUES (?, 0, 0)",
+                electionId);
+        }
+    }
+
+    /**
+     * Appends a ballot in the vote transaction and waits until it is on disk. The
+     * outcome of the transaction is appended after it ends.
+     *
+     * @param ranking preferences of a ranked ballot, empty otherwise
+     */
+    public void append(Long electionId, Long candidateId, List<Long> ranking) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Ballots are journaled within the vote transaction");
+        }
+        Segment segment = segment(electionId);
+        byte[] packed = RankingCodec.encode(ranking);
+        long seq;
+        long ticket;
+        segment.lock.lock();
+        try {
+            seq = segment.journal.appendBallot(candidateId, packed);
+            segment.unapplied.put(seq, new Ballot(candidateId, packed, segment.journal.lastHash()));
+            segment.pending++;
+            ticket = markDirty(segment);
+            segment.lastTicket = ticket;
+        } finally {
+            segment.lock.unlock();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                resolve(segment, seq, status == STATUS_COMMITTED);
+            }
+        });
+        awaitDurable(ticket);
+    }
+
+    /**
+     * Applies every ballot of the election within the closing transaction, which
+     * holds the election's exclusive lock, so no further ballot can arrive.
+     */
+    public void drain(Long electionId) {
+        Segment segment = segments.get(electionId);
+        if (segment == null) {
+            return;
+        }
+        if (!segment.awaitResolved(drainTimeout)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ballots are still being committed, try again");
+        }
+        apply(segment);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                segments.remove(electionId);
+                segment.close();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${election.ballots.journal.apply-interval}")
+    public void applyCommitted() {
+        for (Segment segment : segments.values()) {
+            if (segment.hasResolved()) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> apply(segment));
+                } catch (RuntimeException e) {
+                    log.error("Applying the ballot journal of election {} failed", segment.electionId, e);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        Segment segment = segments.remove(event.electionId());
+        if (segment != null) {
+            segment.close();
+        }
+        try {
+            Files.deleteIfExists(file(event.electionId()));
+        } catch (IOException e) {
+            log.warn("Could not delete the ballot journal of election {}", event.electionId(), e);
+        }
+    }
+
+    /**
+     * Replays the journal of an election: checks the hash chain and the applied
+     * checkpoint, and counts the committed ballots by first preference.
+     *
+     * @return empty if the election has no journal
+     */
+    public Optional<BallotJournalDto> verify(Long electionId) {
+        // Checkpoint first: everything it covers is then in the snapshot
+        List<Map<String, Object>> checkpoint = jdbcTemplate.queryForList(
+            "SELECT applied_seq, applied_hash FROM ballot_journal_checkpoint WHERE election_id = ?", electionId);
+        long appliedSeq = checkpoint.isEmpty() ? 0 : ((Number) checkpoint.getFirst().get("applied_seq")).longValue();
+        String appliedHash = checkpoint.isEmpty() ? null : (String) checkpoint.getFirst().get("applied_hash");
+
+        ByteBuffer snapshot;
+        Segment segment = segments.get(electionId);
+        if (segment != null) {
+            segment.lock.lock();
+            try {
+                snapshot = segment.journal.snapshot();
+            } finally {
+                segment.lock.unlock();
+            }
+        } else if (Files.exists(file(electionId))) {
+            try (FileChannel channel = FileChannel.open(file(electionId), StandardOpenOption.READ)) {
+                snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            return Optional.empty();
+        }
+
+        Map<Long, Long> firstPreferences = new TreeMap<>();
+        Map<Long, Long> ballots = new HashMap<>();
+        Set<Long> committed = new HashSet<>();
+        Set<Long> voided = new HashSet<>();
+        boolean[] checkpointMatches = {appliedSeq == 0};
+        BallotJournalSegment.Scan scan = BallotJournalSegment.scan(snapshot, entry -> {
+            switch (entry.type()) {
+                case BallotJournalSegment.BALLOT -> ballots.put(entry.seq(), entry.candidateId() == null ? -1 : entry.candidateId());
+                case BallotJournalSegment.COMMIT -> committed.add(entry.ballotSeq());
+                case BallotJournalSegment.VOID -> voided.add(entry.ballotSeq());
+                default -> {
+                }
+            }
+            if (entry.seq() == appliedSeq) {
+                checkpointMatches[0] = HEX.formatHex(entry.hash()).equals(appliedHash);
+            }
+        });
+
+        long abstentions = 0;
+        for (Long seq : committed) {
+            long candidateId = ballots.getOrDefault(seq, -1L);
+            if (candidateId == -1) {
+                abstentions++;
+            } else {
+                firstPreferences.merge(candidateId, 1L, Long::sum);
+            }
+        }
+        long inDoubt = ballots.keySet().stream().filter(seq -> !committed.contains(seq) && !voided.contains(seq)).count();
+
+        return Optional.of(BallotJournalDto.builder()
+            .electionId(electionId)
+            .intact(scan.intact() && checkpointMatches[0])
+            .records(scan.records())
+            .ballots(ballots.size())
+            .committed(committed.size())
+            .voided(voided.size())
+            .inDoubt(inDoubt)
+            .appliedSeq(appliedSeq)
+            .headHash(HEX.formatHex(scan.lastHash()))
+            .firstPreferences(firstPreferences)
+            .abstentions(abstentions)
+            .build());
+    }
+
+    private Segment segment(Long electionId) {
+        Segment segment = segments.get(electionId);
+        if (segment != null) {
+            return segment;
+        }
+        openLock.lock();
+        try {
+            segment = segments.get(electionId);
+            if (segment == null) {
+                segment = new Segment(BallotJournalSegment.create(file(electionId), electionId, initialSegmentSize), new TreeMap<>());
+                segments.put(electionId, segment);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            openLock.unlock();
+        }
+    }
+
+    private void resolve(Segment segment, long seq, boolean committed) {
+        segment.lock.lock();
+        try {
+            segment.journal.appendMarker(committed ? BallotJournalSegment.COMMIT : BallotJournalSegment.VOID, seq);
+            segment.unapplied.get(seq).state = committed ? Ballot.COMMITTED : Ballot.VOIDED;
+            if (--segment.pending == 0) {
+                segment.resolved.signalAll();
+            }
+            // Not awaited: the next group commit makes it durable, the applier waits for that
+            segment.lastTicket = markDirty(segment);
+        } catch (RuntimeException e) {
+            // Election deleted meanwhile, or the disk failed; recovery settles the ballot
+            log.error("Could not resolve ballot {} in the journal of election {}", seq, segment.electionId, e);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the committed ballots of the resolved prefix and advances the
+     * checkpoint. Needs a transaction; takes the election's shared lock before the
+     * checkpoint row, in the same order as closing.
+     */
+    private void apply(Segment segment) {
+        Long electionId = segment.electionId;
+        if (electionRepo.lockStatusById(electionId).isEmpty()) {
+            return;
+        }
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+            "SELECT applied_seq FROM ballot_journal_checkpoint WHERE election_id = ? FOR UPDATE", Long.class, electionId);
+        if (checkpoint.isEmpty()) {
+            return;
+        }
+        long appliedSeq = checkpoint.getFirst();
+
+        List<Ballot> batch = new ArrayList<>();
+        long upTo = appliedSeq;
+        byte[] hash = null;
+        long ticket;
+        segment.lock.lock();
+        try {
+            for (Map.Entry<Long, Ballot> entry : segment.unapplied.entrySet()) {
+                Ballot ballot = entry.getValue();
+                if (ballot.state == Ballot.PENDING) {
+                    break;
+                }
+                if (entry.getKey() > appliedSeq) {
+                    upTo = entry.getKey();
+                    hash = ballot.hash;
+                    if (ballot.state == Ballot.COMMITTED) {
+                        batch.add(ballot);
+                    }
+                }
+            }
+            ticket = segment.lastTicket;
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (upTo > appliedSeq) {
+            // The commit records must be on disk before the ballots count as applied
+            awaitDurable(ticket);
+            jdbcTemplate.batchUpdate(INSERT_VOTE, batch, batchSize, (ps, ballot) -> {
+                ps.setLong(1, electionId);
+                if (ballot.candidateId == null) {
+                    ps.setNull(2, Types.BIGINT);
+                } else {
+                    ps.setLong(2, ballot.candidateId);
+                }
+                if (ballot.ranking == null) {
+                    ps.setNull(3, Types.VARBINARY);
+                } else {
+                    ps.setBytes(3, ballot.ranking);
+                }
+            });
+            jdbcTemplate.update("UPDATE ballot_journal_checkpoint SET applied_seq = ?, applied_hash = ? WHERE election_id = ?",
+                upTo, HEX.formatHex(hash), electionId);
+        }
+
+        long forget = upTo;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                segment.forget(forget);
+            }
+        });
+    }
+
+    private void recover(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        Long electionId = Long.valueOf(name.substring("election-".length(), name.length() - ".ballots".length()));
+        List<Map<String, Object>> checkpoint = jdbcTemplate.queryForList(
+            "SELECT applied_seq, applied_hash, base_participation FROM ballot_journal_checkpoint WHERE election_id = ?", electionId);
+        if (checkpoint.isEmpty()) {
+            // Deleted (or archived) while the file was open
+            Files.delete(file);
+            log.info("Removed the ballot journal of deleted election {}", electionId);
+            return;
+        }
+        long appliedSeq = ((Number) checkpoint.getFirst().get("applied_seq")).longValue();
+        String appliedHash = (String) checkpoint.getFirst().get("applied_hash");
+        long base = ((Number) checkpoint.getFirst().get("base_participation")).longValue();
+
+        NavigableMap<Long, Ballot> unapplied = new TreeMap<>();
+        long[] committed = {0};
+        boolean[] checkpointMatches = {appliedSeq == 0};
+        BallotJournalSegment journal = BallotJournalSegment.open(file, entry -> {
+            switch (entry.type()) {
+                case BallotJournalSegment.BALLOT -> {
+                    if (entry.seq() > appliedSeq) {
+                        unapplied.put(entry.seq(), new Ballot(entry.candidateId(), entry.ranking(), entry.hash()));
+                    }
+                }
+                case BallotJournalSegment.COMMIT -> {
+                    committed[0]++;
+                    Ballot ballot = unapplied.get(entry.ballotSeq());
+                    if (ballot != null) {
+                        ballot.state = Ballot.COMMITTED;
+                    }
+                }
+                case BallotJournalSegment.VOID -> {
+                    Ballot ballot = unapplied.get(entry.ballotSeq());
+                    if (ballot != null) {
+                        ballot.state = Ballot.VOIDED;
+                    }
+                }
+                default -> {
+                }
+            }
+            if (entry.seq() == appliedSeq) {
+                checkpointMatches[0] = HEX.formatHex(entry.hash()).equals(appliedHash);
+            }
+        });
+        if (!checkpointMatches[0]) {
+            log.error("Ballot journal of election {} does not match its checkpoint at record {}, it was modified", electionId, appliedSeq);
+        }
+
+        // Every committed vote left one participation row; the ones without a ballot are the in-doubt ballots that committed
+        long participation = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM election_participation WHERE election_id = ?", Long.class, electionId);
+        List<Long> inDoubt = unapplied.entrySet().stream()
+            .filter(entry -> entry.getValue().state == Ballot.PENDING)
+            .map(Map.Entry::getKey)
+            .toList();
+        if (!inDoubt.isEmpty()) {
+            long missing = participation - base - committed[0];
+            boolean commit = missing == inDoubt.size();
+            if (!commit && missing != 0) {
+                log.error("Election {}: {} ballots in doubt but {} participations without a ballot, voiding them",
+                    electionId, inDoubt.size(), missing);
+            }
+            for (Long seq : inDoubt) {
+                journal.appendMarker(commit ? BallotJournalSegment.COMMIT : BallotJournalSegment.VOID, seq);
+                unapplied.get(seq).state = commit ? Ballot.COMMITTED : Ballot.VOIDED;
+            }
+            journal.force();
+            if (commit) {
+                committed[0] += inDoubt.size();
+            }
+            log.info("Election {}: settled {} in-doubt ballots as {}", electionId, inDoubt.size(), commit ? "committed" : "void");
+        }
+
+        Segment segment = new Segment(journal, unapplied);
+        transactionTemplate.executeWithoutResult(tx -> {
+            apply(segment);
+            // Votes cast while the journal was off have participation rows but no ballot in it
+            jdbcTemplate.update("UPDATE ballot_journal_checkpoint SET base_participation = ? WHERE election_id = ?",
+                participation - committed[0], electionId);
+        });
+        if (enabled && electionRepo.findStatusById(electionId).orElse(null) == ElectionStatus.OPEN) {
+            segments.put(electionId, segment);
+        } else {
+            segment.close();
+        }
+        log.info("Recovered the ballot journal of election {}: {} committed ballots", electionId, committed[0]);
+    }
+
+    private Path file(Long electionId) {
+        return directory.resolve("election-" + electionId + ".ballots");
+    }
+
+    private long markDirty(Segment segment) {
+        flushLock.lock();
+        try {
+            dirty.add(segment);
+            flushWanted.signal();
+            return ++appended;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void awaitDurable(long ticket) {
+        flushLock.lock();
+        try {
+            while (durable < ticket) {
+                if (failedThrough >= ticket) {
+                    throw new IllegalStateException("Ballot journal could not be written to disk", failure);
+                }
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ballot journal", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // One fsync per dirty journal covers every append made before it started
+    private void flushLoop() {
+        try {
+            while (true) {
+                long target;
+                List<Segment> batch;
+                flushLock.lock();
+                try {
+                    while (appended == durable) {
+                        flushWanted.await();
+                    }
+                    target = appended;
+                    batch = List.copyOf(dirty);
+                    dirty.clear();
+                } finally {
+                    flushLock.unlock();
+                }
+
+                RuntimeException error = null;
+                for (Segment segment : batch) {
+                    try {
+                        segment.journal.force();
+                    } catch (RuntimeException e) {
+                        if (!segment.journal.isClosed()) {
+                            error = e;
+                        }
+                    }
+                }
+
+                flushLock.lock();
+                try {
+                    if (error == null) {
+                        groupCommitSize.record(target - durable);
+                        durable = target;
+                    } else {
+                        log.error("fsync of the ballot journal failed", error);
+                        failure = error;
+                        failedThrough = target;
+                        dirty.addAll(batch);
+                    }
+                    flushed.signalAll();
+                } finally {
+                    flushLock.unlock();
+                }
+                if (error != null) {
+                    TimeUnit.MILLISECONDS.sleep(100);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * An open journal with its ballots not yet in the vote table, by sequence number.
+     * Appends and the map are guarded by the lock.
+     */
+    private static final class Segment {
+        final Long electionId;
+        final BallotJournalSegment journal;
+        final NavigableMap<Long, Ballot> unapplied;
+        final Lock lock = new ReentrantLock();
+        final Condition resolved = lock.newCondition();
+        int pending;
+        long lastTicket;
+
+        Segment(BallotJournalSegment journal, NavigableMap<Long, Ballot> unapplied) {
+            this.electionId = journal.electionId();
+            this.journal = journal;
+            this.unapplied = unapplied;
+        }
+
+        boolean hasResolved() {
+            lock.lock();
+            try {
+                return !unapplied.isEmpty() && unapplied.firstEntry().getValue().state != Ballot.PENDING;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean awaitResolved(Duration timeout) {
+            long nanos = timeout.toNanos();
+            lock.lock();
+            try {
+                while (pending > 0) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = resolved.awaitNanos(nanos);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void forget(long upTo) {
+            lock.lock();
+            try {
+                unapplied.headMap(upTo, true).clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Could not close the ballot journal of election {}", electionId, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Ballot {
+        static final int PENDING = 0;
+        static final int COMMITTED = 1;
+        static final int VOIDED = 2;
+
+        final Long candidateId;
+        final byte[] ranking;
+        final byte[] hash;
+        int state = PENDING;
+
+        Ballot(Long candidateId, byte[] ranking, byte[] hash) {
+            this.candidateId = candidateId;
+            this.ranking = ranking;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.election.backend.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The ballot journal file of one election: a 16 byte header (magic, version,
+ * election id) followed by append-only records, written through a memory
+ * mapping that doubles whenever it fills up.
+ * <p>
+ * A record is the int length of its body, the body (type, sequence number,
+ * payload) and the SHA-256 of the previous record's hash and this body. The
+ * first record chains to the hash of the header. The length is written last,
+ * so a record torn by a crash reads either as the end of the journal or as a
+ * hash mismatch, and reading stops there.
+ * <p>
+ * Appends are not thread-safe; {@link BallotJournal} serializes them per segment.
+ */
+final class BallotJournalSegment implements Closeable {
+
+    static final byte BALLOT = 1; // payload: long candidate id (-1 for an abstention), short length, packed ranking
+    static final byte COMMIT = 2; // payload: long sequence number of the ballot whose transaction committed
+    static final byte VOID = 3;   // payload: long sequence number of the ballot whose transaction rolled back
+
+    static final int HASH_SIZE = 32;
+
+    private static final int MAGIC = 0x424A4E4C; // "BJNL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final long ABSTAIN = -1;
+
+    /**
+     * @param candidateId ballots only, null for an abstention
+     * @param ranking     ballots only, packed by {@link RankingCodec}, null if not ranked
+     * @param ballotSeq   commit and void markers only, the ballot they resolve
+     */
+    record Entry(byte type, long seq, Long candidateId, byte[] ranking, long ballotSeq, byte[] hash) {
+    }
+
+    /**
+     * @param end      offset after the last valid record
+     * @param intact   false if reading stopped at a record that failed its hash or was cut off
+     */
+    record Scan(int end, long records, long lastSeq, byte[] lastHash, boolean intact) {
+    }
+
+    private final long electionId;
+    private final Path file;
+    private final FileChannel channel;
+    private final MessageDigest digest = sha256();
+
+    // Read by the fsync thread, which forces whatever mapping is current
+    private volatile MappedByteBuffer buffer;
+    private int position;
+    private long lastSeq;
+    private byte[] lastHash;
+    private volatile boolean closed;
+
+    private BallotJournalSegment(long electionId, Path file, FileChannel channel, MappedByteBuffer buffer) {
+        this.electionId = electionId;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static BallotJournalSegment create(Path file, long electionId, int initialSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        BallotJournalSegment segment = new BallotJournalSegment(electionId, file, channel,
+            channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, 4096)));
+        segment.buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, electionId);
+        segment.position = HEADER_SIZE;
+        segment.lastHash = headerHash(segment.buffer);
+        segment.force();
+        return segment;
+    }
+
+    /**
+     * Opens an existing journal, passing every valid record to the visitor. A torn
+     * or corrupt tail is cleared, so appends continue after the last valid record.
+     */
+    static BallotJournalSegment open(Path file, Consumer<Entry> visitor) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        long electionId = checkHeader(buffer, file);
+        BallotJournalSegment segment = new BallotJournalSegment(electionId, file, channel, buffer);
+
+        Scan scan = scan(buffer.duplicate(), buffer.capacity(), visitor);
+        segment.position = scan.end();
+        segment.lastSeq = scan.lastSeq();
+        segment.lastHash = scan.lastHash();
+        if (!scan.intact()) {
+            for (int i = scan.end(); i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+        return segment;
+    }
+
+    long electionId() {
+        return electionId;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    byte[] lastHash() {
+        return lastHash;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return the sequence number of the new record
+     */
+    long appendBallot(Long candidateId, byte[] ranking) {
+        int rankingLength = ranking == null ? 0 : ranking.length;
+        ByteBuffer body = ByteBuffer.allocate(1 + 8 + 8 + 2 + rankingLength);
+        body.put(BALLOT).putLong(lastSeq + 1).putLong(candidateId == null ? ABSTAIN : candidateId).putShort((short) rankingLength);
+        if (ranking != null) {
+            body.put(ranking);
+        }
+        return append(body.array());
+    }
+
+    long appendMarker(byte type, long ballotSeq) {
+        return append(ByteBuffer.allocate(1 + 8 + 8).put(type).putLong(lastSeq + 1).putLong(ballotSeq).array());
+    }
+
+    /**
+     * Makes everything appended so far durable. May run concurrently with appends.
+     */
+    void force() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Reads the records appended so far. Must be called while appends are held
+     * off; the returned buffer can then be scanned without blocking them.
+     */
+    ByteBuffer snapshot() {
+        return buffer.asReadOnlyBuffer().limit(position);
+    }
+
+    static Scan scan(ByteBuffer snapshot, Consumer<Entry> visitor) {
+        checkHeader(snapshot, null);
+        return scan(snapshot, snapshot.limit(), visitor);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    private long append(byte[] body) {
+        if (closed) {
+            throw new IllegalStateException("Ballot journal of election " + electionId + " is closed");
+        }
+        int length = 4 + body.length + HASH_SIZE;
+        // Room for this record and the zero length that ends the journal
+        if (position + length + 4 > buffer.capacity()) {
+            grow(position + length + 4);
+        }
+
+        digest.update(lastHash);
+        byte[] hash = digest.digest(body);
+        MappedByteBuffer target = buffer;
+        target.put(position + 4, body);
+        target.put(position + 4 + body.length, hash);
+        target.putInt(position, body.length); // Last: the record exists from here on
+
+        position += length;
+        lastSeq++;
+        lastHash = hash;
+        return lastSeq;
+    }
+
+    private void grow(int needed) {
+        long capacity = buffer.capacity();
+        while (capacity < needed) {
+            capacity *= 2;
+        }
+        try {
+            // The old mapping stays valid until collected and maps the same pages
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Scan scan(ByteBuffer buffer, int limit, Consumer<Entry> visitor) {
+        MessageDigest digest = sha256();
+        byte[] previous = headerHash(buffer);
+        int position = HEADER_SIZE;
+        long records = 0;
+        long seq = 0;
+        while (position + 4 <= limit) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return new Scan(position, records, seq, previous, true);
+            }
+            if (length < 0 || position + 4L + length + HASH_SIZE > limit) {
+                return new Scan(position, records, seq, previous, false);
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + 4, body);
+            byte[] hash = new byte[HASH_SIZE];
+            buffer.get(position + 4 + length, hash);
+            digest.update(previous);
+            if (!Arrays.equals(digest.digest(body), hash)) {
+                return new Scan(position, records, seq, previous, false);
+            }
+
+            ByteBuffer in = ByteBuffer.wrap(body);
+            byte type = in.get();
+            long recordSeq = in.getLong();
+            if (recordSeq != seq + 1) {
+                return new Scan(position, records, seq, previous, false);
+            }
+            if (type == BALLOT) {
+                long candidateId = in.getLong();
+                byte[] ranking = new byte[in.getShort()];
+                in.get(ranking);
+                visitor.accept(new Entry(type, recordSeq, candidateId == ABSTAIN ? null : candidateId,
+                    ranking.length == 0 ? null : ranking, 0, hash));
+            } else {
+                visitor.accept(new Entry(type, recordSeq, null, null, in.getLong(), hash));
+            }
+
+            position += 4 + length + HASH_SIZE;
+            records++;
+            seq = recordSeq;
+            previous = hash;
+        }
+        return new Scan(position, records, seq, previous, true);
+    }
+
+    private static long checkHeader(ByteBuffer buffer, Path file) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a ballot journal: " + (file == null ? "snapshot" : file));
+        }
+        return buffer.getLong(8);
+    }
+
+    private static byte[] headerHash(ByteBuffer buffer) {
+        byte[] header = new byte[HEADER_SIZE];
+        buffer.get(0, header);
+        return sha256().digest(header);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.election.backend.service;
+
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.model.VotingMethod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What makes a ballot valid in one election: its voting method and candidates,
+ * as a sorted array so that checks are binary searches without boxing or
+ * allocation. Built by {@link BallotSpecCache}; immutable.
+ */
+public final class BallotSpec {
+
+    private final long electionId;
+    private final ElectionStatus status;
+    private final VotingMethod votingMethod;
+    private final long[] candidateIds;
+
+    BallotSpec(long electionId, ElectionStatus status, VotingMethod votingMethod, long[] candidateIds) {
+        this.electionId = electionId;
+        this.status = status;
+        this.votingMethod = votingMethod;
+        this.candidateIds = candidateIds.clone();
+        Arrays.sort(this.candidateIds);
+    }
+
+    public long electionId() {
+        return electionId;
+    }
+
+    // When the spec was built; the vote path still checks the locked row
+    public ElectionStatus status() {
+        return status;
+    }
+
+    public boolean ranked() {
+        return votingMethod != VotingMethod.PLURALITY;
+    }
+
+    public boolean isCandidate(long candidateId) {
+        return Arrays.binarySearch(candidateIds, candidateId) >= 0;
+    }
+
+    /**
+     * Every preference is a candidate and none is listed twice. A valid ranking
+     * is no longer than the candidate list, which bounds the duplicate scan.
+     */
+    public boolean isValidRanking(List<Long> ranking) {
+        int size = ranking.size();
+        if (size > candidateIds.length) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            Long candidateId = ranking.get(i);
+            if (candidateId == null || !isCandidate(candidateId)) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (ranking.get(j).longValue() == candidateId) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
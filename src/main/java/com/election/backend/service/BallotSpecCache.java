@@ -0,0 +1,60 @@
+package com.election.backend.service;
+
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.repository.ElectionRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link BallotSpec} of every open election, so that validating a vote or
+ * an imported ballot needs no query for the voting method or candidates.
+ * <p>
+ * Candidates and voting method never change while an election is open. Entries
+ * are dropped when an election is updated (closing it included) or deleted;
+ * specs of elections that are not open are built but not kept.
+ */
+@Service
+public class BallotSpecCache {
+
+    private final ElectionRepository electionRepo;
+
+    private final ConcurrentMap<Long, CompletableFuture<BallotSpec>> specs = new ConcurrentHashMap<>();
+
+    public BallotSpecCache(ElectionRepository electionRepo) {
+        this.electionRepo = electionRepo;
+    }
+
+    public BallotSpec get(Long electionId) {
+        // Loaded outside the map's locks, see CallerLoading
+        BallotSpec spec = CallerLoading.get(specs, electionId, () -> load(electionId));
+        if (spec.status() != ElectionStatus.OPEN) {
+            specs.remove(electionId);
+        }
+        return spec;
+    }
+
+    @TransactionalEventListener
+    public void onElectionUpdated(ElectionUpdatedEvent event) {
+        specs.remove(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        specs.remove(event.electionId());
+    }
+
+    private BallotSpec load(Long electionId) {
+        ElectionStatus status = electionRepo.findStatusById(electionId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return new BallotSpec(electionId, status, electionRepo.findVotingMethodById(electionId).orElseThrow(),
+            electionRepo.findCandidateIds(electionId).stream().mapToLong(Long::longValue).toArray());
+    }
+}
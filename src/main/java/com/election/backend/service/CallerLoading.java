@@ -0,0 +1,56 @@
+package com.election.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache loading without holding a lock during the load.
+ * <p>
+ * {@code computeIfAbsent} (and Caffeine's {@code get(key, loader)}) run the
+ * loader inside a synchronized block. A virtual thread that waits for a
+ * database connection in there pins its carrier thread; with every carrier
+ * pinned, the threads holding the connections cannot run to give them back.
+ * Here a placeholder future is installed first and the loader runs on the
+ * calling thread afterwards; concurrent callers for the same key wait on that
+ * future, which parks instead of pinning.
+ */
+public final class CallerLoading {
+
+    private CallerLoading() {
+    }
+
+    /**
+     * The value for {@code key}, loaded by the first caller. A failed load is
+     * removed again and its exception thrown to everyone who waited for it.
+     * Caffeine {@code AsyncCache} maps drop futures that complete with null,
+     * so a null value is not cached there.
+     */
+    public static <K, V> V get(ConcurrentMap<K, CompletableFuture<V>> map, K key, Supplier<V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> existing = map.putIfAbsent(key, loading);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            loading.complete(loader.get());
+        } catch (RuntimeException | Error e) {
+            map.remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        return join(loading);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
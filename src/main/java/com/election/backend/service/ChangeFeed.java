@@ -0,0 +1,272 @@
+package com.election.backend.service;
+
+import com.election.backend.event.BallotsImportedEvent;
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.event.RemoteBallotsEvent;
+import com.election.backend.event.UserChangedEvent;
+import com.election.backend.event.VoteCastEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the caches of several replicas on one database coherent
+ * (election.cache-coherence.enabled).
+ * <p>
+ * Every node writes what changed to the cache_change table and polls it for
+ * the changes of the other nodes. It then publishes them as the local events
+ * its caches already listen to. Election and user changes are written in the
+ * transaction that makes them. Votes and imports are too frequent for that:
+ * they are counted per election and candidate after they commit and written
+ * once per poll interval, as ballot counts without voters. The other nodes add
+ * those counts to their tallies instead of counting the vote table again.
+ * <p>
+ * Ids are handed out before commit, so a change can become visible after a
+ * higher one. Ids skipped while polling are looked for again until
+ * gap-timeout. A node therefore sees another node's change within about
+ * two poll intervals.
+ */
+@Slf4j
+@Service
+public class ChangeFeed {
+
+    enum Kind {
+        ELECTION, ELECTION_DELETED, USER, BALLOTS
+    }
+
+    private record Change(Kind kind, long entityId) {
+    }
+
+    private static final String INSERT_CHANGE = "INSERT INTO cache_change (kind, entity_id, origin, changed_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_BALLOTS = "INSERT INTO cache_change (kind, entity_id, candidate_id, ballots, origin, changed_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ROWS = 1000;
+    // Larger jumps (e.g. sequence values lost in a crash) are not waited for
+    private static final int MAX_GAP = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    private final Duration gapTimeout;
+    private final Duration retention;
+
+    // Identifies this node's rows, which it skips when polling
+    private final String origin = UUID.randomUUID().toString();
+
+    // Set while replaying, so the replayed events are not written back
+    private final ThreadLocal<Boolean> replaying = new ThreadLocal<>();
+
+    // Ballots per election and candidate (null for abstentions) since the last flush.
+    // A lock rather than synchronized: virtual threads waiting for it park instead of pinning.
+    private final Lock newBallotsLock = new ReentrantLock();
+    private Map<Long, Map<Long, Long>> newBallots = new HashMap<>();
+
+    // Only touched by the polling thread
+    private long maxSeen;
+    private final TreeMap<Long, Instant> gaps = new TreeMap<>();
+
+    public ChangeFeed(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ApplicationEventPublisher events,
+                      @Value("${election.cache-coherence.enabled}") boolean enabled,
+                      @Value("${election.cache-coherence.gap-timeout}") Duration gapTimeout,
+                      @Value("${election.cache-coherence.retention}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.enabled = enabled;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    // Earlier changes do not matter, nothing is cached yet
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            maxSeen = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_change", Long.class);
+            log.info("Cache coherence on, node {} starts after change {}", origin, maxSeen);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onElectionUpdated(ElectionUpdatedEvent event) {
+        record(Kind.ELECTION, event.electionId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        record(Kind.ELECTION_DELETED, event.electionId());
+    }
+
+    // User writes are not transactional, the change is then written on its own
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        record(Kind.USER, event.userId());
+    }
+
+    @TransactionalEventListener
+    public void onVoteCast(VoteCastEvent event) {
+        if (enabled) {
+            addBallots(event.electionId(), Collections.singletonMap(event.candidateId(), 1L));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBallotsImported(BallotsImportedEvent event) {
+        if (enabled) {
+            addBallots(event.electionId(), event.counts());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${election.cache-coherence.poll-interval}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        flushBallots();
+
+        Set<Change> changes = new LinkedHashSet<>();
+        Map<Long, Map<Long, Long>> ballots = new HashMap<>();
+        Instant now = Instant.now();
+        long previous = maxSeen;
+        for (Object[] row : read("id > ? ORDER BY id FETCH FIRST " + MAX_ROWS + " ROWS ONLY", List.of(maxSeen))) {
+            long id = (Long) row[0];
+            if (id - previous <= MAX_GAP) {
+                for (long missing = previous + 1; missing < id; missing++) {
+                    gaps.put(missing, now);
+                }
+            }
+            previous = id;
+            collect(row, changes, ballots);
+        }
+        if (!gaps.isEmpty()) {
+            List<Long> missing = gaps.keySet().stream().limit(MAX_ROWS).toList();
+            for (Object[] row : read("id IN (" + String.join(", ", Collections.nCopies(missing.size(), "?")) + ")", missing)) {
+                gaps.remove((Long) row[0]);
+                collect(row, changes, ballots);
+            }
+            gaps.values().removeIf(since -> since.plus(gapTimeout).isBefore(now));
+        }
+        maxSeen = previous;
+
+        if (!changes.isEmpty()) {
+            replay(changes, ballots);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${election.cache-coherence.retention}", initialDelayString = "${election.cache-coherence.retention}")
+    public void purge() {
+        if (enabled) {
+            jdbcTemplate.update("DELETE FROM cache_change WHERE changed_at < ?", Timestamp.from(Instant.now().minus(retention)));
+        }
+    }
+
+    private void record(Kind kind, Long entityId) {
+        if (enabled && replaying.get() == null) {
+            jdbcTemplate.update(INSERT_CHANGE, kind.name(), entityId, origin, Timestamp.from(Instant.now()));
+        }
+    }
+
+    private void addBallots(Long electionId, Map<Long, Long> counts) {
+        newBallotsLock.lock();
+        try {
+            Map<Long, Long> election = newBallots.computeIfAbsent(electionId, id -> new HashMap<>());
+            counts.forEach((candidateId, count) -> election.merge(candidateId, count, Long::sum));
+        } finally {
+            newBallotsLock.unlock();
+        }
+    }
+
+    private void flushBallots() {
+        Map<Long, Map<Long, Long>> flushed;
+        newBallotsLock.lock();
+        try {
+            if (newBallots.isEmpty()) {
+                return;
+            }
+            flushed = newBallots;
+            newBallots = new HashMap<>();
+        } finally {
+            newBallotsLock.unlock();
+        }
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        flushed.forEach((electionId, counts) -> counts.forEach((candidateId, count) ->
+            rows.add(new Object[]{Kind.BALLOTS.name(), electionId, candidateId, count, origin, now})));
+        try {
+            // All rows or none, so a failed flush can be repeated as a whole
+            transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(INSERT_BALLOTS, rows));
+        } catch (RuntimeException e) {
+            // Back for the next flush, added to what came in meanwhile
+            flushed.forEach(this::addBallots);
+            throw e;
+        }
+    }
+
+    private List<Object[]> read(String condition, List<Long> params) {
+        return jdbcTemplate.query("SELECT id, kind, entity_id, origin, candidate_id, ballots FROM cache_change WHERE " + condition,
+            (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getString(4),
+                rs.getObject(5, Long.class), rs.getObject(6, Long.class)},
+            params.toArray());
+    }
+
+    // Own changes were handled when they were made; several changes of one thing count once,
+    // ballot counts add up
+    private void collect(Object[] row, Set<Change> changes, Map<Long, Map<Long, Long>> ballots) {
+        if (origin.equals(row[3])) {
+            return;
+        }
+        try {
+            Change change = new Change(Kind.valueOf((String) row[1]), (Long) row[2]);
+            changes.add(change);
+            if (change.kind() == Kind.BALLOTS && row[5] != null) {
+                ballots.computeIfAbsent(change.entityId(), id -> new HashMap<>()).merge((Long) row[4], (Long) row[5], Long::sum);
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping change {} of unknown kind {}", row[0], row[1]);
+        }
+    }
+
+    // In a transaction, so that the caches' AFTER_COMMIT listeners run
+    private void replay(Set<Change> changes, Map<Long, Map<Long, Long>> ballots) {
+        replaying.set(Boolean.TRUE);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                for (Change change : changes) {
+                    events.publishEvent(switch (change.kind()) {
+                        case ELECTION -> new ElectionUpdatedEvent(change.entityId());
+                        case ELECTION_DELETED -> new ElectionDeletedEvent(change.entityId());
+                        case USER -> new UserChangedEvent(change.entityId());
+                        case BALLOTS -> new RemoteBallotsEvent(change.entityId(),
+                            ballots.getOrDefault(change.entityId(), Map.of()));
+                    });
+                }
+            });
+        } finally {
+            replaying.remove();
+        }
+        log.debug("Applied {} changes from other nodes", changes.size());
+    }
+}
@@ -0,0 +1,253 @@
+package com.election.backend.service;
+
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.model.Election;
+import com.election.backend.model.ElectionArchive;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.repository.ElectionArchiveRepository;
+import com.election.backend.repository.ElectionRepository;
+import com.election.backend.repository.ElectionResultRepository;
+import com.election.backend.repository.VoteRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Removes elections from the hot tables.
+ * <p>
+ * Deleting is set-based: one DELETE per table, nothing is loaded into the
+ * persistence context. Archiving first writes a completed election (metadata,
+ * candidates, frozen result, electorate, participation and ballots) to a gzipped
+ * NDJSON file, one JSON object per line with a {@code type} field, then deletes
+ * it and keeps a row in {@code election_archive} with the file's SHA-256.
+ * Archives run one at a time on a background thread.
+ */
+@Slf4j
+@Service
+public class ElectionArchiveService {
+
+    private final ElectionRepository electionRepo;
+    private final VoteRepository voteRepo;
+    private final ElectionResultRepository resultRepo;
+    private final ElectionArchiveRepository archiveRepo;
+    private final ElectionResultService resultService;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate exportReader;
+    private final Path directory;
+    private final boolean auto;
+    private final Duration autoAfter;
+
+    private final ExecutorService archiver = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("election-archive-"));
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public ElectionArchiveService(ElectionRepository electionRepo, VoteRepository voteRepo, ElectionResultRepository resultRepo,
+                                  ElectionArchiveRepository archiveRepo, ElectionResultService resultService,
+                                  ApplicationEventPublisher events, ObjectMapper objectMapper,
+                                  TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                                  @Value("${election.archive.directory}") Path directory,
+                                  @Value("${election.archive.auto}") boolean auto,
+                                  @Value("${election.archive.auto-after}") Duration autoAfter) {
+        this.electionRepo = electionRepo;
+        this.voteRepo = voteRepo;
+        this.resultRepo = resultRepo;
+        this.archiveRepo = archiveRepo;
+        this.resultService = resultService;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        // Rows are streamed into the file, never held as a list
+        this.exportReader = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportReader.setFetchSize(10_000);
+        this.directory = directory;
+        this.auto = auto;
+        this.autoAfter = autoAfter;
+    }
+
+    /**
+     * Deletes the election and everything that belongs to it. Must run in a
+     * transaction; publishes {@link ElectionDeletedEvent}.
+     */
+    public void deleteElection(Long electionId) {
+        electionRepo.lockStatusForUpdateById(electionId);
+        // Children first, because of the foreign keys
+        long ballots = voteRepo.deleteByElectionId(electionId);
+        resultRepo.deleteByElectionId(electionId);
+        electionRepo.deleteParticipation(electionId);
+        electionRepo.deleteEligibleVoters(electionId);
+        electionRepo.deleteCandidates(electionId);
+        electionRepo.deleteJournalCheckpoint(electionId);
+        electionRepo.deleteElectionRow(electionId);
+        events.publishEvent(new ElectionDeletedEvent(electionId));
+        log.info("Deleted election {} with {} ballots", electionId, ballots);
+    }
+
+    /**
+     * Queues a completed election for archival. Does nothing if it is queued already.
+     */
+    public void submit(Long electionId) {
+        if (pending.add(electionId)) {
+            archiver.execute(() -> {
+                try {
+                    archive(electionId);
+                } finally {
+                    pending.remove(electionId);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${election.archive.check-interval}", initialDelayString = "${election.archive.check-interval}")
+    public void archiveExpired() {
+        if (auto) {
+            electionRepo.findIdsFinalizedBefore(Instant.now().minus(autoAfter)).forEach(this::submit);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        archiver.shutdownNow();
+    }
+
+    private void archive(Long electionId) {
+        long started = System.nanoTime();
+        String fileName = "election-" + electionId + ".ndjson.gz";
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+        try {
+            // Finalizes elections closed before results were stored, and fails if still open
+            resultService.getResults(electionId);
+
+            Files.createDirectories(directory);
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            Export export;
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                new DigestOutputStream(Files.newOutputStream(temp), sha256), 65536), StandardCharsets.UTF_8))) {
+                // One read-only transaction, so all sections are from the same snapshot
+                export = transactionTemplate.execute(tx -> {
+                    tx.setRollbackOnly();
+                    return write(electionId, out);
+                });
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            String checksum = HexFormat.of().formatHex(sha256.digest());
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                Election election = electionRepo.findByIdForUpdate(electionId).orElseThrow();
+                if (election.getStatus() != ElectionStatus.COMPLETED || voteRepo.countByElectionId(electionId) != export.ballots()) {
+                    throw new IllegalStateException("Election " + electionId + " changed while it was exported");
+                }
+
+                ElectionArchive archive = new ElectionArchive();
+                archive.setElectionId(electionId);
+                archive.setTitle(election.getTitle());
+                archive.setFinalizedAt(election.getFinalizedAt());
+                archive.setArchivedAt(Instant.now());
+                archive.setFileName(fileName);
+                archive.setSha256(checksum);
+                archive.setBallots(export.ballots());
+                archive.setParticipations(export.participations());
+
+                deleteElection(electionId);
+                archiveRepo.save(archive);
+            });
+            log.info("Archived election {} to {} in {} ms: {} ballots, {} participations", electionId, target,
+                (System.nanoTime() - started) / 1_000_000, export.ballots(), export.participations());
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            log.error("Archiving election {} failed", electionId, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Overwritten by the next attempt
+            }
+        }
+    }
+
+    private Export write(Long electionId, Writer out) {
+        Election election = electionRepo.findById(electionId).orElseThrow();
+        line(out, new ElectionLine("election", election.getId(), election.getTitle(), election.getVotingMethod().name(),
+            election.getSeats(), election.getFinalizedAt(), election.getTotalVotes(), election.getResultChecksum()));
+
+        exportReader.query("SELECT candidates_id FROM election_candidates WHERE election_id = ? ORDER BY candidates_id",
+            rs -> { line(out, new UserLine("candidate", rs.getLong(1))); }, electionId);
+        exportReader.query("SELECT position, candidate_id, candidate_name, vote_count FROM election_result " +
+                "WHERE election_id = ? ORDER BY position",
+            rs -> { line(out, new ResultLine("result", rs.getInt(1), rs.getObject(2, Long.class), rs.getString(3), rs.getLong(4))); },
+            electionId);
+        exportReader.query(ElectorateIndex.ELIGIBLE_VOTERS + " ORDER BY 1",
+            rs -> { line(out, new UserLine("eligible", rs.getLong(1))); }, electionId, electionId);
+
+        // Participation by user id and ballots without their ids, both sorted by content:
+        // the physical order of the vote table roughly follows the order of voting
+        long[] participations = {0};
+        exportReader.query("SELECT user_id FROM election_participation WHERE election_id = ? ORDER BY user_id",
+            rs -> {
+                line(out, new UserLine("participation", rs.getLong(1)));
+                participations[0]++;
+            }, electionId);
+        long[] ballots = {0};
+        exportReader.query("SELECT candidate_id, ranking FROM vote WHERE election_id = ? " +
+                "ORDER BY candidate_id NULLS FIRST, ranking NULLS FIRST",
+            rs -> {
+                byte[] ranking = rs.getBytes(2);
+                line(out, new BallotLine("ballot", rs.getObject(1, Long.class), ranking == null ? null : RankingCodec.decode(ranking)));
+                ballots[0]++;
+            }, electionId);
+        return new Export(ballots[0], participations[0]);
+    }
+
+    private void line(Writer out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsString(line));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Export(long ballots, long participations) {
+    }
+
+    private record ElectionLine(String type, Long id, String title, String votingMethod, int seats,
+                                Instant finalizedAt, Long totalVotes, String resultChecksum) {
+    }
+
+    private record UserLine(String type, long userId) {
+    }
+
+    private record ResultLine(String type, int position, Long candidateId, String candidateName, long voteCount) {
+    }
+
+    // candidateId is the first preference on ranked ballots, null for an abstention
+    private record BallotLine(String type, Long candidateId, int[] ranking) {
+    }
+}
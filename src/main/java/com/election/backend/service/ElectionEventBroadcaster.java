@@ -0,0 +1,303 @@
+package com.election.backend.service;
+
+import com.election.backend.dto.ElectionEventDto;
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.event.RemoteBallotsEvent;
+import com.election.backend.event.VoteCastEvent;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.repository.ElectionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes small election events to Server-Sent Events subscribers.
+ * <p>
+ * Changes are only collected when they commit and are sent by a scheduled flush,
+ * so a burst of votes turns into at most one "turnout" event per election and
+ * interval, and closing an election into one "status" event. Subscriptions are
+ * async requests and hold no servlet thread while idle.
+ * <p>
+ * The flush only queues the writes; they run on a pool of their own, in order
+ * per subscriber, so a slow client holds up neither the other clients nor the
+ * shared scheduler. Each subscriber has at most one write on the pool and a
+ * bounded queue behind it. A subscriber whose write fails, whose queue is full,
+ * or whose write has been blocked for longer than the send timeout is dropped
+ * and its response completed; its EventSource reconnects and starts over.
+ */
+@Slf4j
+@Service
+public class ElectionEventBroadcaster {
+
+    private static final Long ALL_ELECTIONS = -1L;
+
+    private final ElectionRepository electionRepo;
+    private final ElectorateIndex electorateIndex;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int sendQueue;
+    private final ThreadPoolExecutor sendExecutor;
+
+    // Election id (or ALL_ELECTIONS) -> subscribers
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Collected since the last flush
+    private final Set<Long> turnoutChanged = ConcurrentHashMap.newKeySet();
+    private final Set<Long> statusChanged = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+
+    public ElectionEventBroadcaster(ElectionRepository electionRepo, ElectorateIndex electorateIndex,
+                                    @Value("${election.events.emitter-timeout}") Duration emitterTimeout,
+                                    @Value("${election.events.send-threads}") int sendThreads,
+                                    @Value("${election.events.send-timeout}") Duration sendTimeout,
+                                    @Value("${election.events.send-queue}") int sendQueue,
+                                    MeterRegistry registry) {
+        this.electionRepo = electionRepo;
+        this.electorateIndex = electorateIndex;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.sendQueue = sendQueue;
+        // Unbounded, but holds at most one write per subscriber
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("sse-send-"));
+        new ExecutorServiceMetrics(sendExecutor, "sse-send", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * @param electionId the election to follow, or null for all elections
+     */
+    public SseEmitter subscribe(Long electionId) {
+        // On timeout the browser's EventSource simply reconnects
+        return subscribe(electionId, new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(Long electionId, SseEmitter emitter) {
+        Long key = electionId == null ? ALL_ELECTIONS : electionId;
+        Set<Subscriber> group = subscribers.computeIfAbsent(key, id -> ConcurrentHashMap.newKeySet());
+        Subscriber subscriber = new Subscriber(emitter, group);
+        group.add(subscriber);
+
+        Runnable remove = () -> group.remove(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onVoteCast(VoteCastEvent event) {
+        turnoutChanged.add(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onRemoteBallots(RemoteBallotsEvent event) {
+        turnoutChanged.add(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onElectionUpdated(ElectionUpdatedEvent event) {
+        statusChanged.add(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        deleted.add(event.electionId());
+    }
+
+    @Scheduled(fixedDelayString = "${election.events.flush-interval}")
+    public void flush() {
+        for (Long electionId : drain(deleted)) {
+            turnoutChanged.remove(electionId);
+            statusChanged.remove(electionId);
+            send(electionId, "deleted", new ElectionEventDto(electionId, null, null));
+            // Nothing more will happen for this election, completed after the event went out
+            Set<Subscriber> group = subscribers.remove(electionId);
+            if (group != null) {
+                group.forEach(Subscriber::complete);
+            }
+        }
+        // Elections only ever go from OPEN to COMPLETED; creating one or editing its voter roll is no status change
+        for (Long electionId : drain(statusChanged)) {
+            electionRepo.findStatusById(electionId)
+                .filter(status -> status != ElectionStatus.OPEN)
+                .ifPresent(status -> send(electionId, "status", new ElectionEventDto(electionId, null, status.name())));
+        }
+        for (Long electionId : drain(turnoutChanged)) {
+            send(electionId, "turnout", new ElectionEventDto(electionId, electorateIndex.turnout(electionId), null));
+        }
+    }
+
+    // Comment lines keep proxies from closing idle connections and reveal dead or stalled clients
+    @Scheduled(fixedDelayString = "${election.events.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.values().forEach(group -> group.forEach(subscriber ->
+            subscriber.send(SseEmitter.event().comment("keep-alive"))));
+    }
+
+    // A blocked write is only noticed here: a dropped subscriber gets nothing queued any more
+    @Scheduled(fixedDelayString = "${election.events.send-timeout}")
+    public void sweep() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> {
+            if (subscriber.stalledAt(now)) {
+                log.debug("Dropping stalled SSE subscriber");
+                subscriber.drop();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    private void send(Long electionId, String name, ElectionEventDto data) {
+        sendTo(subscribers.get(electionId), name, data);
+        sendTo(subscribers.get(ALL_ELECTIONS), name, data);
+    }
+
+    private void sendTo(Set<Subscriber> group, String name, ElectionEventDto data) {
+        if (group == null) {
+            return;
+        }
+        // One builder per subscriber, building an event appends to it
+        group.forEach(subscriber -> subscriber.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON)));
+    }
+
+    private static List<Long> drain(Set<Long> pending) {
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Subscriber> group;
+
+        // Writes not yet started, guarded by this. They reach the client one at a time and in order
+        private final Queue<Write> pending = new ArrayDeque<>();
+        // A write of this subscriber is on the pool, guarded by this
+        private boolean scheduled;
+        // System.nanoTime() when the write in progress started, 0 while idle
+        private volatile long writingSince;
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter, Set<Subscriber> group) {
+            this.emitter = emitter;
+            this.group = group;
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            enqueue(() -> emitter.send(event));
+        }
+
+        void complete() {
+            enqueue(emitter::complete);
+        }
+
+        boolean stalledAt(long now) {
+            long since = writingSince;
+            return since != 0 && now - since > sendTimeoutNanos;
+        }
+
+        private synchronized void enqueue(Write write) {
+            if (dropped) {
+                return;
+            }
+            if (pending.size() >= sendQueue) {
+                log.debug("Dropping SSE subscriber {} events behind", pending.size());
+                drop();
+                return;
+            }
+            pending.add(write);
+            if (!scheduled) {
+                schedule();
+            }
+        }
+
+        // Called holding the lock
+        private void schedule() {
+            try {
+                sendExecutor.execute(this::writeNext);
+                scheduled = true;
+            } catch (RejectedExecutionException e) {
+                drop(); // Shutting down
+            }
+        }
+
+        // One write per task, so subscribers with a backlog take turns on the pool
+        private void writeNext() {
+            Write write;
+            synchronized (this) {
+                write = dropped ? null : pending.poll();
+                if (write == null) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            writingSince = System.nanoTime();
+            try {
+                write.run();
+            } catch (IOException | RuntimeException e) {
+                // Client went away, the container completes the emitter
+                log.debug("Dropping SSE subscriber: {}", e.getMessage());
+                drop();
+            } finally {
+                writingSince = 0;
+            }
+            synchronized (this) {
+                scheduled = false;
+                if (!dropped && !pending.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        // complete() waits for the blocked write to give up, so it must not run on the caller or the pool
+        synchronized void drop() {
+            if (dropped) {
+                return;
+            }
+            dropped = true;
+            pending.clear();
+            group.remove(this);
+            Thread.ofVirtual().name("sse-drop").start(() -> {
+                try {
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    log.debug("Completing dropped SSE subscriber failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+}
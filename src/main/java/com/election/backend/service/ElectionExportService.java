@@ -0,0 +1,171 @@
+package com.election.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Exports of completed elections for auditors: the frozen result and the
+ * anonymous ballots, as CSV or NDJSON.
+ * <p>
+ * Rows come from a database cursor (fetch size 10,000, in a read-only
+ * transaction, which PostgreSQL needs to stream) and are written to the
+ * caller's writer as they arrive, so memory use does not depend on the number
+ * of ballots. The connection is held until the last row is written.
+ */
+@Slf4j
+@Service
+public class ElectionExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be csv or ndjson");
+            }
+        }
+    }
+
+    private final ElectionResultService resultService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate exportReader;
+
+    public ElectionExportService(ElectionResultService resultService, ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate) {
+        this.resultService = resultService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.exportReader = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportReader.setFetchSize(10_000);
+    }
+
+    /**
+     * Fails with 404 or 403 (still open) like the results endpoint. Call before
+     * the response is committed, the exports themselves can no longer change
+     * the status.
+     */
+    public void checkExportable(Long electionId) {
+        // Also finalizes elections closed before results were stored
+        resultService.getResults(electionId);
+    }
+
+    /**
+     * One row per candidate (and abstentions) in display order:
+     * position, candidate id, name frozen at close time, votes.
+     */
+    public long writeResults(Long electionId, Format format, Writer out) {
+        return stream(out, format, "position,candidate_id,candidate_name,votes",
+            "SELECT position, candidate_id, candidate_name, vote_count FROM election_result WHERE election_id = ? ORDER BY position",
+            electionId, rs -> {
+                int position = rs.getInt(1);
+                Long candidateId = rs.getObject(2, Long.class);
+                String name = rs.getString(3);
+                long votes = rs.getLong(4);
+                return format == Format.CSV
+                    ? position + "," + (candidateId == null ? "" : candidateId) + "," + csv(name) + "," + votes
+                    : objectMapper.writeValueAsString(new ResultRow(position, candidateId, name, votes));
+            });
+    }
+
+    /**
+     * One row per ballot, without any id: the first preference (empty for an
+     * abstention) and, on ranked ballots, all preferences in order (CSV:
+     * separated by semicolons). Rows are sorted by their content, the physical
+     * order of the vote table would roughly give away the order of voting.
+     */
+    public long writeBallots(Long electionId, Format format, Writer out) {
+        return stream(out, format, "candidate_id,ranking",
+            "SELECT candidate_id, ranking FROM vote WHERE election_id = ? ORDER BY candidate_id NULLS FIRST, ranking NULLS FIRST",
+            electionId, rs -> {
+                Long candidateId = rs.getObject(1, Long.class);
+                byte[] packed = rs.getBytes(2);
+                int[] ranking = packed == null ? null : RankingCodec.decode(packed);
+                if (format == Format.NDJSON) {
+                    return objectMapper.writeValueAsString(new BallotRow(candidateId, ranking));
+                }
+                return (candidateId == null ? "" : candidateId) + ","
+                    + (ranking == null ? "" : Arrays.stream(ranking).mapToObj(Integer::toString).collect(Collectors.joining(";")));
+            });
+    }
+
+    private long stream(Writer out, Format format, String csvHeader, String sql, Long electionId, RowWriter rowWriter) {
+        long started = System.nanoTime();
+        long[] rows = {0};
+        transactionTemplate.executeWithoutResult(tx -> {
+            tx.setRollbackOnly();
+            try {
+                if (format == Format.CSV) {
+                    out.write(csvHeader);
+                    out.write('\n');
+                }
+                exportReader.query(sql, rs -> {
+                    try {
+                        out.write(rowWriter.write(rs));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                }, electionId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} rows of election {} in {} ms", rows[0], electionId, (System.nanoTime() - started) / 1_000_000);
+        return rows[0];
+    }
+
+    // RFC 4180: quoted if it contains a separator, quote or line break
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        String write(ResultSet rs) throws SQLException;
+    }
+
+    private record ResultRow(int position, Long candidateId, String candidateName, long votes) {
+    }
+
+    // candidateId is the first preference on ranked ballots, null for an abstention
+    private record BallotRow(Long candidateId, int[] ranking) {
+    }
+}
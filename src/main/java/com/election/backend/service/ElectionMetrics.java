@@ -0,0 +1,64 @@
+package com.election.backend.service;
+
+import com.election.backend.event.BallotsImportedEvent;
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.VoteCastEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Committed ballots per election as the counter {@code election.votes}, tagged
+ * with the election id and {@code source=vote|import}.
+ * <p>
+ * Counted after commit, off the vote transaction; per vote this is one map
+ * lookup and an adder increment. Counters start at zero with the process, the
+ * database totals of open elections are in the tally.
+ */
+@Service
+public class ElectionMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<Long, Counter> votes = new ConcurrentHashMap<>();
+    private final Map<Long, Counter> imported = new ConcurrentHashMap<>();
+
+    public ElectionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @TransactionalEventListener
+    public void onVoteCast(VoteCastEvent event) {
+        votes.computeIfAbsent(event.electionId(), id -> counter(id, "vote")).increment();
+    }
+
+    @TransactionalEventListener
+    public void onBallotsImported(BallotsImportedEvent event) {
+        long ballots = event.counts().values().stream().mapToLong(Long::longValue).sum();
+        imported.computeIfAbsent(event.electionId(), id -> counter(id, "import")).increment(ballots);
+    }
+
+    // Deleted elections stop showing up in the scrape
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        Counter removed = votes.remove(event.electionId());
+        if (removed != null) {
+            registry.remove(removed);
+        }
+        removed = imported.remove(event.electionId());
+        if (removed != null) {
+            registry.remove(removed);
+        }
+    }
+
+    private Counter counter(Long electionId, String source) {
+        return Counter.builder("election.votes")
+            .description("Ballots committed since start")
+            .tag("election", electionId.toString())
+            .tag("source", source)
+            .register(registry);
+    }
+}
@@ -0,0 +1,300 @@
+package com.election.backend.service;
+
+import com.election.backend.dto.ElectionResultDto;
+import com.election.backend.dto.RankedResultDto;
+import com.election.backend.dto.RoundDto;
+import com.election.backend.dto.RoundTallyDto;
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.model.AppUser;
+import com.election.backend.model.Election;
+import com.election.backend.model.ElectionResult;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.model.VotingMethod;
+import com.election.backend.repository.ElectionRepository;
+import com.election.backend.repository.ElectionResultRepository;
+import com.election.backend.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Final results of completed elections.
+ * <p>
+ * Closing an election counts its votes once and stores the result lines with the
+ * candidate names of that moment, the total and a checksum. From then on results
+ * are served from memory, or from the stored lines after a restart, and never
+ * depend on the vote table or on users that were renamed or deleted since.
+ */
+@Slf4j
+@Service
+public class ElectionResultService {
+
+    private static final String ABSTAIN = "Abstain";
+
+    private final ElectionRepository electionRepo;
+    private final ElectionResultRepository resultRepo;
+    private final VoteRepository voteRepo;
+    private final TallyService tallyService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate ballotReader;
+
+    // Final results never change, so they stay cached for as long as the election exists
+    private final Map<Long, FinalResult> finalResults = new ConcurrentHashMap<>();
+    private final Map<Long, RankedResultDto> rankedResults = new ConcurrentHashMap<>();
+
+    public ElectionResultService(ElectionRepository electionRepo, ElectionResultRepository resultRepo, VoteRepository voteRepo,
+                                 TallyService tallyService, TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate) {
+        this.electionRepo = electionRepo;
+        this.resultRepo = resultRepo;
+        this.voteRepo = voteRepo;
+        this.tallyService = tallyService;
+        this.transactionTemplate = transactionTemplate;
+        // Ballots are streamed into the ranked tally, never held as a result list
+        this.ballotReader = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.ballotReader.setFetchSize(10_000);
+    }
+
+    /**
+     * @param results  result lines, by votes descending, abstentions last
+     * @param checksum hex SHA-256 of the lines, usable as an ETag
+     */
+    public record FinalResult(List<ElectionResultDto> results, String checksum) {
+    }
+
+    /**
+     * Counts and stores the result. Must run in the closing transaction with the
+     * election row locked (see {@link ElectionRepository#findByIdForUpdate}), so
+     * no ballot can commit between counting and closing.
+     */
+    public FinalResult finalizeElection(Election election) {
+        Long electionId = election.getId();
+
+        // Names are resolved here, once, and frozen in the stored lines
+        List<ElectionResultDto> counted = voteRepo.countVotesByElection(electionId);
+        List<ElectionResultDto> results = new ArrayList<>(counted.stream()
+            .filter(line -> line.getCandidateId() != null)
+            .sorted(Comparator.comparing(ElectionResultDto::getCount).reversed()
+                .thenComparing(ElectionResultDto::getCandidateName))
+            .toList());
+        counted.stream()
+            .filter(line -> line.getCandidateId() == null)
+            .findFirst()
+            .ifPresent(abstentions -> results.add(new ElectionResultDto(null, ABSTAIN, abstentions.getCount())));
+        if (election.getVotingMethod() != VotingMethod.PLURALITY) {
+            // Later preferences count too, so every candidate's name is frozen, not only first preferences
+            Set<Long> listed = new HashSet<>();
+            results.forEach(line -> listed.add(line.getCandidateId()));
+            int abstainLine = results.size() - (listed.contains(null) ? 1 : 0);
+            results.addAll(abstainLine, election.getCandidates().stream()
+                .filter(candidate -> !listed.contains(candidate.getId()))
+                .sorted(Comparator.comparing(AppUser::getId))
+                .map(candidate -> new ElectionResultDto(candidate.getId(), displayName(candidate), 0L))
+                .toList());
+        }
+
+        List<ElectionResult> rows = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            ElectionResultDto line = results.get(i);
+            ElectionResult row = new ElectionResult();
+            row.setElection(election);
+            row.setPosition(i);
+            row.setCandidateId(line.getCandidateId());
+            row.setCandidateName(line.getCandidateName());
+            row.setVoteCount(line.getCount());
+            rows.add(row);
+        }
+        resultRepo.saveAll(rows);
+
+        String checksum = checksum(electionId, results);
+        election.setFinalizedAt(Instant.now());
+        election.setTotalVotes(total(results));
+        election.setResultChecksum(checksum);
+
+        Map<Long, Long> stored = new HashMap<>();
+        results.stream()
+            .filter(line -> line.getCount() > 0)
+            .forEach(line -> stored.put(line.getCandidateId(), line.getCount()));
+        if (!stored.equals(tallyService.counts(electionId))) {
+            log.warn("Final result of election {} differs from the live tally {}, the vote table wins", electionId, tallyService.counts(electionId));
+        }
+        log.info("Finalized election {} with {} votes", electionId, election.getTotalVotes());
+        return new FinalResult(List.copyOf(results), checksum);
+    }
+
+    /**
+     * The final result of a completed election. Elections closed before results
+     * were stored are finalized on their first request.
+     */
+    public FinalResult getResults(Long electionId) {
+        FinalResult cached = finalResults.get(electionId);
+        if (cached != null) {
+            return cached;
+        }
+
+        FinalResult result = transactionTemplate.execute(tx -> {
+            Election election = electionRepo.findById(electionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if (election.getStatus() != ElectionStatus.COMPLETED) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Election is still open. Results are hidden.");
+            }
+            return election.getFinalizedAt() == null ? null : load(election);
+        });
+        if (result == null) {
+            // Fresh transaction, so the locked read sees a concurrent finalization
+            result = transactionTemplate.execute(tx -> {
+                Election election = electionRepo.findByIdForUpdate(electionId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+                return election.getFinalizedAt() == null ? finalizeElection(election) : load(election);
+            });
+        }
+
+        finalResults.put(electionId, result);
+        return result;
+    }
+
+    /**
+     * Round-by-round count of a completed IRV or STV election, computed from the
+     * stored ballots on first request and kept, as neither ever changes again.
+     */
+    public RankedResultDto getRankedResult(Long electionId) {
+        RankedResultDto cached = rankedResults.get(electionId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Also checks that the election is completed and freezes the candidate names
+        FinalResult finalResult = getResults(electionId);
+        Map<Long, String> names = new HashMap<>();
+        finalResult.results().forEach(line -> names.put(line.getCandidateId(), line.getCandidateName()));
+
+        RankedResultDto result = transactionTemplate.execute(tx -> {
+            Election election = electionRepo.findById(electionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if (election.getVotingMethod() == VotingMethod.PLURALITY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a ranked election");
+            }
+
+            RankedChoiceTally tally = new RankedChoiceTally(electionRepo.findCandidateIds(electionId).stream()
+                .mapToInt(Math::toIntExact)
+                .toArray());
+            ballotReader.query("SELECT ranking FROM vote WHERE election_id = ?",
+                rs -> { tally.addBallot(RankingCodec.decode(rs.getBytes(1))); }, electionId);
+
+            long started = System.nanoTime();
+            boolean instantRunoff = election.getVotingMethod() == VotingMethod.IRV;
+            RankedChoiceTally.Result counted = tally.count(election.getSeats(), instantRunoff);
+            log.info("Counted {} ranked ballots of election {} in {} rounds, {} ms", counted.ballots(), electionId,
+                counted.rounds().size(), (System.nanoTime() - started) / 1_000_000);
+
+            return RankedResultDto.builder()
+                .electionId(electionId)
+                .votingMethod(election.getVotingMethod().name())
+                .seats(election.getSeats())
+                .ballots(counted.ballots())
+                .abstentions(counted.abstentions())
+                .quota(instantRunoff ? null : votes(counted.quota()))
+                .elected(toList(counted.elected()))
+                .rounds(counted.rounds().stream()
+                    .map(round -> toDto(tally, round, names))
+                    .toList())
+                .build();
+        });
+
+        rankedResults.put(electionId, result);
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        finalResults.remove(event.electionId());
+        rankedResults.remove(event.electionId());
+    }
+
+    private static RoundDto toDto(RankedChoiceTally tally, RankedChoiceTally.Round round, Map<Long, String> names) {
+        List<RoundTallyDto> tallies = new ArrayList<>();
+        for (int c = 0; c < tally.candidateCount(); c++) {
+            long candidateId = tally.candidateId(c);
+            if (round.votes()[c] > 0 || contains(round.excluded(), candidateId) || contains(round.elected(), candidateId)) {
+                tallies.add(new RoundTallyDto(candidateId, names.getOrDefault(candidateId, "#" + candidateId), votes(round.votes()[c])));
+            }
+        }
+        tallies.sort(Comparator.comparingDouble(RoundTallyDto::getVotes).reversed());
+        return RoundDto.builder()
+            .round(round.number())
+            .tallies(tallies)
+            .exhausted(votes(round.exhausted()))
+            .threshold(votes(round.threshold()))
+            .elected(toList(round.elected()))
+            .excluded(toList(round.excluded()))
+            .build();
+    }
+
+    private static double votes(long fixedPoint) {
+        return (double) fixedPoint / RankedChoiceTally.SCALE;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        return Arrays.stream(ids).anyMatch(candidate -> candidate == id);
+    }
+
+    private static String displayName(AppUser candidate) {
+        String firstName = candidate.getFirstName() == null ? "" : candidate.getFirstName();
+        String lastName = candidate.getLastName() == null ? "" : candidate.getLastName();
+        return firstName + " " + lastName;
+    }
+
+    private FinalResult load(Election election) {
+        List<ElectionResultDto> results = resultRepo.findByElectionIdOrderByPosition(election.getId()).stream()
+            .map(row -> new ElectionResultDto(row.getCandidateId(), row.getCandidateName(), row.getVoteCount()))
+            .toList();
+
+        String checksum = checksum(election.getId(), results);
+        if (!checksum.equals(election.getResultChecksum()) || total(results) != election.getTotalVotes()) {
+            throw new IllegalStateException("Stored result of election " + election.getId() + " does not match its checksum");
+        }
+        return new FinalResult(results, checksum);
+    }
+
+    private static long total(List<ElectionResultDto> results) {
+        return results.stream().mapToLong(ElectionResultDto::getCount).sum();
+    }
+
+    // One line per result entry: position, candidate id, frozen name, count
+    private static String checksum(Long electionId, List<ElectionResultDto> results) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(("election:" + electionId + "\n").getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < results.size(); i++) {
+                ElectionResultDto line = results.get(i);
+                digest.update((i + "|" + line.getCandidateId() + "|" + line.getCandidateName() + "|" + line.getCount() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.election.backend.service;
+
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.event.RemoteBallotsEvent;
+import com.election.backend.event.UserChangedEvent;
+import com.election.backend.event.VoteCastEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized election DTOs, keyed by a per-election version and tagged with a
+ * hash of their JSON.
+ * <p>
+ * Versions live in memory and are bumped after every committed change, so an
+ * unchanged election is found without asking the database. Embedded user data
+ * is covered by a separate user version in every key. The ETag only depends on
+ * the content, so it survives restarts and matches across replicas serving the
+ * same data.
+ */
+@Service
+public class ElectionSnapshotCache {
+
+    public record Snapshot(String etag, byte[] json) {
+    }
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong listVersion = new AtomicLong();
+    private final AtomicLong userVersion = new AtomicLong();
+
+    private final AsyncCache<String, Snapshot> snapshots;
+    private final ObjectMapper objectMapper;
+
+    public ElectionSnapshotCache(ObjectMapper objectMapper,
+                                 @Value("${election.snapshot-cache.maximum-bytes}") long maximumBytes) {
+        this.objectMapper = objectMapper;
+        this.snapshots = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .<String, Snapshot>weigher((key, snapshot) -> snapshot.json().length)
+            .buildAsync();
+    }
+
+    /**
+     * The serialized election, loaded and serialized if it changed since it was
+     * last cached. The key is taken before loading, so a concurrent change can
+     * only ever store newer data under an older (already outdated) key. Loaded
+     * on the calling thread outside the cache's locks, see {@link CallerLoading}.
+     */
+    public Snapshot get(Long electionId, Supplier<Object> loader) {
+        AtomicLong version = versions.get(electionId);
+        String key = electionId + ":" + userVersion.get() + ":" + (version == null ? 0 : version.get());
+        return CallerLoading.get(snapshots.asMap(), key, () -> snapshot(loader.get()));
+    }
+
+    /**
+     * The serialized election list, which changes whenever any election changes.
+     */
+    public Snapshot getList(Supplier<Object> loader) {
+        String key = "list:" + userVersion.get() + ":" + listVersion.get();
+        return CallerLoading.get(snapshots.asMap(), key, () -> snapshot(loader.get()));
+    }
+
+    @TransactionalEventListener
+    public void onVoteCast(VoteCastEvent event) {
+        bump(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onRemoteBallots(RemoteBallotsEvent event) {
+        bump(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onElectionUpdated(ElectionUpdatedEvent event) {
+        bump(event.electionId());
+    }
+
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        versions.remove(event.electionId());
+        String prefix = event.electionId() + ":";
+        snapshots.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        listVersion.incrementAndGet();
+    }
+
+    // User writes are not transactional, so also accept events outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userVersion.incrementAndGet();
+    }
+
+    // Strong ETag: the first 128 bits of the SHA-256 of the JSON
+    private Snapshot snapshot(Object dto) {
+        byte[] json = objectMapper.writeValueAsBytes(dto);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Snapshot("\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"", json);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void bump(Long electionId) {
+        versions.computeIfAbsent(electionId, id -> new AtomicLong()).incrementAndGet();
+        listVersion.incrementAndGet();
+    }
+}
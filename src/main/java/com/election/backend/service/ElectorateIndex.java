@@ -0,0 +1,209 @@
+package com.election.backend.service;
+
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.event.ParticipationRecordedEvent;
+import com.election.backend.event.RemoteBallotsEvent;
+import com.election.backend.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Electorates and participation of every election as compressed ID bitmaps.
+ * <p>
+ * An election is read from its join tables (or its voter roll) on first use and then kept current
+ * from committed participation events, so eligibility checks, "has voted" flags
+ * and counts neither query the database nor materialize user entities. A 50k
+ * electorate of mostly consecutive ids takes a few kilobytes.
+ * <p>
+ * Entries are bounded by their size in bytes (least recently used go first) and
+ * dropped when their election changes, e.g. is closed; an evicted election is
+ * simply read again. User ids are stored as 32-bit ints, which the identity
+ * column will not exceed.
+ */
+@Service
+public class ElectorateIndex {
+
+    // Listed voters or, while the election is open, the members of the roll; one of the two
+    // is empty (closing copies the roll into the listed voters). Parameters: election id twice.
+    static final String ELIGIBLE_VOTERS = "SELECT eligible_voters_id FROM election_eligible_voters WHERE election_id = ? " +
+        "UNION ALL SELECT m.user_id FROM voter_roll_member m JOIN election e ON e.voter_roll_id = m.roll_id " +
+        "WHERE e.id = ? AND e.status = 'OPEN'";
+
+    private final JdbcTemplate jdbc;
+
+    private final ConcurrentMap<Long, CompletableFuture<Electorate>> electorates;
+
+    public ElectorateIndex(JdbcTemplate jdbc, @Value("${election.electorate-cache.maximum-bytes}") long maximumBytes) {
+        this.jdbc = jdbc;
+        this.electorates = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .<Long, Electorate>weigher((electionId, electorate) -> electorate.sizeInBytes())
+            .buildAsync()
+            .asMap();
+    }
+
+    public boolean isEligible(Long electionId, Long userId) {
+        return electorate(electionId).eligible.contains(Math.toIntExact(userId));
+    }
+
+    public boolean hasVoted(Long electionId, Long userId) {
+        return electorate(electionId).hasVoted(Math.toIntExact(userId));
+    }
+
+    public long electorateSize(Long electionId) {
+        return electorate(electionId).eligible.getLongCardinality();
+    }
+
+    public long turnout(Long electionId) {
+        return electorate(electionId).turnout();
+    }
+
+    /**
+     * Up to {@code limit} eligible voter ids greater than {@code after}, ascending.
+     */
+    public List<Long> eligibleVoters(Long electionId, long after, int limit) {
+        PeekableIntIterator it = electorate(electionId).eligible.getIntIterator();
+        if (after >= 0) {
+            it.advanceIfNeeded(Math.toIntExact(after + 1));
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        while (it.hasNext() && ids.size() < limit) {
+            ids.add(Integer.toUnsignedLong(it.next()));
+        }
+        return ids;
+    }
+
+    // Runs before the snapshot cache and SSE listeners, so anything they rebuild already sees the voter
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onParticipationRecorded(ParticipationRecordedEvent event) {
+        // A load in progress may have read participation before this vote committed,
+        // so the mark is applied once it completes (adding a voter twice is harmless)
+        CompletableFuture<Electorate> electorate = electorates.get(event.electionId());
+        if (electorate != null) {
+            electorate.thenAccept(loaded -> loaded.markVoted(Math.toIntExact(event.userId())));
+        }
+    }
+
+    // Voters of another node: participation only grows, so whatever is in the database is added
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onRemoteBallots(RemoteBallotsEvent event) {
+        CompletableFuture<Electorate> electorate = electorates.get(event.electionId());
+        if (electorate != null) {
+            RoaringBitmap voted = loadParticipation(event.electionId());
+            electorate.thenAccept(loaded -> loaded.markVoted(voted));
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onElectionUpdated(ElectionUpdatedEvent event) {
+        electorates.remove(event.electionId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        electorates.remove(event.electionId());
+    }
+
+    // Deleting a user takes them off every voter roll: electorates holding them are
+    // reloaded, as are those still loading. User writes are not transactional.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        int userId = Math.toIntExact(event.userId());
+        electorates.values().removeIf(electorate -> !electorate.isDone() || electorate.isCompletedExceptionally()
+            || electorate.join().eligible.contains(userId));
+    }
+
+    // Loaded outside the map's locks, see CallerLoading
+    private Electorate electorate(Long electionId) {
+        return CallerLoading.get(electorates, electionId, () -> load(electionId));
+    }
+
+    private Electorate load(Long electionId) {
+        RoaringBitmap eligible = new RoaringBitmap();
+        jdbc.query(ELIGIBLE_VOTERS, rs -> { eligible.add(Math.toIntExact(rs.getLong(1))); }, electionId, electionId);
+        eligible.runOptimize();
+
+        return new Electorate(eligible, loadParticipation(electionId));
+    }
+
+    private RoaringBitmap loadParticipation(Long electionId) {
+        RoaringBitmap voted = new RoaringBitmap();
+        jdbc.query("SELECT user_id FROM election_participation WHERE election_id = ?",
+            rs -> { voted.add(Math.toIntExact(rs.getLong(1))); }, electionId);
+        return voted;
+    }
+
+    // The electorate is only read, a changed voter roll replaces the whole entry; participation grows.
+    // A lock rather than synchronized: virtual threads waiting for it park instead of pinning.
+    private static final class Electorate {
+        private final RoaringBitmap eligible;
+        private final RoaringBitmap voted;
+        private final Lock lock = new ReentrantLock();
+
+        Electorate(RoaringBitmap eligible, RoaringBitmap voted) {
+            this.eligible = eligible;
+            this.voted = voted;
+        }
+
+        // As loaded; participation added later is not weighed again
+        int sizeInBytes() {
+            return eligible.getSizeInBytes() + voted.getSizeInBytes();
+        }
+
+        boolean hasVoted(int userId) {
+            lock.lock();
+            try {
+                return voted.contains(userId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long turnout() {
+            lock.lock();
+            try {
+                return voted.getLongCardinality();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void markVoted(int userId) {
+            lock.lock();
+            try {
+                voted.add(userId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void markVoted(RoaringBitmap userIds) {
+            lock.lock();
+            try {
+                voted.or(userIds);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.election.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts ranked ballots by instant-runoff (IRV) or single transferable vote (STV).
+ * <p>
+ * Ballots are held as packed primitive arrays: all preferences of all ballots in
+ * one {@code int[]} of candidate indexes, with per-ballot offsets, weights and
+ * read positions next to it. A round is one linear pass over those arrays, so a
+ * million ballots with a handful of preferences each take a few dozen MB and
+ * well under a second per round. The class is not thread-safe; build and count
+ * it on one thread.
+ * <p>
+ * Votes are fixed-point with {@link #SCALE} units per ballot. STV uses the Droop
+ * quota and transfers surpluses at a truncated transfer value (all ballots of an
+ * elected candidate move on at surplus / total). IRV elects as soon as a
+ * candidate holds a majority of the ballots still in the count. The lowest
+ * candidate is excluded when nobody reaches the quota; ties go against the
+ * candidate with fewer votes in the previous round, then the higher id.
+ */
+public final class RankedChoiceTally {
+
+    public static final long SCALE = 100_000;
+
+    private static final byte CONTINUING = 0;
+    private static final byte ELECTED = 1;
+    private static final byte EXCLUDED = 2;
+
+    private final int[] candidateIds; // Sorted, the index into this array is the candidate index
+
+    private int[] preferences = new int[1024];
+    private int preferenceCount;
+    private int[] offsets = new int[257]; // Ballot b spans preferences[offsets[b]..offsets[b + 1])
+    private int ballotCount;
+    private long abstentions;
+
+    /**
+     * @param candidateIds the candidates standing, in any order
+     */
+    public RankedChoiceTally(int[] candidateIds) {
+        this.candidateIds = candidateIds.clone();
+        Arrays.sort(this.candidateIds);
+    }
+
+    /**
+     * Adds one ballot. Unknown and repeated candidates are skipped, a ballot
+     * without any valid preference counts as an abstention.
+     */
+    public void addBallot(int[] ranking) {
+        int start = preferenceCount;
+        for (int candidateId : ranking) {
+            int index = Arrays.binarySearch(candidateIds, candidateId);
+            if (index >= 0 && !contains(preferences, start, preferenceCount, index)) {
+                if (preferenceCount == preferences.length) {
+                    preferences = Arrays.copyOf(preferences, preferences.length * 2);
+                }
+                preferences[preferenceCount++] = index;
+            }
+        }
+        if (preferenceCount == start) {
+            abstentions++;
+            return;
+        }
+        if (ballotCount + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        ballotCount++;
+        offsets[ballotCount] = preferenceCount;
+    }
+
+    public long candidateId(int index) {
+        return candidateIds[index];
+    }
+
+    public int candidateCount() {
+        return candidateIds.length;
+    }
+
+    public Result count(int seats, boolean instantRunoff) {
+        int n = candidateIds.length;
+        byte[] state = new byte[n];
+        long[] keptVotes = new long[n];   // Value an elected candidate keeps after its surplus moved on
+        long[] previous = new long[n];
+        int[] position = new int[ballotCount]; // Next preference to look at, relative to the ballot start
+        int[] holder = new int[ballotCount];   // Candidate currently holding the ballot, -1 if exhausted
+        long[] weight = new long[ballotCount];
+        Arrays.fill(weight, SCALE);
+
+        long quota = (ballotCount / (seats + 1) + 1) * SCALE;
+        List<Round> rounds = new ArrayList<>();
+        List<Integer> electedOrder = new ArrayList<>();
+        int continuing = n;
+
+        while (electedOrder.size() < seats && continuing > 0) {
+            // 1. Every ballot goes to its highest continuing preference
+            long[] votes = new long[n];
+            long exhausted = 0;
+            long active = 0;
+            for (int b = 0; b < ballotCount; b++) {
+                int start = offsets[b];
+                int length = offsets[b + 1] - start;
+                int p = position[b];
+                while (p < length && state[preferences[start + p]] != CONTINUING) {
+                    p++;
+                }
+                position[b] = p;
+                if (p < length) {
+                    int candidate = preferences[start + p];
+                    holder[b] = candidate;
+                    votes[candidate] += weight[b];
+                    active += weight[b];
+                } else {
+                    holder[b] = -1;
+                    exhausted += weight[b];
+                }
+            }
+            for (int c = 0; c < n; c++) {
+                if (state[c] == ELECTED) {
+                    votes[c] = keptVotes[c];
+                }
+            }
+
+            List<Integer> electedNow = new ArrayList<>();
+            List<Integer> excludedNow = new ArrayList<>();
+            long threshold = instantRunoff ? active / 2 + 1 : quota;
+
+            if (continuing + electedOrder.size() <= seats) {
+                // 2a. As many seats left as candidates: all of them are elected
+                for (int c = 0; c < n; c++) {
+                    if (state[c] == CONTINUING) {
+                        electedNow.add(c);
+                    }
+                }
+            } else {
+                // 2b. Everybody at or over the quota is elected, largest first
+                for (int c = 0; c < n; c++) {
+                    if (state[c] == CONTINUING && votes[c] >= threshold) {
+                        electedNow.add(c);
+                    }
+                }
+                electedNow.sort((a, b) -> Long.compare(votes[b], votes[a]));
+                if (electedNow.size() > seats - electedOrder.size()) {
+                    electedNow = new ArrayList<>(electedNow.subList(0, seats - electedOrder.size()));
+                }
+            }
+
+            if (!electedNow.isEmpty()) {
+                for (int c : electedNow) {
+                    state[c] = ELECTED;
+                    continuing--;
+                    electedOrder.add(c);
+                    keptVotes[c] = votes[c];
+                    if (!instantRunoff && votes[c] > 0) {
+                        // 3a. The candidate keeps the quota, its ballots move on at surplus / total of their value
+                        long surplus = Math.max(0, votes[c] - threshold);
+                        keptVotes[c] = votes[c] - surplus;
+                        for (int b = 0; b < ballotCount; b++) {
+                            if (holder[b] == c) {
+                                weight[b] = weight[b] * surplus / votes[c];
+                            }
+                        }
+                    }
+                }
+            } else {
+                // 3b. Nobody elected: the lowest candidate is excluded and its ballots move on at full value
+                int lowest = -1;
+                for (int c = 0; c < n; c++) {
+                    if (state[c] != CONTINUING) {
+                        continue;
+                    }
+                    if (lowest < 0 || votes[c] < votes[lowest]
+                        || votes[c] == votes[lowest] && (previous[c] < previous[lowest]
+                            || previous[c] == previous[lowest] && c > lowest)) {
+                        lowest = c;
+                    }
+                }
+                state[lowest] = EXCLUDED;
+                continuing--;
+                excludedNow.add(lowest);
+            }
+
+            rounds.add(new Round(rounds.size() + 1, votes, exhausted, threshold,
+                toIds(electedNow), toIds(excludedNow)));
+            previous = votes;
+        }
+
+        return new Result(ballotCount, abstentions, instantRunoff ? 0 : quota, toIds(electedOrder), rounds);
+    }
+
+    private long[] toIds(List<Integer> indexes) {
+        return indexes.stream().mapToLong(c -> candidateIds[c]).toArray();
+    }
+
+    // Ballots are short, a linear scan beats any set
+    private static boolean contains(int[] values, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param votes     fixed-point votes per candidate index; excluded candidates hold 0,
+     *                  elected ones what they kept
+     * @param exhausted fixed-point value of ballots without a continuing preference
+     * @param threshold fixed-point votes needed to be elected in this round
+     */
+    public record Round(int number, long[] votes, long exhausted, long threshold, long[] elected, long[] excluded) {
+    }
+
+    /**
+     * @param quota   fixed-point Droop quota, 0 for IRV where the threshold changes every round
+     * @param elected candidate ids in the order they were elected
+     */
+    public record Result(long ballots, long abstentions, long quota, long[] elected, List<Round> rounds) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.election.backend.service;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Packs a ranked ballot into the {@code vote.ranking} column: one big-endian
+ * 4 byte candidate id per preference, first preference first. A five candidate
+ * ballot takes 20 bytes instead of five rows.
+ */
+public final class RankingCodec {
+
+    private RankingCodec() {
+    }
+
+    /**
+     * @return the packed ranking, or null for an empty ranking (abstention)
+     */
+    public static byte[] encode(List<Long> ranking) {
+        if (ranking == null || ranking.isEmpty()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ranking.size() * Integer.BYTES);
+        for (Long candidateId : ranking) {
+            buffer.putInt(Math.toIntExact(candidateId));
+        }
+        return buffer.array();
+    }
+
+    public static int[] decode(byte[] packed) {
+        if (packed == null) {
+            return new int[0];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        int[] ranking = new int[packed.length / Integer.BYTES];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = buffer.getInt();
+        }
+        return ranking;
+    }
+}
@@ -0,0 +1,199 @@
+package com.election.backend.service;
+
+import com.election.backend.event.BallotsImportedEvent;
+import com.election.backend.event.ElectionDeletedEvent;
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.event.RemoteBallotsEvent;
+import com.election.backend.event.VoteCastEvent;
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.repository.ElectionRepository;
+import com.election.backend.repository.ElectionVoteCount;
+import com.election.backend.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live vote counts of the open elections, kept in memory so they can be read
+ * without a GROUP BY over the vote table. Closing an election cross-checks its
+ * final result against them; from then on results come from the stored lines
+ * (see {@link ElectionResultService}) and the tally is dropped.
+ * <p>
+ * The counters are rebuilt from the database on startup, incremented after
+ * every committed vote and periodically checked against the database.
+ */
+@Slf4j
+@Service
+public class TallyService implements SmartInitializingSingleton {
+
+    private final VoteRepository voteRepo;
+    private final ElectionRepository electionRepo;
+
+    private final Map<Long, ElectionTally> tallies = new ConcurrentHashMap<>();
+
+    // Discrepancies seen on the previous check, only repaired if they persist
+    private volatile Map<Long, Map<Long, Long>> pendingRepairs = Map.of();
+
+    public TallyService(VoteRepository voteRepo, ElectionRepository electionRepo) {
+        this.voteRepo = voteRepo;
+        this.electionRepo = electionRepo;
+    }
+
+    // Runs before the web server accepts requests, so no vote can slip between query and install
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Long, Map<Long, Long>> counts = loadCounts();
+        counts.forEach((electionId, perCandidate) -> {
+            ElectionTally tally = new ElectionTally();
+            perCandidate.forEach(tally::add);
+            tallies.put(electionId, tally);
+        });
+        log.info("Rebuilt tallies for {} elections", counts.size());
+    }
+
+    @TransactionalEventListener
+    public void onVoteCast(VoteCastEvent event) {
+        tallyOf(event.electionId()).add(event.candidateId(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onBallotsImported(BallotsImportedEvent event) {
+        ElectionTally tally = tallyOf(event.electionId());
+        event.counts().forEach(tally::add);
+    }
+
+    @TransactionalEventListener
+    public void onElectionDeleted(ElectionDeletedEvent event) {
+        tallies.remove(event.electionId());
+    }
+
+    // Closing is an update too, on this node or replayed from another
+    @TransactionalEventListener
+    public void onElectionUpdated(ElectionUpdatedEvent event) {
+        if (!isOpen(event.electionId())) {
+            tallies.remove(event.electionId());
+        }
+    }
+
+    // Ballots taken by another node, added as that node counted them. Comparing with
+    // the vote table instead would also see local votes whose increment is still to come.
+    @TransactionalEventListener
+    public void onRemoteBallots(RemoteBallotsEvent event) {
+        ElectionTally tally = tallyOf(event.electionId());
+        event.counts().forEach(tally::add);
+    }
+
+    /**
+     * Live counts of one election, abstentions under the null key.
+     */
+    public Map<Long, Long> counts(Long electionId) {
+        ElectionTally tally = tallies.get(electionId);
+        return tally == null ? Collections.emptyMap() : tally.snapshot();
+    }
+
+    /**
+     * Compares the in-memory counts with the vote table. A vote can be committed
+     * but not yet applied while we query, so a difference is only repaired when
+     * the exact same difference shows up on two consecutive checks.
+     */
+    @Scheduled(fixedDelayString = "${election.tally.verify-interval}", initialDelayString = "${election.tally.verify-interval}")
+    public void verify() {
+        Map<Long, Map<Long, Long>> counts = loadCounts();
+
+        Map<Long, Map<Long, Long>> differences = new HashMap<>();
+        for (Long electionId : union(counts.keySet(), tallies.keySet())) {
+            if (!counts.containsKey(electionId) && !isOpen(electionId)) {
+                // Counted after it closed, e.g. remote ballots replayed after the close
+                tallies.remove(electionId);
+                continue;
+            }
+            // Both sides may hold the null abstention key, Map.of() would throw on it
+            Map<Long, Long> expected = counts.getOrDefault(electionId, Collections.emptyMap());
+            ElectionTally tally = tallies.get(electionId);
+            Map<Long, Long> actual = tally == null ? Collections.emptyMap() : tally.snapshot();
+
+            Map<Long, Long> delta = new HashMap<>();
+            for (Long candidateId : union(expected.keySet(), actual.keySet())) {
+                long diff = expected.getOrDefault(candidateId, 0L) - actual.getOrDefault(candidateId, 0L);
+                if (diff != 0) {
+                    delta.put(candidateId, diff);
+                }
+            }
+            if (!delta.isEmpty()) {
+                differences.put(electionId, delta);
+            }
+        }
+
+        differences.forEach((electionId, delta) -> {
+            if (Objects.equals(pendingRepairs.get(electionId), delta)) {
+                log.warn("Tally of election {} drifted from the database by {}, repairing", electionId, delta);
+                ElectionTally tally = tallyOf(electionId);
+                delta.forEach(tally::add);
+            }
+        });
+        pendingRepairs = differences;
+    }
+
+    private ElectionTally tallyOf(Long electionId) {
+        return tallies.computeIfAbsent(electionId, id -> new ElectionTally());
+    }
+
+    private boolean isOpen(Long electionId) {
+        return electionRepo.findStatusById(electionId).filter(ElectionStatus.OPEN::equals).isPresent();
+    }
+
+    private Map<Long, Map<Long, Long>> loadCounts() {
+        Map<Long, Map<Long, Long>> counts = new HashMap<>();
+        for (ElectionVoteCount row : voteRepo.countOpenVotes()) {
+            counts.computeIfAbsent(row.getElectionId(), id -> new HashMap<>())
+                .put(row.getCandidateId(), row.getCount());
+        }
+        return counts;
+    }
+
+    private static <T> Set<T> union(Set<T> a, Set<T> b) {
+        Set<T> all = new HashSet<>(a);
+        all.addAll(b);
+        return all;
+    }
+
+    /**
+     * Counters for one election. The null key holds the abstentions.
+     */
+    private static class ElectionTally {
+        private final Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+        private final LongAdder abstentions = new LongAdder();
+
+        void add(Long candidateId, long amount) {
+            if (candidateId == null) {
+                abstentions.add(amount);
+            } else {
+                counts.computeIfAbsent(candidateId, id -> new LongAdder()).add(amount);
+            }
+        }
+
+        Map<Long, Long> snapshot() {
+            Map<Long, Long> snapshot = new HashMap<>();
+            counts.forEach((id, adder) -> {
+                if (adder.sum() != 0) {
+                    snapshot.put(id, adder.sum());
+                }
+            });
+            if (abstentions.sum() != 0) {
+                snapshot.put(null, abstentions.sum());
+            }
+            return snapshot;
+        }
+    }
+}
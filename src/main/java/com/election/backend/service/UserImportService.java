@@ -0,0 +1,316 @@
+package com.election.backend.service;
+
+import com.election.backend.dto.CreateUserRequestDto;
+import com.election.backend.dto.UserImportErrorDto;
+import com.election.backend.dto.UserImportJobDto;
+import com.election.backend.mapper.UserMapper;
+import com.election.backend.model.AppUser;
+import com.election.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background import of large user lists.
+ * <p>
+ * Each chunk is checked against existing usernames with one query, the BCrypt
+ * hashes are computed in parallel on a pool sized to the CPU cores, and the
+ * rows are written with JDBC batch inserts in one transaction per chunk.
+ * Jobs run one after another; their progress is kept in memory.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String INSERT_USER =
+        "INSERT INTO users (username, password, role, first_name, last_name) VALUES (?, ?, ?, ?, ?)";
+
+    // Finished jobs stay queryable for this long
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final UserRepository repo;
+    private final UserMapper userMapper;
+    private final PasswordEncoder encoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-import-"));
+    private final ThreadPoolExecutor hashPool;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportService(UserRepository repo, UserMapper userMapper, PasswordEncoder encoder,
+                             JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             @Value("${election.user-import.chunk-size}") int chunkSize,
+                             @Value("${election.user-import.hash-threads}") int hashThreads,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.repo = repo;
+        this.userMapper = userMapper;
+        this.encoder = encoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        // Bounded queue + CallerRunsPolicy: when the pool is saturated the job thread hashes too
+        this.hashPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 2),
+            new CustomizableThreadFactory("user-import-hash-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public UserImportJobDto submit(List<CreateUserRequestDto> users) {
+        Instant cutoff = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), users);
+        jobs.put(job.id, job);
+        jobRunner.execute(() -> run(job));
+        return job.toDto();
+    }
+
+    /**
+     * Parses CSV with a header row naming the columns: username, password,
+     * role, firstName, lastName (any order, case-insensitive, role and names optional).
+     * Fields may be quoted with double quotes.
+     */
+    public List<CreateUserRequestDto> parseCsv(String csv) {
+        List<String> lines = csv.lines().filter(line -> !line.isBlank()).toList();
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> header = parseCsvLine(lines.getFirst()).stream()
+            .map(column -> column.trim().toLowerCase(Locale.ROOT))
+            .toList();
+        int username = header.indexOf("username");
+        int password = header.indexOf("password");
+        if (username < 0 || password < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must contain username and password");
+        }
+        int role = header.indexOf("role");
+        int firstName = header.indexOf("firstname");
+        int lastName = header.indexOf("lastname");
+
+        List<CreateUserRequestDto> users = new ArrayList<>(lines.size() - 1);
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> fields = parseCsvLine(line);
+            users.add(CreateUserRequestDto.builder()
+                .username(field(fields, username))
+                .password(field(fields, password))
+                .role(field(fields, role))
+                .firstName(field(fields, firstName))
+                .lastName(field(fields, lastName))
+                .build());
+        }
+        return users;
+    }
+
+    public Optional<UserImportJobDto> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ImportJob::toDto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        long start = System.nanoTime();
+        try {
+            for (int offset = 0; offset < job.users.size(); offset += chunkSize) {
+                importChunk(job, offset, job.users.subList(offset, Math.min(offset + chunkSize, job.users.size())));
+            }
+            job.status = "COMPLETED";
+        } catch (RuntimeException e) {
+            log.error("User import {} failed", job.id, e);
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = Instant.now();
+            log.info("User import {} finished in {} ms: {} created, {} failed", job.id,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), job.created.get(), job.failed.get());
+        }
+    }
+
+    private void importChunk(ImportJob job, int offset, List<CreateUserRequestDto> chunk) {
+        // 1. Validate and drop duplicates inside the import itself
+        List<Integer> rows = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateUserRequestDto user = chunk.get(i);
+            int row = offset + i + 1;
+            if (isBlank(user.getUsername()) || isBlank(user.getPassword())) {
+                job.fail(row, user.getUsername(), "Username and password are required");
+            } else if (!job.seenUsernames.add(normalize(user.getUsername()))) {
+                job.fail(row, user.getUsername(), "Duplicate username in import");
+            } else {
+                rows.add(i);
+                usernames.add(normalize(user.getUsername()));
+            }
+        }
+
+        // 2. One query for the whole chunk instead of existsByUsernameIgnoreCase per user
+        Set<String> existing = usernames.isEmpty() ? Set.of() : repo.findExistingUsernames(usernames);
+        rows.removeIf(i -> {
+            CreateUserRequestDto user = chunk.get(i);
+            if (existing.contains(normalize(user.getUsername()))) {
+                job.fail(offset + i + 1, user.getUsername(), "Username already exists");
+                return true;
+            }
+            return false;
+        });
+
+        // 3. Hash in parallel, this is where nearly all the time goes
+        List<CompletableFuture<AppUser>> hashed = rows.stream()
+            .map(i -> CompletableFuture.supplyAsync(() -> toEntity(chunk.get(i)), hashPool))
+            .toList();
+        List<AppUser> entities = hashed.stream().map(CompletableFuture::join).toList();
+
+        // 4. Batch insert, falling back to row by row if a username was taken in the meantime
+        try {
+            transactionTemplate.executeWithoutResult(tx -> insert(entities));
+            job.created.addAndGet(entities.size());
+        } catch (DataIntegrityViolationException e) {
+            for (int j = 0; j < entities.size(); j++) {
+                AppUser entity = entities.get(j);
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> insert(List.of(entity)));
+                    job.created.incrementAndGet();
+                } catch (DataIntegrityViolationException rowError) {
+                    job.fail(offset + rows.get(j) + 1, entity.getUsername(), "Username already exists");
+                }
+            }
+        }
+        job.processed.addAndGet(chunk.size());
+    }
+
+    private AppUser toEntity(CreateUserRequestDto request) {
+        AppUser user = userMapper.createRequestToEntity(request);
+        user.setPassword(encoder.encode(request.getPassword()));
+        return user;
+    }
+
+    private void insert(List<AppUser> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, batchSize, (ps, user) -> {
+            ps.setString(1, user.getUsername());
+            ps.setString(2, user.getPassword());
+            ps.setString(3, user.getRole());
+            ps.setString(4, user.getFirstName());
+            ps.setString(5, user.getLastName());
+        });
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"'); // Escaped quote
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Empty or missing columns become null, so the mapper defaults apply
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static class ImportJob {
+        private final String id;
+        private final List<CreateUserRequestDto> users;
+        private final Set<String> seenUsernames = new HashSet<>(); // Only touched by the job thread
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<UserImportErrorDto> errors = new ArrayList<>();
+        private volatile String status = "RUNNING";
+        private volatile Instant finishedAt;
+
+        ImportJob(String id, List<CreateUserRequestDto> users) {
+            this.id = id;
+            this.users = users;
+        }
+
+        void fail(int row, String username, String message) {
+            synchronized (errors) {
+                errors.add(new UserImportErrorDto(row, username, message));
+            }
+            failed.incrementAndGet();
+        }
+
+        UserImportJobDto toDto() {
+            List<UserImportErrorDto> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return UserImportJobDto.builder()
+                .id(id)
+                .status(status)
+                .total(users.size())
+                .processed(processed.get())
+                .created(created.get())
+                .failed(failed.get())
+                .errors(errorsCopy)
+                .build();
+        }
+    }
+}
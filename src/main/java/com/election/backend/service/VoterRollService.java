@@ -0,0 +1,118 @@
+package com.election.backend.service;
+
+import com.election.backend.event.ElectionUpdatedEvent;
+import com.election.backend.model.VoterRoll;
+import com.election.backend.repository.ElectionRepository;
+import com.election.backend.repository.VoterRollRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Voter rolls and their members. Members are written with JDBC batches, one
+ * row per (roll, user), without loading users or the roll's member set.
+ * <p>
+ * Open elections reference a roll rather than copying it, so every change to
+ * the members is a change to the electorate of those elections: their cached
+ * electorates and snapshots are dropped once the change commits. Closing an
+ * election copies the members, so closed elections keep their electorate; an
+ * edit holds the roll's row lock, so the copy waits for it to commit.
+ */
+@Service
+public class VoterRollService {
+
+    // Unknown user ids and existing members are skipped
+    private static final String ADD_MEMBER = "INSERT INTO voter_roll_member (roll_id, user_id) " +
+        "SELECT ?, u.id FROM users u WHERE u.id = ? " +
+        "AND NOT EXISTS (SELECT 1 FROM voter_roll_member m WHERE m.roll_id = ? AND m.user_id = u.id)";
+    private static final String REMOVE_MEMBER = "DELETE FROM voter_roll_member WHERE roll_id = ? AND user_id = ?";
+
+    private final VoterRollRepository rollRepo;
+    private final ElectionRepository electionRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+
+    public VoterRollService(VoterRollRepository rollRepo, ElectionRepository electionRepo, JdbcTemplate jdbcTemplate,
+                            ApplicationEventPublisher events,
+                            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.rollRepo = rollRepo;
+        this.electionRepo = electionRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public Long create(String name, Collection<Long> userIds) {
+        if (name == null || name.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Name is required");
+        }
+        if (rollRepo.existsByNameIgnoreCase(name.strip())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Voter roll already exists");
+        }
+        VoterRoll roll = new VoterRoll();
+        roll.setName(name.strip());
+        roll.setCreatedAt(Instant.now());
+        Long id = rollRepo.saveAndFlush(roll).getId();
+        if (userIds != null) {
+            insertMembers(id, userIds);
+        }
+        return id;
+    }
+
+    @Transactional
+    public void addMembers(Long rollId, Collection<Long> userIds) {
+        requireRoll(rollId);
+        insertMembers(rollId, userIds);
+        rollChanged(rollId);
+    }
+
+    @Transactional
+    public void removeMembers(Long rollId, Collection<Long> userIds) {
+        requireRoll(rollId);
+        jdbcTemplate.batchUpdate(REMOVE_MEMBER, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, rollId);
+            ps.setLong(2, userId);
+        });
+        rollChanged(rollId);
+    }
+
+    @Transactional
+    public void delete(Long rollId) {
+        requireRoll(rollId);
+        if (!electionRepo.findIdsByVoterRollId(rollId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Voter roll is used by an election");
+        }
+        jdbcTemplate.update("DELETE FROM voter_roll_member WHERE roll_id = ?", rollId);
+        rollRepo.deleteById(rollId);
+    }
+
+    private void insertMembers(Long rollId, Collection<Long> userIds) {
+        jdbcTemplate.batchUpdate(ADD_MEMBER, userIds, batchSize, (ps, userId) -> {
+            ps.setLong(1, rollId);
+            ps.setLong(2, userId);
+            ps.setLong(3, rollId);
+        });
+    }
+
+    // Locked until commit, see VoterRollRepository#lockById
+    private void requireRoll(Long rollId) {
+        if (rollRepo.lockById(rollId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter roll not found");
+        }
+    }
+
+    private void rollChanged(Long rollId) {
+        for (Long electionId : electionRepo.findOpenIdsByVoterRollId(rollId)) {
+            events.publishEvent(new ElectionUpdatedEvent(electionId));
+        }
+    }
+}
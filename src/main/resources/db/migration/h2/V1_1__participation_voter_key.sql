@@ -0,0 +1,12 @@
+-- One participation per voter and election: castVote relies on this key to
+-- reject a second vote. Duplicates and rows without a user were never
+-- meaningful, one row per pair is kept.
+create table election_participation_distinct as
+select distinct election_id, user_id from election_participation where user_id is not null;
+delete from election_participation;
+insert into election_participation (election_id, user_id)
+select election_id, user_id from election_participation_distinct;
+drop table election_participation_distinct;
+
+alter table election_participation alter column user_id set not null;
+alter table election_participation add constraint uk_election_participation_voter primary key (election_id, user_id);
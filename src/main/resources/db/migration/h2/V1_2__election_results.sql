@@ -0,0 +1,8 @@
+-- Results frozen on close: one row per candidate, the totals and a checksum
+-- over the rows on the election
+alter table election add column finalized_at timestamp(6) with time zone;
+alter table election add column total_votes bigint;
+alter table election add column result_checksum varchar(255);
+
+create table election_result (position integer not null, candidate_id bigint, election_id bigint not null, id bigint generated by default as identity, vote_count bigint not null, candidate_name varchar(255) not null, primary key (id), constraint uk_election_result_position unique (election_id, position));
+alter table election_result add constraint FK9cnjxtcurg1fddk0cyj3caoxu foreign key (election_id) references election;
@@ -0,0 +1,6 @@
+-- Ranked ballots: elections created before ranked voting are plurality with one seat
+alter table election add column voting_method enum ('IRV','PLURALITY','STV') default 'PLURALITY' not null;
+alter table election add column seats integer default 1 not null;
+
+-- The full preference order of a ranked ballot, packed by RankingCodec
+alter table vote add column ranking varbinary(4000);
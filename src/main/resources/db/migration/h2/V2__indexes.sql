@@ -0,0 +1,14 @@
+-- Same indexes as on PostgreSQL. H2 has neither partitioning nor expression
+-- indexes, so votes stay in one table and username lookups are not indexed.
+create index if not exists idx_election_eligible_voters_voter on election_eligible_voters (eligible_voters_id);
+create index if not exists idx_election_participation_voter on election_participation (user_id);
+create index if not exists idx_election_candidates_election on election_candidates (election_id, candidates_id);
+
+-- Ballots without an election were never counted, the column is the partition key on PostgreSQL
+delete from vote where election_id is null;
+alter table vote alter column election_id set not null;
+
+create index if not exists idx_vote_election_candidate on vote (election_id, candidate_id);
+create index if not exists idx_vote_candidate on vote (candidate_id);
+
+create table if not exists election_archive (archived_at timestamp(6) with time zone not null, ballots bigint not null, election_id bigint not null unique, finalized_at timestamp(6) with time zone, id bigint generated by default as identity, participations bigint not null, file_name varchar(255) not null, sha256 varchar(255) not null, title varchar(255) not null, primary key (id));
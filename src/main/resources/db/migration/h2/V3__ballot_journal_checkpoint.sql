@@ -0,0 +1,11 @@
+-- Progress of each election's ballot journal (election.ballots.storage=journal):
+-- the last record applied to the vote table and its hash, and the participations
+-- that have no ballot in the journal (cast while it was off)
+create table ballot_journal_checkpoint (
+    election_id bigint not null,
+    applied_seq bigint not null,
+    applied_hash varchar(64),
+    base_participation bigint not null,
+    primary key (election_id),
+    constraint fk_ballot_journal_checkpoint_election foreign key (election_id) references election
+);
@@ -0,0 +1,23 @@
+-- Named electorates that elections reference instead of copying their voters
+-- into election_eligible_voters. The primary key makes "is this user on the
+-- roll" an index lookup.
+create table voter_roll (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id),
+    constraint uk_voter_roll_name unique (name)
+);
+create table voter_roll_member (
+    roll_id bigint not null,
+    user_id bigint not null,
+    primary key (roll_id, user_id),
+    constraint fk_voter_roll_member_roll foreign key (roll_id) references voter_roll,
+    -- Deleting a user takes them off every roll
+    constraint fk_voter_roll_member_user foreign key (user_id) references users on delete cascade
+);
+create index idx_voter_roll_member_user on voter_roll_member (user_id);
+
+alter table election add column voter_roll_id bigint;
+alter table election add constraint fk_election_voter_roll foreign key (voter_roll_id) references voter_roll;
+create index idx_election_voter_roll on election (voter_roll_id);
@@ -0,0 +1,7 @@
+-- Closed elections no longer follow their voter roll: closing copies the members
+-- into election_eligible_voters. Elections closed before that get the copy here,
+-- from the roll as it is now.
+insert into election_eligible_voters (election_id, eligible_voters_id)
+select e.id, m.user_id from election e join voter_roll_member m on m.roll_id = e.voter_roll_id
+where e.status <> 'OPEN'
+  and not exists (select 1 from election_eligible_voters v where v.election_id = e.id and v.eligible_voters_id = m.user_id);
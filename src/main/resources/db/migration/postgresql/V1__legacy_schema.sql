@@ -0,0 +1,15 @@
+-- Schema as created by hibernate.ddl-auto before migrations existed.
+-- Existing databases are baselined at this version and skip it.
+create table election (id bigint generated by default as identity, status varchar(255) check ((status in ('OPEN','COMPLETED'))), title varchar(255), primary key (id));
+create table election_candidates (candidates_id bigint not null, election_id bigint not null, primary key (candidates_id, election_id));
+create table election_eligible_voters (election_id bigint not null, eligible_voters_id bigint not null, primary key (election_id, eligible_voters_id));
+create table election_participation (election_id bigint not null, user_id bigint);
+create table users (id bigint generated by default as identity, first_name varchar(255), last_name varchar(255), password varchar(255) not null, role varchar(255), username varchar(255) not null unique, primary key (id));
+create table vote (candidate_id bigint, election_id bigint, id bigint generated by default as identity, primary key (id));
+alter table if exists election_candidates add constraint FK9vlgibk9i990ml2pdyu2vgtij foreign key (candidates_id) references users;
+alter table if exists election_candidates add constraint FK3xyqux6qw9s8i68samh0xf1lu foreign key (election_id) references election;
+alter table if exists election_eligible_voters add constraint FKaibg60yq5dnco36d4vkinvbq2 foreign key (eligible_voters_id) references users;
+alter table if exists election_eligible_voters add constraint FKpl3iluubhc70u9bknl2lfj1ks foreign key (election_id) references election;
+alter table if exists election_participation add constraint FKosalbvk32wdtiowpye7mn5i2y foreign key (election_id) references election;
+alter table if exists vote add constraint FKgaa4e5n7p527f3peuhlj9tbfh foreign key (candidate_id) references users;
+alter table if exists vote add constraint FK2pxxmx5nvain2p5v2hpjb3une foreign key (election_id) references election;
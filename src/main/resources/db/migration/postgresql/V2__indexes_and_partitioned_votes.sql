@@ -0,0 +1,61 @@
+-- Lookups by user: the elections a user may vote or has voted in, and the
+-- foreign key checks when a user is deleted
+create index if not exists idx_election_eligible_voters_voter on election_eligible_voters (eligible_voters_id);
+create index if not exists idx_election_participation_voter on election_participation (user_id);
+
+-- The primary key starts with the candidate, lookups go by election
+create index if not exists idx_election_candidates_election on election_candidates (election_id, candidates_id);
+
+-- Case-insensitive username lookups (login, import duplicate check, prefix search)
+create index if not exists idx_users_username_lower on users (lower(username) text_pattern_ops);
+
+-- Votes, hash partitioned by election: counting, exporting or deleting one
+-- election reads a single partition through (election_id, candidate_id) and
+-- never touches the rows of other elections.
+-- The id comes from a plain sequence, identity columns on partitioned tables
+-- need PostgreSQL 17.
+alter table vote rename to vote_unpartitioned;
+
+create table vote (
+    candidate_id bigint,
+    election_id bigint not null,
+    id bigint not null,
+    ranking bytea,
+    primary key (election_id, id)
+) partition by hash (election_id);
+
+create table vote_p0 partition of vote for values with (modulus 16, remainder 0);
+create table vote_p1 partition of vote for values with (modulus 16, remainder 1);
+create table vote_p2 partition of vote for values with (modulus 16, remainder 2);
+create table vote_p3 partition of vote for values with (modulus 16, remainder 3);
+create table vote_p4 partition of vote for values with (modulus 16, remainder 4);
+create table vote_p5 partition of vote for values with (modulus 16, remainder 5);
+create table vote_p6 partition of vote for values with (modulus 16, remainder 6);
+create table vote_p7 partition of vote for values with (modulus 16, remainder 7);
+create table vote_p8 partition of vote for values with (modulus 16, remainder 8);
+create table vote_p9 partition of vote for values with (modulus 16, remainder 9);
+create table vote_p10 partition of vote for values with (modulus 16, remainder 10);
+create table vote_p11 partition of vote for values with (modulus 16, remainder 11);
+create table vote_p12 partition of vote for values with (modulus 16, remainder 12);
+create table vote_p13 partition of vote for values with (modulus 16, remainder 13);
+create table vote_p14 partition of vote for values with (modulus 16, remainder 14);
+create table vote_p15 partition of vote for values with (modulus 16, remainder 15);
+
+-- Ballots without an election were never counted and cannot be partitioned
+insert into vote (candidate_id, election_id, id, ranking)
+select candidate_id, election_id, id, ranking from vote_unpartitioned where election_id is not null;
+
+drop table vote_unpartitioned;
+
+create sequence vote_id_seq owned by vote.id;
+select setval('vote_id_seq', coalesce((select max(id) from vote), 0) + 1, false);
+alter table vote alter column id set default nextval('vote_id_seq');
+
+-- Per-candidate counts of one election are index-only scans
+create index idx_vote_election_candidate on vote (election_id, candidate_id);
+create index idx_vote_candidate on vote (candidate_id);
+
+alter table vote add constraint fk_vote_election foreign key (election_id) references election;
+alter table vote add constraint fk_vote_candidate foreign key (candidate_id) references users;
+
+create table if not exists election_archive (archived_at timestamp(6) with time zone not null, ballots bigint not null, election_id bigint not null unique, finalized_at timestamp(6) with time zone, id bigint generated by default as identity, participations bigint not null, file_name varchar(255) not null, sha256 varchar(255) not null, title varchar(255) not null, primary key (id));
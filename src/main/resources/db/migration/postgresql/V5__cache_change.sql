@@ -0,0 +1,12 @@
+-- Change feed for replicas sharing this database (election.cache-coherence):
+-- what changed and on which node, so the other nodes can drop their cached copies.
+-- Never holds candidates or voters, only election and user ids.
+create table cache_change (
+    id bigint generated by default as identity,
+    kind varchar(32) not null,
+    entity_id bigint not null,
+    origin varchar(64) not null,
+    changed_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+create index idx_cache_change_changed_at on cache_change (changed_at);
@@ -0,0 +1,5 @@
+-- BALLOTS changes carry the ballots a node took per candidate since its last
+-- flush (candidate_id null for abstentions), so the other nodes add them to
+-- their tallies instead of counting the vote table again. Still no voters.
+alter table cache_change add column candidate_id bigint;
+alter table cache_change add column ballots bigint;
@@ -0,0 +1,223 @@
+package com.election.backend;
+
+import com.election.backend.security.PrincipalCache;
+import com.election.backend.service.ElectorateIndex;
+import com.election.backend.service.TallyService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two nodes on one database: what one node writes shows up in the caches of
+ * the other within a few poll intervals (votes, user changes, closing), and
+ * every ballot is counted once on both, also when it could not be passed on
+ * right away.
+ */
+class CacheCoherenceTests {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void changesOnOneNodeReachTheOther() throws Exception {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        List<Long> users = TestFixtures.seedUsers(jdbc, "coherence-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Coherence", users, users);
+        MockMvc mvcA = mockMvc(nodeA);
+        MockMvc mvcB = mockMvc(nodeB);
+
+        // Node B caches the election, its electorate and a voter
+        ElectorateIndex electorateB = nodeB.getBean(ElectorateIndex.class);
+        PrincipalCache principalsB = nodeB.getBean(PrincipalCache.class);
+        mvcB.perform(get("/api/elections/" + electionId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.turnout").value(0));
+        assertThat(electorateB.hasVoted(electionId, users.get(0))).isFalse();
+        assertThat(principalsB.get("coherence-voter-1").orElseThrow().role()).isEqualTo("ROLE_USER");
+        String etag = readEtag(mvcB, electionId);
+
+        // A vote on node A
+        MockHttpSession session = TestFixtures.login(mvcA, "coherence-voter-0");
+        mvcA.perform(post("/api/elections/" + electionId + "/vote")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + users.get(0) + "}"))
+            .andExpect(status().isOk());
+
+        TallyService talliesB = nodeB.getBean(TallyService.class);
+        awaitOnB("vote", () -> electorateB.hasVoted(electionId, users.get(0))
+            && talliesB.counts(electionId).equals(Map.of(users.get(0), 1L))
+            && !readEtag(mvcB, electionId).equals(etag));
+        assertThat(electorateB.turnout(electionId)).isEqualTo(1);
+        mvcB.perform(get("/api/elections/" + electionId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.turnout").value(1));
+        // Same content, same ETag on both nodes
+        assertThat(readEtag(mvcB, electionId)).isEqualTo(readEtag(mvcA, electionId));
+
+        // A role change on node A
+        mvcA.perform(put("/api/users/" + users.get(1)).with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"coherence-voter-1\", \"role\": \"ROLE_ADMIN\"}"))
+            .andExpect(status().isOk());
+        awaitOnB("role change", () -> principalsB.get("coherence-voter-1").orElseThrow().role().equals("ROLE_ADMIN"));
+
+        // Closing on node A
+        mvcA.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+        awaitOnB("close", () -> readStatus(mvcB, electionId).equals("COMPLETED"));
+    }
+
+    @Test
+    void tallyCountsBallotsOfBothNodesOnce() throws Exception {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        List<Long> users = TestFixtures.seedUsers(jdbc, "both-nodes-voter", 41);
+        long electionId = TestFixtures.seedElection(jdbc, "Both nodes", users.subList(0, 2), users);
+        List<MockMvc> nodes = List.of(mockMvc(nodeA), mockMvc(nodeB));
+
+        // Local votes commit while the other node's ballots are applied
+        try (ExecutorService voters = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> votes = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                MockMvc mvc = nodes.get(i % 2);
+                String username = "both-nodes-voter-" + i;
+                Long candidateId = users.get(i % 3 == 0 ? 0 : 1);
+                votes.add(voters.submit(() -> mvc.perform(post("/api/elections/" + electionId + "/vote")
+                        .session(TestFixtures.login(mvc, username))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"candidateId\": " + candidateId + "}"))
+                    .andReturn().getResponse().getStatus()));
+            }
+            for (Future<Integer> vote : votes) {
+                assertThat(vote.get()).isEqualTo(200);
+            }
+        }
+
+        Map<Long, Long> expected = Map.of(users.get(0), 14L, users.get(1), 26L);
+        TallyService talliesA = nodeA.getBean(TallyService.class);
+        TallyService talliesB = nodeB.getBean(TallyService.class);
+        awaitOnB("ballots of both nodes", () -> talliesA.counts(electionId).equals(expected)
+            && talliesB.counts(electionId).equals(expected));
+
+        // A ballot committed on B but not counted there yet, as between commit and the
+        // after-commit increment: a ballot from A must not pull it into B's tally early
+        jdbc.update("INSERT INTO vote (election_id, candidate_id) VALUES (?, ?)", electionId, users.get(0));
+        nodes.get(0).perform(post("/api/elections/" + electionId + "/vote")
+                .session(TestFixtures.login(nodes.get(0), "both-nodes-voter-40"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + users.get(1) + "}"))
+            .andExpect(status().isOk());
+        Map<Long, Long> withA = Map.of(users.get(0), 14L, users.get(1), 27L);
+        awaitOnB("ballot from A", () -> talliesB.counts(electionId).equals(withA));
+        // Nothing counted twice arrives later
+        Thread.sleep(500);
+        assertThat(talliesA.counts(electionId)).isEqualTo(withA);
+        assertThat(talliesB.counts(electionId)).isEqualTo(withA);
+    }
+
+    @Test
+    void ballotsWaitForTheChangeTable() throws Exception {
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        List<Long> users = TestFixtures.seedUsers(jdbc, "outage-voter", 1);
+        long electionId = TestFixtures.seedElection(jdbc, "Outage", users, users);
+        MockMvc mvcA = mockMvc(nodeA);
+        MockHttpSession session = TestFixtures.login(mvcA, "outage-voter-0");
+        TallyService talliesB = nodeB.getBean(TallyService.class);
+
+        // Node A cannot write its ballot counts for a few polls
+        jdbc.execute("ALTER TABLE cache_change RENAME TO cache_change_offline");
+        try {
+            mvcA.perform(post("/api/elections/" + electionId + "/vote")
+                    .session(session)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"candidateId\": " + users.get(0) + "}"))
+                .andExpect(status().isOk());
+            Thread.sleep(500);
+        } finally {
+            jdbc.execute("ALTER TABLE cache_change_offline RENAME TO cache_change");
+        }
+
+        awaitOnB("ballot written after the outage", () -> talliesB.counts(electionId).equals(Map.of(users.get(0), 1L)));
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(AnonymousElectionApplication.class)
+            .profiles("local", "test")
+            // Arguments rather than properties(), which the profile's files would override
+            .run("--test.database=cache-coherence",
+                "--server.port=0",
+                "--management.server.port=0",
+                "--election.cache-coherence.enabled=true",
+                "--election.cache-coherence.poll-interval=PT0.1S");
+    }
+
+    private static MockMvc mockMvc(ConfigurableApplicationContext node) {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) node).apply(springSecurity()).build();
+    }
+
+    private static String readStatus(MockMvc mvc, long electionId) {
+        try {
+            return readElection(mvc, electionId).getResponse().getContentAsString().replaceAll(".*\"status\":\"([A-Z]+)\".*", "$1");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readEtag(MockMvc mvc, long electionId) {
+        return readElection(mvc, electionId).getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static MvcResult readElection(MockMvc mvc, long electionId) {
+        try {
+            return mvc.perform(get("/api/elections/" + electionId).with(user("admin").roles("ADMIN"))).andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Several poll intervals, and a generous margin for a busy build machine
+    private static void awaitOnB(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("node B to see the " + what).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.election.backend;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The H2 migrations: a fresh database gets the whole schema, and a database
+ * created by ddl-auto before migrations existed is baselined, only gets the
+ * later versions, keeps its rows and ends up with the same columns. The context only starts if Hibernate
+ * validates the migrated schema against the entities.
+ */
+@SpringBootTest
+@ActiveProfiles({"local", "test"})
+class SchemaMigrationTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void freshDatabaseGetsAllMigrations() {
+        assertThat(Arrays.stream(flyway.info().applied()).map(info -> info.getVersion().getVersion()))
+            .containsExactly("1", "1.1", "1.2", "1.3", "2", "3", "4", "5", "6", "7");
+        assertThat(flyway.info().pending()).isEmpty();
+
+        List<String> indexes = jdbc.queryForList(
+            "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class);
+        assertThat(indexes).contains(
+            "idx_vote_election_candidate",
+            "idx_vote_candidate",
+            "idx_election_eligible_voters_voter",
+            "idx_election_participation_voter",
+            "idx_election_candidates_election");
+    }
+
+    @Test
+    void legacyDatabaseIsBaselined() {
+        JdbcDataSource legacy = new JdbcDataSource();
+        legacy.setURL("jdbc:h2:mem:schema-migration-legacy;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/h2.sql")).execute(legacy);
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        legacyJdbc.update("INSERT INTO election (title, status) VALUES ('Legacy', 'COMPLETED')");
+        legacyJdbc.update("INSERT INTO vote (election_id) SELECT id FROM election");
+        legacyJdbc.update("INSERT INTO election_participation (election_id, user_id) SELECT id, 1 FROM election");
+        legacyJdbc.update("INSERT INTO election_participation (election_id, user_id) SELECT id, 1 FROM election");
+        legacyJdbc.update("INSERT INTO election_participation (election_id, user_id) SELECT id, NULL FROM election");
+
+        MigrateResult result = Flyway.configure()
+            .dataSource(legacy)
+            .locations("classpath:db/migration/h2")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+
+        assertThat(result.migrationsExecuted).isEqualTo(9);
+        assertThat(result.targetSchemaVersion).isEqualTo("7");
+        assertThat(legacyJdbc.queryForObject("SELECT COUNT(*) FROM vote", Long.class)).isEqualTo(1);
+        assertThat(legacyJdbc.queryForObject("SELECT COUNT(*) FROM election_participation", Long.class)).isEqualTo(1);
+        assertThat(legacyJdbc.queryForObject("SELECT COUNT(*) FROM election_archive", Long.class)).isZero();
+        assertThat(legacyJdbc.queryForObject("SELECT voting_method || ':' || seats FROM election", String.class))
+            .isEqualTo("PLURALITY:1");
+        // Baselined or fresh, the database ends up with the same tables and columns
+        assertThat(columns(legacyJdbc)).isNotEmpty().isEqualTo(columns(jdbc));
+    }
+
+    private static List<String> columns(JdbcTemplate jdbc) {
+        return jdbc.queryForList("""
+            SELECT LOWER(TABLE_NAME || '.' || COLUMN_NAME) || ' ' || DATA_TYPE || ' ' || IS_NULLABLE
+            FROM INFORMATION_SCHEMA.COLUMNS
+            WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME <> 'flyway_schema_history'
+            ORDER BY 1""", String.class);
+    }
+}
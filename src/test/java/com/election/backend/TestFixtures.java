@@ -0,0 +1,78 @@
+package com.election.backend;
+
+import com.election.backend.model.VotingMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+
+/**
+ * Users and elections written straight into the database, for tests that need
+ * more of them than the API would create in reasonable time.
+ */
+public final class TestFixtures {
+
+    /** The password of every seeded user. */
+    public static final String PASSWORD = "fixture";
+
+    // One hash for everybody, logins still each run a BCrypt check
+    private static final String HASH = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Users {@code prefix-0} to {@code prefix-(count - 1)}, all ROLE_USER.
+     *
+     * @return their ids, in that order
+     */
+    public static List<Long> seedUsers(JdbcTemplate jdbc, String prefix, int count) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new Object[]{prefix + "-" + i, HASH, "ROLE_USER"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, password, role) VALUES (?, ?, ?)", users);
+        return jdbc.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class, prefix + "-%");
+    }
+
+    /**
+     * An open plurality election for one seat.
+     */
+    public static long seedElection(JdbcTemplate jdbc, String title, Collection<Long> candidates, Collection<Long> voters) {
+        return seedElection(jdbc, title, VotingMethod.PLURALITY, 1, candidates, voters);
+    }
+
+    /**
+     * An open election.
+     */
+    public static long seedElection(JdbcTemplate jdbc, String title, VotingMethod method, int seats,
+                                    Collection<Long> candidates, Collection<Long> voters) {
+        long electionId = new SimpleJdbcInsert(jdbc).withTableName("election").usingGeneratedKeyColumns("id")
+            .usingColumns("title", "status", "voting_method", "seats")
+            .executeAndReturnKey(Map.of("title", title, "status", "OPEN", "voting_method", method.name(), "seats", seats))
+            .longValue();
+        jdbc.batchUpdate("INSERT INTO election_candidates (election_id, candidates_id) VALUES (?, ?)",
+            candidates.stream().map(id -> new Object[]{electionId, id}).toList());
+        jdbc.batchUpdate("INSERT INTO election_eligible_voters (election_id, eligible_voters_id) VALUES (?, ?)",
+            voters.stream().map(id -> new Object[]{electionId, id}).toList());
+        return electionId;
+    }
+
+    /**
+     * Logs a seeded user in through the login form.
+     *
+     * @return the session, null if the login failed
+     */
+    public static MockHttpSession login(MockMvc mvc, String username) throws Exception {
+        return (MockHttpSession) mvc.perform(formLogin("/api/login").user(username).password(PASSWORD))
+            .andReturn().getRequest().getSession(false);
+    }
+}
@@ -0,0 +1,90 @@
+package com.election.backend.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionLimitingDataSourceTests {
+
+    private static final int PERMITS = 4;
+
+    private JdbcDataSource target;
+
+    @BeforeEach
+    void setUp() {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void everyVirtualThreadGetsAConnectionWithoutExceedingThePermits() throws Exception {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(target, PERMITS, Duration.ofSeconds(10));
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+
+        List<Future<Long>> waits = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                waits.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try (Connection connection = limiter.getConnection(); Statement statement = connection.createStatement()) {
+                        long waited = System.nanoTime() - start;
+                        maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                        statement.execute("SELECT 1");
+                        Thread.sleep(2);
+                        open.decrementAndGet();
+                        return waited;
+                    }
+                }));
+            }
+        }
+
+        // 500 callers, 4 at a time, 2 ms each: nobody should wait anywhere near the timeout
+        long longestWait = 0;
+        for (Future<Long> wait : waits) {
+            longestWait = Math.max(longestWait, wait.get());
+        }
+        assertThat(maxOpen.get()).isLessThanOrEqualTo(PERMITS);
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(longestWait)).isLessThan(5);
+        assertThat(limiter.getAvailablePermits()).isEqualTo(PERMITS);
+        assertThat(limiter.getWaiting()).isZero();
+    }
+
+    @Test
+    void failsWhenNoPermitFreesUpInTime() throws Exception {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(100));
+        try (Connection held = limiter.getConnection()) {
+            assertThatThrownBy(limiter::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        try (Connection next = limiter.getConnection()) {
+            assertThat(next.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    void closingTwiceReturnsThePermitOnce() throws Exception {
+        ConnectionLimitingDataSource limiter = new ConnectionLimitingDataSource(target, PERMITS, Duration.ofSeconds(1));
+        Connection connection = limiter.getConnection();
+        Connection other = limiter.getConnection();
+        connection.close();
+        connection.close();
+        assertThat(limiter.getAvailablePermits()).isEqualTo(PERMITS - 1);
+        other.close();
+        assertThat(limiter.getAvailablePermits()).isEqualTo(PERMITS);
+    }
+}
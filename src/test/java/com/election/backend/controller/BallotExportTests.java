@@ -0,0 +1,84 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.model.VotingMethod;
+import com.election.backend.service.RankingCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The ballot export must not give away the order of voting: the same ballots
+ * cast in opposite orders export to the same file.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class BallotExportTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void ballotsAreNotExportedInVotingOrder() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "export-candidate", 3);
+        List<List<Long>> ballots = new ArrayList<>();
+        ballots.add(List.of(users.get(2), users.get(0)));
+        ballots.add(List.of(users.get(1)));
+        ballots.add(List.of());
+        ballots.add(List.of(users.get(0), users.get(2), users.get(1)));
+        ballots.add(List.of(users.get(2), users.get(1)));
+        ballots.add(List.of(users.get(0), users.get(1)));
+        ballots.add(List.of(users.get(2)));
+
+        long forward = seedClosed("Forward", users, ballots);
+        String exported = exportBallots(forward);
+        long backward = seedClosed("Backward", users, ballots.reversed());
+
+        assertThat(exportBallots(backward)).isEqualTo(exported);
+        List<String> rows = exported.lines().skip(1).toList();
+        assertThat(rows).hasSize(ballots.size()).doesNotContainSequence(csv(ballots)).doesNotContainSequence(csv(ballots.reversed()));
+        // Abstentions first, then by first preference
+        assertThat(rows.getFirst()).isEqualTo(",");
+        assertThat(rows.subList(1, rows.size())).extracting(row -> Long.parseLong(row.substring(0, row.indexOf(','))))
+            .isSorted();
+    }
+
+    private long seedClosed(String title, List<Long> candidates, List<List<Long>> ballots) {
+        long electionId = TestFixtures.seedElection(jdbc, title, VotingMethod.IRV, 1, candidates, List.of());
+        jdbc.batchUpdate("INSERT INTO vote (election_id, candidate_id, ranking) VALUES (?, ?, ?)", ballots.stream()
+            .map(ranking -> new Object[]{electionId, ranking.isEmpty() ? null : ranking.getFirst(),
+                ranking.isEmpty() ? null : RankingCodec.encode(ranking)})
+            .toList());
+        jdbc.update("UPDATE election SET status = 'COMPLETED' WHERE id = ?", electionId);
+        return electionId;
+    }
+
+    private String exportBallots(long electionId) throws Exception {
+        return mvc.perform(get("/api/elections/" + electionId + "/export/ballots").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+    }
+
+    private static List<String> csv(List<List<Long>> ballots) {
+        return ballots.stream()
+            .map(ranking -> (ranking.isEmpty() ? "" : ranking.getFirst()) + ","
+                + String.join(";", ranking.stream().map(String::valueOf).toList()))
+            .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.dto.BallotDto;
+import com.election.backend.dto.BulkBallotResultDto;
+import com.election.backend.service.BallotImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk ballot import in chunks of three: every committed chunk is acknowledged,
+ * and an import that runs into malformed input or a closed election stops
+ * without writing the chunk it was in.
+ */
+@SpringBootTest(properties = "election.ballots.chunk-size=3")
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class BallotImportTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private BallotImportService importService;
+
+    @Test
+    void committedChunksAreAcknowledged() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "import-candidate", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Import", users, List.of());
+        long outsider = users.get(1) + 1000;
+
+        // Ballot 6 is in the chunk the malformed line breaks off
+        String body = String.join("\n",
+            ballot(users.get(0)), ballot(outsider), "{\"candidateId\": null}",
+            ballot(users.get(1)), ballot(users.get(1)), ballot(users.get(0)),
+            ballot(users.get(0)), "{\"candidateId\": ");
+        mvc.perform(post("/api/elections/" + electionId + "/ballots").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.accepted").value(5))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.chunks.length()").value(2))
+            .andExpect(jsonPath("$.chunks[0].firstBallot").value(0))
+            .andExpect(jsonPath("$.chunks[0].accepted").value(2))
+            .andExpect(jsonPath("$.chunks[0].errors[0]").value("Ballot 1: user " + outsider + " is not a candidate"))
+            .andExpect(jsonPath("$.chunks[1].firstBallot").value(3))
+            .andExpect(jsonPath("$.chunks[1].accepted").value(3))
+            .andExpect(jsonPath("$.error").value(startsWith("Malformed ballot after index 7")));
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM vote WHERE election_id = ?", Long.class, electionId))
+            .isEqualTo(5);
+    }
+
+    @Test
+    void electionClosedMidImportGetsNoFurtherChunk() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "closing-candidate", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Closed mid-import", users, List.of());
+
+        // The first chunk commits, then the election closes while the second is read
+        Iterator<BallotDto> ballots = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 8;
+            }
+
+            @Override
+            public BallotDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (next == 4) {
+                    close(electionId);
+                }
+                return new BallotDto(users.get(next++ % 2), null);
+            }
+        };
+        BulkBallotResultDto result = importService.importBallots(electionId, ballots);
+
+        assertThat(result.getChunks()).hasSize(1);
+        assertThat(result.getAccepted()).isEqualTo(3);
+        assertThat(result.getError()).isEqualTo("Election was closed after ballot 3");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM vote WHERE election_id = ?", Long.class, electionId))
+            .isEqualTo(3);
+        // The final result is counted from the first chunk only
+        mvc.perform(get("/api/elections/" + electionId + "/results").with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].candidateId").value(users.get(0)))
+            .andExpect(jsonPath("$[0].count").value(2))
+            .andExpect(jsonPath("$[1].count").value(1));
+    }
+
+    private void close(long electionId) {
+        try {
+            mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String ballot(long candidateId) {
+        return "{\"candidateId\": " + candidateId + "}";
+    }
+}
@@ -0,0 +1,145 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Votes through the ballot journal: concurrent votes are journaled and
+ * applied, closing drains the journal into the vote table before counting,
+ * and replaying the journal recounts the same ballots, until a byte of the
+ * file is changed.
+ */
+@SpringBootTest(properties = {
+    "election.ballots.storage=journal",
+    "election.ballots.journal.initial-segment-size=4096"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class BallotJournalTests {
+
+    private static final Path JOURNAL = createTempDirectory();
+    // 40 vote for the first candidate, 25 for the second, 15 abstain
+    private static final int VOTERS = 80;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("election.ballots.journal.directory", JOURNAL::toString);
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void ballotsGoThroughTheJournal() throws Exception {
+        long[] candidates = new long[2];
+        long electionId = seedElection(candidates);
+
+        List<MockHttpSession> sessions = new ArrayList<>();
+        for (int i = 0; i < VOTERS; i++) {
+            sessions.add(TestFixtures.login(mvc, "journal-voter-" + i));
+        }
+
+        // All at once, so that votes share fsyncs
+        List<Future<Integer>> votes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < VOTERS; i++) {
+                MockHttpSession session = sessions.get(i);
+                String ballot = i < 40 ? "{\"candidateId\": " + candidates[0] + "}"
+                    : i < 65 ? "{\"candidateId\": " + candidates[1] + "}" : "{}";
+                votes.add(executor.submit(() -> mvc.perform(post("/api/elections/" + electionId + "/vote")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ballot))
+                    .andReturn().getResponse().getStatus()));
+            }
+        }
+        for (Future<Integer> vote : votes) {
+            assertThat(vote.get()).isEqualTo(200);
+        }
+
+        mvc.perform(get("/api/elections/" + electionId + "/journal").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.intact").value(true))
+            .andExpect(jsonPath("$.ballots").value(VOTERS))
+            .andExpect(jsonPath("$.committed").value(VOTERS))
+            .andExpect(jsonPath("$.inDoubt").value(0))
+            .andExpect(jsonPath("$.firstPreferences['" + candidates[0] + "']").value(40))
+            .andExpect(jsonPath("$.firstPreferences['" + candidates[1] + "']").value(25))
+            .andExpect(jsonPath("$.abstentions").value(15));
+
+        mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+
+        // Whatever the applier had not copied yet went in with the close
+        assertThat(countVotes(electionId, "candidate_id = " + candidates[0])).isEqualTo(40);
+        assertThat(countVotes(electionId, "candidate_id = " + candidates[1])).isEqualTo(25);
+        assertThat(countVotes(electionId, "candidate_id IS NULL")).isEqualTo(15);
+        assertThat(jdbc.queryForObject("SELECT total_votes FROM election WHERE id = ?", Long.class, electionId))
+            .isEqualTo(VOTERS);
+        mvc.perform(get("/api/elections/" + electionId + "/journal").with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.intact").value(true))
+            .andExpect(jsonPath("$.appliedSeq").isNumber());
+
+        // Change the candidate of the first ballot (after the 16 byte header, length, type and sequence number)
+        try (FileChannel file = FileChannel.open(JOURNAL.resolve("election-" + electionId + ".ballots"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.allocate(8).putLong(0, candidates[1]), 16 + 4 + 1 + 8);
+        }
+        mvc.perform(get("/api/elections/" + electionId + "/journal").with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.intact").value(false))
+            .andExpect(jsonPath("$.records").value(0));
+    }
+
+    private long countVotes(long electionId, String condition) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM vote WHERE election_id = ? AND " + condition, Long.class, electionId);
+    }
+
+    private long seedElection(long[] candidates) {
+        List<Long> ids = TestFixtures.seedUsers(jdbc, "journal-voter", VOTERS);
+        candidates[0] = ids.get(0);
+        candidates[1] = ids.get(1);
+        long electionId = TestFixtures.seedElection(jdbc, "Journal", ids.subList(0, 2), ids);
+        // What createElection does in journal mode
+        jdbc.update("INSERT INTO ballot_journal_checkpoint (election_id, applied_seq, base_participation) VALUES (?, 0, 0)", electionId);
+        return electionId;
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("ballot-journal");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
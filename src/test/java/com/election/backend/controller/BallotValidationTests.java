@@ -0,0 +1,73 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.model.VotingMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Ballots checked against the cached spec: a rejected ballot is a 400 that
+ * leaves the voter free to vote again, in plurality and ranked elections.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class BallotValidationTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void pluralityBallotNamesACandidate() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "plurality-voter", 3);
+        long electionId = TestFixtures.seedElection(jdbc, "Plurality", users.subList(0, 2), users);
+        MockHttpSession session = TestFixtures.login(mvc, "plurality-voter-2");
+
+        assertThat(vote(session, electionId, "{\"candidateId\": " + users.get(2) + "}")).isEqualTo(400);
+        assertThat(vote(session, electionId, "{\"ranking\": [" + users.get(0) + "]}")).isEqualTo(400);
+        assertThat(vote(session, electionId, "{\"candidateId\": " + users.get(1) + "}")).isEqualTo(200);
+    }
+
+    @Test
+    void rankedBallotListsDistinctCandidates() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "ranked-voter", 4);
+        List<Long> candidates = users.subList(0, 3);
+        long electionId = TestFixtures.seedElection(jdbc, "Ranked", VotingMethod.IRV, 1, candidates, users);
+        MockHttpSession session = TestFixtures.login(mvc, "ranked-voter-3");
+
+        assertThat(vote(session, electionId, ranking(candidates.get(0), users.get(3)))).isEqualTo(400);
+        assertThat(vote(session, electionId, ranking(candidates.get(0), candidates.get(1), candidates.get(0)))).isEqualTo(400);
+        assertThat(vote(session, electionId, ranking(candidates.get(2), candidates.get(0), candidates.get(1)))).isEqualTo(200);
+
+        // The first preference is stored as the candidate
+        assertThat(jdbc.queryForObject("SELECT candidate_id FROM vote WHERE election_id = ?", Long.class, electionId))
+            .isEqualTo(candidates.get(2));
+    }
+
+    private int vote(MockHttpSession session, long electionId, String ballot) throws Exception {
+        return mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ballot))
+            .andReturn().getResponse().getStatus();
+    }
+
+    private static String ranking(Long... candidateIds) {
+        return "{\"ranking\": " + List.of(candidateIds) + "}";
+    }
+}
@@ -0,0 +1,88 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.model.VotingMethod;
+import com.election.backend.service.RankingCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Archive files keep the ballots but not the order in which they were cast.
+ */
+@SpringBootTest(properties = "election.archive.directory=target/test-archive")
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class ElectionArchiveTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Value("${election.archive.directory}")
+    private Path directory;
+
+    @Test
+    void archivedBallotsDoNotFollowTheVotingOrder() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "archive-candidate", 3);
+        List<List<Long>> ballots = List.of(
+            List.of(users.get(2), users.get(0)),
+            List.of(),
+            List.of(users.get(0), users.get(2)),
+            List.of(users.get(1)),
+            List.of(users.get(0), users.get(1)),
+            List.of(users.get(2)));
+
+        List<String> forward = archivedBallots(seedClosed("Forward", users, ballots));
+        List<String> backward = archivedBallots(seedClosed("Backward", users, ballots.reversed()));
+
+        assertThat(forward).hasSize(ballots.size()).isEqualTo(backward);
+        assertThat(forward.getFirst()).contains("\"candidateId\":null");
+    }
+
+    private long seedClosed(String title, List<Long> candidates, List<List<Long>> ballots) {
+        long electionId = TestFixtures.seedElection(jdbc, title, VotingMethod.IRV, 1, candidates, List.of());
+        jdbc.batchUpdate("INSERT INTO vote (election_id, candidate_id, ranking) VALUES (?, ?, ?)", ballots.stream()
+            .map(ranking -> new Object[]{electionId, ranking.isEmpty() ? null : ranking.getFirst(),
+                ranking.isEmpty() ? null : RankingCodec.encode(ranking)})
+            .toList());
+        jdbc.update("UPDATE election SET status = 'COMPLETED' WHERE id = ?", electionId);
+        return electionId;
+    }
+
+    private List<String> archivedBallots(long electionId) throws Exception {
+        mvc.perform(post("/api/elections/" + electionId + "/archive").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isAccepted());
+        String fileName = null;
+        for (int attempt = 0; attempt < 100 && fileName == null; attempt++) {
+            Thread.sleep(100);
+            fileName = jdbc.queryForList("SELECT file_name FROM election_archive WHERE election_id = ?", String.class, electionId)
+                .stream().findFirst().orElse(null);
+        }
+        assertThat(fileName).as("archive of election %d", electionId).isNotNull();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(directory.resolve(fileName))), StandardCharsets.UTF_8))) {
+            return reader.lines().filter(line -> line.contains("\"type\":\"ballot\"")).toList();
+        }
+    }
+}
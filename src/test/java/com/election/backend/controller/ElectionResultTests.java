@@ -0,0 +1,124 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.model.VotingMethod;
+import com.election.backend.service.ElectionResultService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Closing stores the result lines and their checksum; reading them back checks
+ * the checksum, and elections closed before results were stored are finalized
+ * on their first request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class ElectionResultTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ElectionResultService resultService;
+
+    @Test
+    void closingStoresTheResultInDisplayOrder() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "result-voter", 4);
+        long electionId = TestFixtures.seedElection(jdbc, "Result", VotingMethod.IRV, 1, users, users);
+        vote("result-voter-0", electionId, "{\"ranking\": [" + users.get(2) + "]}");
+        vote("result-voter-1", electionId, "{\"ranking\": [" + users.get(2) + ", " + users.get(0) + "]}");
+        vote("result-voter-2", electionId, "{}");
+        close(electionId);
+
+        // Votes descending, then the candidates without first preferences by id, abstentions last
+        List<Map<String, Object>> rows = jdbc.queryForList(
+            "SELECT candidate_id, vote_count FROM election_result WHERE election_id = ? ORDER BY position", electionId);
+        assertThat(rows).extracting(row -> row.get("candidate_id"))
+            .containsExactly(users.get(2), users.get(0), users.get(1), users.get(3), null);
+        assertThat(rows).extracting(row -> ((Number) row.get("vote_count")).longValue())
+            .containsExactly(2L, 0L, 0L, 0L, 1L);
+
+        String checksum = jdbc.queryForObject("SELECT result_checksum FROM election WHERE id = ?", String.class, electionId);
+        mvc.perform(get("/api/elections/" + electionId + "/results").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + checksum + "\""))
+            .andExpect(jsonPath("$[0].candidateId").value(users.get(2)))
+            .andExpect(jsonPath("$[4].candidateName").value("Abstain"));
+    }
+
+    @Test
+    void changedStoredResultFailsTheChecksum() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "tamper-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Tampered", users, users);
+        vote("tamper-voter-0", electionId, "{\"candidateId\": " + users.get(1) + "}");
+        close(electionId);
+
+        // Closing does not cache the result, so the first read loads the stored lines
+        jdbc.update("UPDATE election_result SET vote_count = vote_count + 1 WHERE election_id = ?", electionId);
+        assertThatThrownBy(() -> resultService.getResults(electionId))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void electionClosedBeforeResultsIsFinalizedOnRequest() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "legacy-voter", 3);
+        long electionId = TestFixtures.seedElection(jdbc, "Legacy", users, users);
+        // As left behind by a version without stored results: closed, ballots, no result lines
+        jdbc.update("UPDATE election SET status = 'COMPLETED' WHERE id = ?", electionId);
+        jdbc.batchUpdate("INSERT INTO vote (election_id, candidate_id) VALUES (?, ?)", Arrays.asList(
+            new Object[]{electionId, users.get(0)}, new Object[]{electionId, users.get(0)}, new Object[]{electionId, users.get(1)}));
+
+        mvc.perform(get("/api/elections/" + electionId + "/results").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].candidateId").value(users.get(0)))
+            .andExpect(jsonPath("$[0].count").value(2))
+            .andExpect(jsonPath("$[1].count").value(1));
+
+        Map<String, Object> election = jdbc.queryForMap(
+            "SELECT finalized_at, total_votes, result_checksum FROM election WHERE id = ?", electionId);
+        assertThat(election.get("finalized_at")).isNotNull();
+        assertThat(((Number) election.get("total_votes")).longValue()).isEqualTo(3);
+        assertThat(election.get("result_checksum")).isNotNull();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM election_result WHERE election_id = ?", Long.class, electionId))
+            .isEqualTo(2);
+    }
+
+    private void vote(String username, long electionId, String ballot) throws Exception {
+        MockHttpSession session = TestFixtures.login(mvc, username);
+        mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ballot))
+            .andExpect(status().isOk());
+    }
+
+    private void close(long electionId) throws Exception {
+        mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,79 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags of the election and the election list: a hash of the content, so an
+ * unchanged election revalidates to 304 (on any node, after any restart), and
+ * a vote or a delete makes the old tag stale.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class ElectionSnapshotTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void etagsFollowTheContent() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "etag-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "ETag", users, users);
+        String election = "/api/elections/" + electionId;
+
+        MvcResult first = mvc.perform(get(election).with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo(contentHash(first.getResponse().getContentAsByteArray()));
+        assertThat(revalidate(election, etag)).isEqualTo(304);
+        String listEtag = mvc.perform(get("/api/elections").with(user("admin").roles("ADMIN")))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(revalidate("/api/elections", listEtag)).isEqualTo(304);
+
+        mvc.perform(post(election + "/vote")
+                .session(TestFixtures.login(mvc, "etag-voter-0"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + users.get(1) + "}"))
+            .andExpect(status().isOk());
+        assertThat(revalidate(election, etag)).isEqualTo(200);
+        assertThat(revalidate("/api/elections", listEtag)).isEqualTo(200);
+
+        mvc.perform(delete(election).with(user("admin").roles("ADMIN")))
+            .andExpect(status().isNoContent());
+        assertThat(revalidate(election, etag)).isEqualTo(404);
+    }
+
+    private int revalidate(String url, String etag) throws Exception {
+        return mvc.perform(get(url).with(user("admin").roles("ADMIN")).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andReturn().getResponse().getStatus();
+    }
+
+    private static String contentHash(byte[] json) throws Exception {
+        return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16) + "\"";
+    }
+}
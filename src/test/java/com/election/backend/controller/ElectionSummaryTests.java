@@ -0,0 +1,98 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The election summaries: newest first, paged by an id cursor, optionally
+ * filtered by status, with counts instead of the collections.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class ElectionSummaryTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void summariesArePagedNewestFirst() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "summary-voter", 3);
+        long first = TestFixtures.seedElection(jdbc, "First", users.subList(0, 2), users);
+        long closed = TestFixtures.seedElection(jdbc, "Closed", users, List.of());
+        long last = TestFixtures.seedElection(jdbc, "Last", List.of(users.get(0)), users.subList(0, 1));
+        mvc.perform(post("/api/elections/" + first + "/vote")
+                .session(TestFixtures.login(mvc, "summary-voter-2"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + users.get(1) + "}"))
+            .andExpect(status().isOk());
+        mvc.perform(post("/api/elections/" + closed + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+        // Starting just above the newest one leaves out elections of other tests
+        long start = last + 1;
+
+        mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN"))
+                .param("after", String.valueOf(start))
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[*].id").value(contains((int) last, (int) closed)))
+            .andExpect(jsonPath("$.items[1].status").value("COMPLETED"))
+            .andExpect(jsonPath("$.nextCursor").value(closed));
+        mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN"))
+                .param("after", String.valueOf(closed))
+                .param("limit", "1"))
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].id").value(first))
+            .andExpect(jsonPath("$.items[0].title").value("First"))
+            .andExpect(jsonPath("$.items[0].status").value("OPEN"))
+            .andExpect(jsonPath("$.items[0].candidateCount").value(2))
+            .andExpect(jsonPath("$.items[0].electorateSize").value(3))
+            .andExpect(jsonPath("$.items[0].turnout").value(1));
+
+        mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN"))
+                .param("status", "OPEN")
+                .param("after", String.valueOf(start))
+                .param("limit", "2"))
+            .andExpect(jsonPath("$.items[*].id").value(contains((int) last, (int) first)));
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws Exception {
+        TestFixtures.seedElection(jdbc, "Any", List.of(), List.of());
+        long oldest = jdbc.queryForObject("SELECT MIN(id) FROM election", Long.class);
+
+        mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN"))
+                .param("after", String.valueOf(oldest + 1))
+                .param("limit", "1"))
+            .andExpect(jsonPath("$.items[*].id").value(contains((int) oldest)))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void limitIsBounded() throws Exception {
+        for (String limit : List.of("0", "201")) {
+            mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN"))
+                    .param("limit", limit))
+                .andExpect(status().isBadRequest());
+        }
+    }
+}
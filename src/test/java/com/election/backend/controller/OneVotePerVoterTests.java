@@ -0,0 +1,102 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * A voter gets exactly one ballot: a second vote is a 409, also when the
+ * submissions race each other or the in-memory participation is behind the
+ * database, and a rejected vote leaves no ballot behind.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class OneVotePerVoterTests {
+
+    private static final int SUBMISSIONS = 20;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void secondVoteIsRejected() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "once-voter", 1);
+        long electionId = TestFixtures.seedElection(jdbc, "Once", users, users);
+        MockHttpSession session = TestFixtures.login(mvc, "once-voter-0");
+
+        assertThat(vote(session, electionId)).isEqualTo(200);
+        assertThat(vote(session, electionId)).isEqualTo(409);
+        assertThat(countBallots(electionId)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSubmissionsCountOnce() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "double-voter", 1);
+        long electionId = TestFixtures.seedElection(jdbc, "Double submit", users, users);
+        MockHttpSession session = TestFixtures.login(mvc, "double-voter-0");
+
+        List<Future<Integer>> submissions = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SUBMISSIONS; i++) {
+                submissions.add(executor.submit(() -> vote(session, electionId)));
+            }
+        }
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> submission : submissions) {
+            statuses.add(submission.get());
+        }
+
+        assertThat(statuses).containsOnly(200, 409).containsOnlyOnce(200);
+        assertThat(countBallots(electionId)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM election_participation WHERE election_id = ?", Long.class, electionId))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void uniqueConstraintCatchesWhatTheIndexMissed() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "stale-voter", 1);
+        long electionId = TestFixtures.seedElection(jdbc, "Stale index", users, users);
+        MockHttpSession session = TestFixtures.login(mvc, "stale-voter-0");
+
+        // Load the electorate, then record the participation behind its back (as another node would)
+        mvc.perform(get("/api/elections/" + electionId).with(user("admin").roles("ADMIN")));
+        jdbc.update("INSERT INTO election_participation (election_id, user_id) VALUES (?, ?)", electionId, users.getFirst());
+
+        assertThat(vote(session, electionId)).isEqualTo(409);
+        assertThat(countBallots(electionId)).isZero();
+    }
+
+    private int vote(MockHttpSession session, long electionId) throws Exception {
+        return mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andReturn().getResponse().getStatus();
+    }
+
+    private long countBallots(long electionId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM vote WHERE election_id = ?", Long.class, electionId);
+    }
+}
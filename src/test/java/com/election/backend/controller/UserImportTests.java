@@ -0,0 +1,164 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk user import in chunks of four: rows that are invalid, repeated or
+ * already taken are reported by their row, the rest is created. A username
+ * taken between the duplicate check and the insert fails only its own row.
+ */
+@SpringBootTest(properties = "election.user-import.chunk-size=4")
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class UserImportTests {
+
+    // Encoding this password signs the rival up first, after its chunk was checked
+    private static final String TAKEN_MEANWHILE = "taken-meanwhile";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rowsAreCreatedOrReported() throws Exception {
+        TestFixtures.seedUsers(jdbc, "csv-existing", 1);
+
+        String csv = String.join("\n",
+            "Password,USERNAME,lastName,firstName,role",
+            "fixture,csv-user-0,,,",
+            "  ,csv-user-1,,,",
+            "fixture,CSV-Existing-0,,,",
+            "fixture,CSV-USER-0,,,",
+            "fixture,csv-user-2,\"Doe, Jr.\",\"Jane \"\"JJ\"\"\",",
+            "",
+            "fixture,csv-user-3,,,ROLE_ADMIN");
+        JsonNode job = awaitJob(mvc.perform(post("/api/users/import").with(user("admin").roles("ADMIN"))
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.total").value(6))
+            .andReturn().getResponse().getContentAsString());
+
+        assertThat(job.get("status").asString()).isEqualTo("COMPLETED");
+        assertThat(job.get("processed").asInt()).isEqualTo(6);
+        assertThat(job.get("created").asInt()).isEqualTo(3);
+        assertThat(job.get("failed").asInt()).isEqualTo(3);
+        assertThat(errors(job)).containsExactlyInAnyOrder(
+            "2 csv-user-1: Username and password are required",
+            "3 CSV-Existing-0: Username already exists",
+            "4 CSV-USER-0: Duplicate username in import");
+
+        assertThat(jdbc.queryForMap("SELECT first_name, last_name, role FROM users WHERE username = 'csv-user-2'"))
+            .isEqualTo(Map.of("FIRST_NAME", "Jane \"JJ\"", "LAST_NAME", "Doe, Jr.", "ROLE", "ROLE_USER"));
+        assertThat(jdbc.queryForObject("SELECT role FROM users WHERE username = 'csv-user-3'", String.class))
+            .isEqualTo("ROLE_ADMIN");
+        // Hashed, not stored as given
+        assertThat(TestFixtures.login(mvc, "csv-user-0")).isNotNull();
+    }
+
+    @Test
+    void usernameTakenDuringTheImportFailsOnlyItsRow() throws Exception {
+        String users = """
+            [{"username": "race-user-0", "password": "fixture"},
+             {"username": "race-user-1", "password": "%s"},
+             {"username": "race-user-2", "password": "fixture"},
+             {"username": "race-user-3", "password": "fixture"},
+             {"username": "race-user-4", "password": "fixture"}]
+            """.formatted(TAKEN_MEANWHILE);
+        JsonNode job = awaitJob(mvc.perform(post("/api/users/import").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(users))
+            .andExpect(status().isAccepted())
+            .andReturn().getResponse().getContentAsString());
+
+        assertThat(job.get("status").asString()).isEqualTo("COMPLETED");
+        assertThat(job.get("created").asInt()).isEqualTo(4);
+        assertThat(errors(job)).containsExactly("2 race-user-1: Username already exists");
+        assertThat(jdbc.queryForList("SELECT username FROM users WHERE username LIKE 'race-user-%' ORDER BY username", String.class))
+            .containsExactly("race-user-0", "race-user-1", "race-user-2", "race-user-3", "race-user-4");
+        // The rival's account, not the imported one
+        assertThat(TestFixtures.login(mvc, "race-user-1")).isNotNull();
+    }
+
+    @Test
+    void unknownJobIsNotFound() throws Exception {
+        mvc.perform(get("/api/users/import/unknown").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitJob(String submitted) throws Exception {
+        String id = objectMapper.readTree(submitted).get("id").asString();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (true) {
+            JsonNode job = objectMapper.readTree(mvc.perform(get("/api/users/import/" + id).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+            if (!job.get("status").asString().equals("RUNNING")) {
+                return job;
+            }
+            assertThat(System.nanoTime()).as("import finished within 10 seconds").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<String> errors(JsonNode job) {
+        return job.get("errors").valueStream()
+            .map(error -> error.get("row").asInt() + " " + error.get("username").asString() + ": " + error.get("message").asString())
+            .toList();
+    }
+
+    @TestConfiguration
+    static class RivalSignup {
+
+        @Bean
+        @Primary
+        PasswordEncoder rivalSigningUpEncoder(JdbcTemplate jdbc) {
+            PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+            return new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    if (TAKEN_MEANWHILE.contentEquals(rawPassword)) {
+                        jdbc.update("INSERT INTO users (username, password, role) VALUES ('race-user-1', ?, 'ROLE_USER')",
+                            bcrypt.encode(TestFixtures.PASSWORD));
+                    }
+                    return bcrypt.encode(rawPassword);
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    return bcrypt.matches(rawPassword, encodedPassword);
+                }
+            };
+        }
+    }
+}
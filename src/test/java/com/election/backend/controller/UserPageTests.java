@@ -0,0 +1,121 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * User pages with the prefix search, and the NDJSON export of every user.
+ * Neither gives away password hashes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class UserPageTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void usersArePagedById() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "paged-user", 3);
+
+        mvc.perform(get("/api/users/page").with(user("admin").roles("ADMIN"))
+                .param("q", " PAGED-User ")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[*].id").value(contains(users.get(0).intValue(), users.get(1).intValue())))
+            .andExpect(jsonPath("$.items[0].username").value("paged-user-0"))
+            .andExpect(jsonPath("$.items[0].password").doesNotExist())
+            .andExpect(jsonPath("$.nextCursor").value(users.get(1)));
+        mvc.perform(get("/api/users/page").with(user("admin").roles("ADMIN"))
+                .param("q", "paged-user")
+                .param("after", String.valueOf(users.get(1)))
+                .param("limit", "2"))
+            .andExpect(jsonPath("$.items[*].id").value(contains(users.get(2).intValue())))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchMatchesTheStartOfEitherName() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "named-user", 3);
+        jdbc.update("UPDATE users SET first_name = 'Wilhelmina', last_name = 'Q_Tip' WHERE id = ?", users.get(0));
+        jdbc.update("UPDATE users SET first_name = 'Bart', last_name = 'Wilhelm' WHERE id = ?", users.get(1));
+        jdbc.update("UPDATE users SET first_name = 'Qxtip', last_name = 'Bart' WHERE id = ?", users.get(2));
+        String before = String.valueOf(users.get(0) - 1);
+
+        mvc.perform(get("/api/users/page").with(user("admin").roles("ADMIN"))
+                .param("q", "wilhelm")
+                .param("after", before))
+            .andExpect(jsonPath("$.items[*].id").value(contains(users.get(0).intValue(), users.get(1).intValue())))
+            .andExpect(jsonPath("$.items[0].firstName").value("Wilhelmina"));
+        // _ is a literal underscore, not a wildcard, and the middle of a name does not match
+        mvc.perform(get("/api/users/page").with(user("admin").roles("ADMIN"))
+                .param("q", "q_")
+                .param("after", before))
+            .andExpect(jsonPath("$.items[*].id").value(contains(users.get(0).intValue())));
+        mvc.perform(get("/api/users/page").with(user("admin").roles("ADMIN"))
+                .param("q", "helm")
+                .param("after", before))
+            .andExpect(jsonPath("$.items").isEmpty());
+    }
+
+    @Test
+    void limitIsBounded() throws Exception {
+        for (String limit : List.of("0", "201")) {
+            mvc.perform(get("/api/users/page").with(user("admin").roles("ADMIN"))
+                    .param("limit", limit))
+                .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void exportStreamsEveryUser() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "exported-user", 2);
+        jdbc.update("UPDATE users SET first_name = 'Exa', last_name = 'Ported' WHERE id = ?", users.get(1));
+
+        MvcResult started = mvc.perform(get("/api/users/export").with(user("admin").roles("ADMIN")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String exported = mvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = exported.lines().map(objectMapper::readTree).toList();
+        assertThat(lines).hasSize(jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertThat(lines).extracting(line -> line.get("id").asLong()).isSorted().containsAll(users);
+        assertThat(lines).noneMatch(line -> line.has("password"));
+        assertThat(lines.getLast().get("username").asString()).isEqualTo("exported-user-1");
+        assertThat(lines.getLast().get("lastName").asString()).isEqualTo("Ported");
+
+        mvc.perform(get("/api/users/export").with(user("voter").roles("USER")))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,112 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.config.ConnectionLimitingDataSource;
+import com.election.backend.service.ElectorateIndex;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * A vote storm on virtual threads against a pool of four connections: every
+ * voter logs in, votes and looks at the election, all at once with cold caches.
+ * Every vote must get through, and no virtual thread may pin its carrier on
+ * the way (checked with the JFR pinning event, which fires when a virtual
+ * thread parks inside synchronized code, e.g. waiting for a connection while
+ * loading a cache entry).
+ */
+@SpringBootTest(properties = {
+    "spring.threads.virtual.enabled=true",
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "election.login.queue-capacity=1000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class VirtualThreadVoteTests {
+
+    private static final int VOTERS = 300;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ElectorateIndex electorateIndex;
+
+    @Test
+    void voteStormNeitherStarvesNorPins() throws Exception {
+        assertThat(dataSource).isInstanceOf(ConnectionLimitingDataSource.class);
+        long electionId = TestFixtures.seedElection(jdbc, "Virtual threads", List.of(),
+            TestFixtures.seedUsers(jdbc, "vt-voter", VOTERS));
+
+        ConcurrentLinkedQueue<RecordedEvent> pinned = new ConcurrentLinkedQueue<>();
+        List<Integer> statuses = new ArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            List<Future<Integer>> votes = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < VOTERS; i++) {
+                    String username = "vt-voter-" + i;
+                    votes.add(executor.submit(() -> {
+                        MvcResult login = mvc.perform(formLogin("/api/login").user(username).password(TestFixtures.PASSWORD)).andReturn();
+                        MockHttpSession session = (MockHttpSession) login.getRequest().getSession(false);
+                        if (login.getResponse().getStatus() != 200 || session == null) {
+                            return login.getResponse().getStatus();
+                        }
+                        int status = mvc.perform(post("/api/elections/" + electionId + "/vote")
+                                .session(session)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{}"))
+                            .andReturn().getResponse().getStatus();
+                        mvc.perform(get("/api/elections/" + electionId).session(session));
+                        return status;
+                    }));
+                }
+            }
+            for (Future<Integer> vote : votes) {
+                statuses.add(vote.get());
+            }
+            recording.stop();
+        }
+
+        assertThat(statuses).hasSize(VOTERS).containsOnly(200);
+        assertThat(pinned).as("pinned virtual threads: %s", pinned).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM vote WHERE election_id = ?", Long.class, electionId))
+            .isEqualTo(VOTERS);
+        assertThat(electorateIndex.turnout(electionId)).isEqualTo(VOTERS);
+        ConnectionLimitingDataSource limiter = (ConnectionLimitingDataSource) dataSource;
+        assertThat(limiter.getWaiting()).isZero();
+        assertThat(limiter.getAvailablePermits()).isEqualTo(4);
+    }
+}
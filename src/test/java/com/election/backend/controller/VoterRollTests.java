@@ -0,0 +1,217 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import com.election.backend.service.VoterRollService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An election on a voter roll: it gets no eligible-voter rows of its own, and
+ * adding someone to the roll lets them vote in it. Once closed, it keeps the
+ * electorate it had, including a roll edit that was in flight while closing.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class VoterRollTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VoterRollService rollService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void electionFollowsItsVoterRoll() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "roll-voter", 4);
+
+        // The unknown id is skipped
+        JsonNode roll = json(mvc.perform(post("/api/voter-rolls").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Crew\", \"memberIds\": [" + users.get(0) + ", " + users.get(1) + ", " + users.get(2) + ", 999999]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.memberCount").value(3))
+            .andReturn());
+        long rollId = roll.get("id").asLong();
+
+        String candidates = "\"candidateIds\": [" + users.get(0) + ", " + users.get(1) + "]";
+        mvc.perform(post("/api/elections").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Both\", " + candidates + ", \"eligibleVoterIds\": [" + users.get(3) + "], \"voterRollId\": " + rollId + "}"))
+            .andExpect(status().isBadRequest());
+        JsonNode election = json(mvc.perform(post("/api/elections").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Roll\", " + candidates + ", \"voterRollId\": " + rollId + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.electorateSize").value(3))
+            .andExpect(jsonPath("$.voterRollName").value("Crew"))
+            .andReturn());
+        long electionId = election.get("id").asLong();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM election_eligible_voters WHERE election_id = ?", Long.class, electionId))
+            .isZero();
+
+        MockHttpSession outsider = login(3);
+        assertThat(vote(outsider, electionId, users.get(0))).isEqualTo(403);
+        assertThat(vote(login(0), electionId, users.get(1))).isEqualTo(200);
+
+        mvc.perform(post("/api/voter-rolls/" + rollId + "/members").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + users.get(3) + "]"))
+            .andExpect(jsonPath("$.memberCount").value(4))
+            .andExpect(jsonPath("$.electionCount").value(1));
+        assertThat(vote(outsider, electionId, users.get(0))).isEqualTo(200);
+
+        mvc.perform(get("/api/elections/" + electionId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.electorateSize").value(4))
+            .andExpect(jsonPath("$.turnout").value(2));
+        mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.items[?(@.id == " + electionId + ")].electorateSize").value(4));
+
+        mvc.perform(delete("/api/voter-rolls/" + rollId).with(user("admin").roles("ADMIN")))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void closedElectionKeepsItsElectorate() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "frozen-voter", 5);
+        long rollId = json(mvc.perform(post("/api/voter-rolls").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Frozen\", \"memberIds\": " + users.subList(0, 3) + "}"))
+            .andExpect(status().isOk())
+            .andReturn()).get("id").asLong();
+        String election = "{\"title\": \"%s\", \"candidateIds\": " + users.subList(0, 2) + ", \"voterRollId\": " + rollId + "}";
+        long closedId = json(mvc.perform(post("/api/elections").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(election.formatted("Closed")))
+            .andReturn()).get("id").asLong();
+        long openId = json(mvc.perform(post("/api/elections").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(election.formatted("Open")))
+            .andReturn()).get("id").asLong();
+        assertThat(vote(TestFixtures.login(mvc, "frozen-voter-0"), closedId, users.get(1))).isEqualTo(200);
+        mvc.perform(post("/api/elections/" + closedId + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+
+        // Edited after the close: only the open election follows
+        mvc.perform(post("/api/voter-rolls/" + rollId + "/members").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(users.subList(3, 5).toString()))
+            .andExpect(jsonPath("$.memberCount").value(5));
+        mvc.perform(delete("/api/voter-rolls/" + rollId + "/members").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + users.get(2) + "]"))
+            .andExpect(jsonPath("$.memberCount").value(4));
+
+        mvc.perform(get("/api/elections/" + closedId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.electorateSize").value(3))
+            .andExpect(jsonPath("$.turnout").value(1));
+        mvc.perform(get("/api/elections/" + closedId + "/voters").with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.items[*].id").value(containsInAnyOrder(
+                users.get(0).intValue(), users.get(1).intValue(), users.get(2).intValue())));
+        mvc.perform(get("/api/elections/" + openId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.electorateSize").value(4));
+        mvc.perform(get("/api/elections/summaries").with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.items[?(@.id == " + closedId + ")].electorateSize").value(3))
+            .andExpect(jsonPath("$.items[?(@.id == " + openId + ")].electorateSize").value(4));
+
+        // A voter of the closed election stays; someone only on the roll can go
+        mvc.perform(delete("/api/users/" + users.get(0)).with(user("admin").roles("ADMIN")))
+            .andExpect(status().isConflict());
+        mvc.perform(delete("/api/users/" + users.get(4)).with(user("admin").roles("ADMIN")))
+            .andExpect(status().isNoContent());
+        mvc.perform(get("/api/elections/" + closedId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.electorateSize").value(3));
+        mvc.perform(get("/api/elections/" + openId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.electorateSize").value(3));
+    }
+
+    @Test
+    void closeWaitsForARollEditInFlight() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "inflight-voter", 3);
+        long rollId = rollService.create("In flight", users.subList(0, 2));
+        long electionId = json(mvc.perform(post("/api/elections").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"In flight\", \"candidateIds\": " + users.subList(0, 2) + ", \"voterRollId\": " + rollId + "}"))
+            .andReturn()).get("id").asLong();
+
+        CountDownLatch edited = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> edit = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+            rollService.addMembers(rollId, List.of(users.get(2)));
+            edited.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertThat(edited.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> close = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+                    .andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(500);
+        assertThat(close).isNotDone();
+
+        commit.countDown();
+        edit.get(10, TimeUnit.SECONDS);
+        assertThat(close.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        mvc.perform(get("/api/elections/" + electionId).with(user("admin").roles("ADMIN")))
+            .andExpect(jsonPath("$.electorateSize").value(3));
+    }
+
+    private int vote(MockHttpSession session, long electionId, long candidateId) throws Exception {
+        return mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + candidateId + "}"))
+            .andReturn().getResponse().getStatus();
+    }
+
+    private MockHttpSession login(int voter) throws Exception {
+        return TestFixtures.login(mvc, "roll-voter-" + voter);
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
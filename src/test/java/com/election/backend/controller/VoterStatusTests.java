@@ -0,0 +1,69 @@
+package com.election.backend.controller;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /my-status answers open elections from the bitmaps and closed ones from the
+ * database, with the same result either way.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class VoterStatusTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void coversOpenAndClosedElections() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "status-voter", 2);
+        List<Long> voter = users.subList(0, 1);
+        long closedVoted = TestFixtures.seedElection(jdbc, "Closed, voted", users, voter);
+        long closedSkipped = TestFixtures.seedElection(jdbc, "Closed, skipped", users, voter);
+        long openVoted = TestFixtures.seedElection(jdbc, "Open, voted", users, voter);
+        long openPending = TestFixtures.seedElection(jdbc, "Open, pending", users, voter);
+        TestFixtures.seedElection(jdbc, "Someone else's", users, users.subList(1, 2));
+        MockHttpSession session = TestFixtures.login(mvc, "status-voter-0");
+
+        vote(session, closedVoted);
+        vote(session, openVoted);
+        for (long electionId : new long[]{closedVoted, closedSkipped}) {
+            mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        }
+
+        mvc.perform(get("/api/elections/my-status").session(session))
+            .andExpect(jsonPath("$.eligibleElectionIds", containsInAnyOrder(
+                (int) closedVoted, (int) closedSkipped, (int) openVoted, (int) openPending)))
+            .andExpect(jsonPath("$.votedElectionIds", containsInAnyOrder((int) closedVoted, (int) openVoted)));
+    }
+
+    private void vote(MockHttpSession session, long electionId) throws Exception {
+        mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,144 @@
+package com.election.backend.security;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Stateless token mode: a login hands out a signed token that authenticates
+ * later requests, and anything expired, tampered with, signed by an unknown
+ * key or not a token at all is turned away.
+ */
+@SpringBootTest(properties = {
+    "election.auth.mode=token",
+    "election.auth.token.keys=k2:second-secret,k1:first-secret"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class AuthTokenTests {
+
+    private static final UserPrincipal VOTER = new UserPrincipal(42L, "token:voter", "", "ROLE_USER", "Token", "Voter");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthTokenService tokens;
+
+    @Test
+    void loginTokenAuthenticatesRequests() throws Exception {
+        TestFixtures.seedUsers(jdbc, "token-voter", 1);
+        String body = mvc.perform(formLogin("/api/login").user("token-voter-0").password(TestFixtures.PASSWORD))
+            .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("token").asString();
+        assertThat(token).startsWith("k2.");
+
+        assertThat(getElections(token)).isEqualTo(200);
+        assertThat(getElections(tamperPayload(token))).isNotEqualTo(200);
+        assertThat(getElections(token.substring(0, token.length() - 2))).isNotEqualTo(200);
+        assertThat(getElections(null)).isNotEqualTo(200);
+    }
+
+    @Test
+    void verifiesSignatureAndClaims() {
+        TokenPrincipal principal = tokens.verify(tokens.issue(VOTER)).orElseThrow();
+        assertThat(principal.id()).isEqualTo(42);
+        assertThat(principal.username()).isEqualTo("token:voter");
+        assertThat(principal.role()).isEqualTo("ROLE_USER");
+
+        String token = tokens.issue(VOTER);
+        assertThat(tokens.verify(tamperPayload(token))).isEmpty();
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String flipped = (signature.charAt(0) == 'A' ? 'B' : 'A') + signature.substring(1);
+        assertThat(tokens.verify(token.substring(0, token.lastIndexOf('.') + 1) + flipped)).isEmpty();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        AuthTokenService expiring = new AuthTokenService("k2:second-secret", Duration.ofSeconds(-1));
+        assertThat(tokens.verify(expiring.issue(VOTER))).isEmpty();
+    }
+
+    @Test
+    void rotatesKeysByKid() {
+        // Issued before the rotation, signed with k1: still accepted while k1 is configured
+        AuthTokenService beforeRotation = new AuthTokenService("k1:first-secret", Duration.ofHours(1));
+        String oldToken = beforeRotation.issue(VOTER);
+        assertThat(tokens.verify(oldToken)).isPresent();
+        assertThat(tokens.issue(VOTER)).startsWith("k2.");
+
+        AuthTokenService afterRotation = new AuthTokenService("k2:second-secret", Duration.ofHours(1));
+        assertThat(afterRotation.verify(oldToken)).isEmpty();
+        assertThat(afterRotation.verify(tokens.issue(VOTER))).isPresent();
+
+        // Same kid, different secret
+        AuthTokenService forged = new AuthTokenService("k2:guessed-secret", Duration.ofHours(1));
+        assertThat(tokens.verify(forged.issue(VOTER))).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String token = tokens.issue(VOTER);
+        String payload = token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'));
+        assertThat(tokens.verify("")).isEmpty();
+        assertThat(tokens.verify("garbage")).isEmpty();
+        assertThat(tokens.verify(".x.y")).isEmpty();
+        assertThat(tokens.verify("k2.only-one-dot")).isEmpty();
+        assertThat(tokens.verify("k2." + payload + ".not*base64")).isEmpty();
+        assertThat(tokens.verify(signedLike("k2", "second-secret", "not-a-number:ROLE_USER:1:x"))).isEmpty();
+        assertThat(tokens.verify(signedLike("k2", "second-secret", "42:ROLE_USER"))).isEmpty();
+        assertThatThrownBy(() -> new AuthTokenService("no-secret", Duration.ofHours(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int getElections(String token) throws Exception {
+        return mvc.perform(token == null ? get("/api/elections") : get("/api/elections").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andReturn().getResponse().getStatus();
+    }
+
+    // Raises the user id in the payload, keeping the original signature
+    private static String tamperPayload(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        String payload = new String(Base64.getUrlDecoder().decode(token.substring(firstDot + 1, lastDot)), StandardCharsets.UTF_8);
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(("9" + payload).getBytes(StandardCharsets.UTF_8));
+        return token.substring(0, firstDot + 1) + tampered + token.substring(lastDot);
+    }
+
+    // A correctly signed token around an arbitrary payload
+    private static String signedLike(String kid, String secret, String payload) {
+        String unsigned = kid + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return unsigned + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(unsigned.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
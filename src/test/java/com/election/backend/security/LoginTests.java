@@ -0,0 +1,126 @@
+package com.election.backend.security;
+
+import com.election.backend.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Session logins: password checks beyond the pool and its queue are turned
+ * away with 429, and an admin's changes to a user reach the next login and
+ * /api/auth/me despite the principal cache.
+ */
+@SpringBootTest(properties = {
+    "election.login.password-check-threads=1",
+    "election.login.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class LoginTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordCheckExecutor passwordChecks;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void loginBeyondTheQueueIsThrottled() throws Exception {
+        TestFixtures.seedUsers(jdbc, "throttled-voter", 1);
+
+        // One check holds the only thread, a second one fills the queue
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> passwordChecks.check(() -> {
+            running.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordChecks.check(() -> true));
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (registry.get("executor.queued").tag("name", "password-check").gauge().value() < 1) {
+            assertThat(System.nanoTime()).as("check queued within 5 seconds").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        mvc.perform(formLogin("/api/login").user("throttled-voter-0").password(TestFixtures.PASSWORD))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+
+        release.countDown();
+        assertThat(busy.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isTrue();
+        mvc.perform(formLogin("/api/login").user("throttled-voter-0").password(TestFixtures.PASSWORD))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void changesByAnAdminAreSeenByTheNextLogin() throws Exception {
+        long id = TestFixtures.seedUsers(jdbc, "changed-voter", 1).getFirst();
+        MockHttpSession session = TestFixtures.login(mvc, "changed-voter-0");
+        mvc.perform(get("/api/auth/me").session(session))
+            .andExpect(jsonPath("$.username").value("changed-voter-0"))
+            .andExpect(jsonPath("$.firstName").doesNotExist());
+
+        mvc.perform(put("/api/users/" + id).with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(details("changed-voter-0", "Renamed")))
+            .andExpect(status().isOk());
+        mvc.perform(get("/api/auth/me").session(session))
+            .andExpect(jsonPath("$.firstName").value("Renamed"));
+
+        mvc.perform(put("/api/users/" + id + "/password").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"newPassword\": \"changed\"}"))
+            .andExpect(status().isNoContent());
+        mvc.perform(formLogin("/api/login").user("changed-voter-0").password(TestFixtures.PASSWORD))
+            .andExpect(status().isUnauthorized());
+        mvc.perform(formLogin("/api/login").user("changed-voter-0").password("changed"))
+            .andExpect(status().isOk());
+
+        mvc.perform(put("/api/users/" + id).with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(details("moved-voter-0", "Renamed")))
+            .andExpect(status().isOk());
+        mvc.perform(formLogin("/api/login").user("changed-voter-0").password("changed"))
+            .andExpect(status().isUnauthorized());
+        mvc.perform(formLogin("/api/login").user("moved-voter-0").password("changed"))
+            .andExpect(status().isOk());
+    }
+
+    // The update replaces every detail, so each one sends them all
+    private static String details(String username, String firstName) {
+        return "{\"username\": \"" + username + "\", \"firstName\": \"" + firstName + "\", \"role\": \"ROLE_USER\"}";
+    }
+}
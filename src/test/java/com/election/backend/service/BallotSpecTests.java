@@ -0,0 +1,57 @@
+package com.election.backend.service;
+
+import com.election.backend.model.ElectionStatus;
+import com.election.backend.model.VotingMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BallotSpecTests {
+
+    // Unsorted on purpose, the spec sorts its copy
+    private static final long[] CANDIDATES = {30, 10, 20};
+
+    @Test
+    void candidatesAreLookedUpInTheSortedCopy() {
+        long[] candidates = CANDIDATES.clone();
+        BallotSpec spec = new BallotSpec(1, ElectionStatus.OPEN, VotingMethod.PLURALITY, candidates);
+        candidates[0] = 40;
+
+        assertThat(spec.isCandidate(10)).isTrue();
+        assertThat(spec.isCandidate(20)).isTrue();
+        assertThat(spec.isCandidate(30)).isTrue();
+        assertThat(spec.isCandidate(40)).isFalse();
+        assertThat(spec.isCandidate(0)).isFalse();
+        assertThat(spec.isCandidate(-1)).isFalse();
+        assertThat(spec.ranked()).isFalse();
+    }
+
+    @Test
+    void rankingsListDistinctCandidates() {
+        BallotSpec spec = new BallotSpec(1, ElectionStatus.OPEN, VotingMethod.IRV, CANDIDATES);
+
+        assertThat(spec.ranked()).isTrue();
+        assertThat(spec.isValidRanking(List.of())).isTrue();
+        assertThat(spec.isValidRanking(List.of(20L))).isTrue();
+        assertThat(spec.isValidRanking(List.of(30L, 10L, 20L))).isTrue();
+
+        assertThat(spec.isValidRanking(List.of(15L))).isFalse();
+        assertThat(spec.isValidRanking(List.of(10L, 40L))).isFalse();
+        assertThat(spec.isValidRanking(List.of(10L, 20L, 10L))).isFalse();
+        assertThat(spec.isValidRanking(List.of(20L, 20L))).isFalse();
+        assertThat(spec.isValidRanking(List.of(10L, 20L, 30L, 10L))).isFalse();
+        assertThat(spec.isValidRanking(Arrays.asList(10L, null))).isFalse();
+    }
+
+    @Test
+    void noCandidatesOnlyAllowsAnEmptyRanking() {
+        BallotSpec spec = new BallotSpec(1, ElectionStatus.OPEN, VotingMethod.STV, new long[0]);
+
+        assertThat(spec.isCandidate(10)).isFalse();
+        assertThat(spec.isValidRanking(List.of())).isTrue();
+        assertThat(spec.isValidRanking(List.of(10L))).isFalse();
+    }
+}
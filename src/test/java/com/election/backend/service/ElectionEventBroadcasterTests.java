@@ -0,0 +1,217 @@
+package com.election.backend.service;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Coalescing, ordering and dropping of SSE subscribers. Flushes and heartbeats
+ * are triggered by the tests; the subscribers record what is written to them
+ * and can hold their writes to stand in for a client that does not read.
+ */
+@SpringBootTest(properties = {
+    "election.events.flush-interval=PT1H",
+    "election.events.heartbeat-interval=PT1H",
+    "election.events.send-timeout=PT2S",
+    "election.events.send-queue=4"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class ElectionEventBroadcasterTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ElectionEventBroadcaster broadcaster;
+
+    @Test
+    void burstOfVotesIsOneTurnoutEvent() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "burst-voter", 3);
+        long electionId = TestFixtures.seedElection(jdbc, "Burst", users, users);
+        RecordingEmitter subscriber = subscribe(electionId, true);
+
+        for (int i = 0; i < 3; i++) {
+            vote("burst-voter-" + i, electionId, users.get(0));
+        }
+        broadcaster.flush();
+        broadcaster.flush();
+
+        await(() -> !subscriber.events.isEmpty());
+        Thread.sleep(200);
+        assertThat(subscriber.events).containsExactly(turnout(electionId, 3));
+    }
+
+    @Test
+    void eventsArriveInTheOrderTheyWereSent() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "order-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Order", users, users);
+        // Held back until everything is queued
+        RecordingEmitter subscriber = subscribe(electionId, false);
+        RecordingEmitter everything = subscribe(null, true);
+
+        vote("order-voter-0", electionId, users.get(0));
+        broadcaster.flush();
+        vote("order-voter-1", electionId, users.get(0));
+        broadcaster.flush();
+        mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+        broadcaster.flush();
+        subscriber.release.countDown();
+
+        List<String> expected = List.of(turnout(electionId, 1), turnout(electionId, 2),
+            "event:status data:{\"electionId\":" + electionId + ",\"turnout\":null,\"status\":\"COMPLETED\"}");
+        await(() -> subscriber.events.size() == 3);
+        assertThat(subscriber.events).isEqualTo(expected);
+        await(() -> everything.events.containsAll(expected));
+        assertThat(everything.events.stream().filter(expected::contains)).isEqualTo(expected);
+    }
+
+    @Test
+    void newElectionIsNoStatusChange() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "quiet-candidate", 1);
+        RecordingEmitter everything = subscribe(null, true);
+
+        mvc.perform(post("/api/elections").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Quiet\", \"candidateIds\": " + users + "}"))
+            .andExpect(status().isOk());
+        broadcaster.flush();
+        broadcaster.heartbeat();
+
+        await(() -> !everything.events.isEmpty());
+        assertThat(everything.events).noneMatch(event -> event.startsWith("event:status"));
+    }
+
+    @Test
+    void stalledSubscriberIsDropped() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "stall-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Stall", users, users);
+        RecordingEmitter stalled = subscribe(electionId, false);
+        RecordingEmitter healthy = subscribe(electionId, true);
+
+        vote("stall-voter-0", electionId, users.get(0));
+        broadcaster.flush();
+        await(() -> stalled.writing);
+        Thread.sleep(2_200);
+        broadcaster.sweep();
+
+        await(() -> stalled.completed);
+        vote("stall-voter-1", electionId, users.get(0));
+        broadcaster.flush();
+        stalled.release.countDown();
+        await(() -> healthy.events.size() == 2);
+        assertThat(healthy.events).containsExactly(turnout(electionId, 1), turnout(electionId, 2));
+        // The write in progress finishes, nothing after it is sent
+        assertThat(stalled.events).containsExactly(turnout(electionId, 1));
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDropped() throws Exception {
+        long electionId = TestFixtures.seedElection(jdbc, "Behind", List.of(), List.of());
+        RecordingEmitter behind = subscribe(electionId, false);
+
+        // One write in progress, four queued, the sixth overflows
+        broadcaster.heartbeat();
+        await(() -> behind.writing);
+        long blockedAt = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            broadcaster.heartbeat();
+        }
+
+        await(() -> behind.completed);
+        // Well before the sweep would find the write stalled
+        assertThat(System.nanoTime() - blockedAt).isLessThan(2_000_000_000L);
+        behind.release.countDown();
+        Thread.sleep(200);
+        assertThat(behind.events).containsExactly(":keep-alive");
+    }
+
+    private RecordingEmitter subscribe(Long electionId, boolean released) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        if (released) {
+            emitter.release.countDown();
+        }
+        broadcaster.subscribe(electionId, emitter);
+        return emitter;
+    }
+
+    private void vote(String username, long electionId, long candidateId) throws Exception {
+        mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(TestFixtures.login(mvc, username))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + candidateId + "}"))
+            .andExpect(status().isOk());
+    }
+
+    private static String turnout(long electionId, long turnout) {
+        return "event:turnout data:{\"electionId\":" + electionId + ",\"turnout\":" + turnout + ",\"status\":null}";
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition within 5 seconds").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Stands in for the response: records each event on one line, and blocks
+     * every write until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private static final ObjectMapper JSON = new ObjectMapper();
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean writing;
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            writing = true;
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData() instanceof String text
+                ? text
+                : toJson(part.getData())));
+            events.add(event.toString().strip().replace("\n", " "));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private static String toJson(Object data) {
+            return JSON.writeValueAsString(data);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.election.backend.service;
+
+import com.election.backend.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The application's own meters: committed ballots per election and source,
+ * BCrypt timings, and request timers tagged with the controller method.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class ElectionMetricsTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void ballotsAreCountedPerElectionAndSource() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "metered-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Metered", users, users);
+        String election = String.valueOf(electionId);
+
+        mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(TestFixtures.login(mvc, "metered-voter-0"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + users.get(1) + "}"))
+            .andExpect(status().isOk());
+        mvc.perform(post("/api/elections/" + electionId + "/ballots").with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"candidateId\": " + users.get(0) + "}\n{\"candidateId\": null}"))
+            .andExpect(status().isOk());
+
+        assertThat(registry.get("election.votes").tags("election", election, "source", "vote").counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("election.votes").tags("election", election, "source", "import").counter().count())
+            .isEqualTo(2);
+
+        mvc.perform(delete("/api/elections/" + electionId).with(user("admin").roles("ADMIN")))
+            .andExpect(status().isNoContent());
+        assertThat(registry.find("election.votes").tag("election", election).meters()).isEmpty();
+    }
+
+    @Test
+    void requestsAreTimedByHandler() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "timed-voter", 1);
+        long electionId = TestFixtures.seedElection(jdbc, "Timed", users, users);
+        long before = castVoteRequests();
+        long checksBefore = registry.get("election.password").tag("operation", "matches").timer().count();
+
+        mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(TestFixtures.login(mvc, "timed-voter-0"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + users.get(0) + "}"))
+            .andExpect(status().isOk());
+
+        assertThat(castVoteRequests()).isEqualTo(before + 1);
+        assertThat(registry.get("election.password").tag("operation", "matches").timer().count())
+            .isEqualTo(checksBefore + 1);
+        // The login form is not served by a controller
+        assertThat(registry.get("http.server.requests").tag("handler", "none").timers()).isNotEmpty();
+    }
+
+    private long castVoteRequests() {
+        return registry.find("http.server.requests").tag("handler", "ElectionController.castVote").timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+}
@@ -0,0 +1,157 @@
+package com.election.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.election.backend.service.RankedChoiceTally.SCALE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedChoiceTallyTests {
+
+    @Test
+    void instantRunoffFindsAMajorityAfterTransfers() {
+        // The Tennessee capital example: Memphis leads on first preferences, Knoxville wins on transfers
+        int memphis = 1;
+        int nashville = 2;
+        int chattanooga = 3;
+        int knoxville = 4;
+        RankedChoiceTally tally = new RankedChoiceTally(new int[]{memphis, nashville, chattanooga, knoxville});
+        add(tally, 42, memphis, nashville, chattanooga, knoxville);
+        add(tally, 26, nashville, chattanooga, knoxville, memphis);
+        add(tally, 15, chattanooga, knoxville, nashville, memphis);
+        add(tally, 17, knoxville, chattanooga, nashville, memphis);
+
+        RankedChoiceTally.Result result = tally.count(1, true);
+
+        assertThat(result.ballots()).isEqualTo(100);
+        assertThat(result.elected()).containsExactly(knoxville);
+        List<RankedChoiceTally.Round> rounds = result.rounds();
+        assertThat(rounds).hasSize(3);
+        assertThat(rounds.get(0).votes()).containsExactly(42 * SCALE, 26 * SCALE, 15 * SCALE, 17 * SCALE);
+        // More than half of the ballots still in the count
+        assertThat(rounds.get(0).threshold()).isEqualTo(50 * SCALE + 1);
+        assertThat(rounds.get(0).excluded()).containsExactly(chattanooga);
+        assertThat(rounds.get(1).votes()).containsExactly(42 * SCALE, 26 * SCALE, 0, 32 * SCALE);
+        assertThat(rounds.get(1).excluded()).containsExactly(nashville);
+        assertThat(rounds.get(2).votes()).containsExactly(42 * SCALE, 0, 0, 58 * SCALE);
+        assertThat(rounds.get(2).elected()).containsExactly(knoxville);
+    }
+
+    @Test
+    void singleTransferableVoteMovesTheSurplusOn() {
+        // The food election from the usual STV walkthrough: 20 voters, 3 seats, Droop quota 6
+        int oranges = 1;
+        int pears = 2;
+        int chocolate = 3;
+        int strawberries = 4;
+        int hamburgers = 5;
+        RankedChoiceTally tally = new RankedChoiceTally(new int[]{oranges, pears, chocolate, strawberries, hamburgers});
+        add(tally, 4, oranges);
+        add(tally, 2, pears, oranges);
+        add(tally, 8, chocolate, strawberries);
+        add(tally, 4, chocolate, hamburgers);
+        add(tally, 1, strawberries);
+        add(tally, 1, hamburgers);
+
+        RankedChoiceTally.Result result = tally.count(3, false);
+
+        assertThat(result.quota()).isEqualTo(6 * SCALE);
+        assertThat(result.elected()).containsExactly(chocolate, oranges, strawberries);
+        List<RankedChoiceTally.Round> rounds = result.rounds();
+        assertThat(rounds.get(0).elected()).containsExactly(chocolate);
+        // Chocolate keeps the quota, its 12 ballots move on at 6 / 12
+        assertThat(rounds.get(1).votes()).containsExactly(4 * SCALE, 2 * SCALE, 6 * SCALE, 5 * SCALE, 3 * SCALE);
+        assertThat(rounds.get(1).excluded()).containsExactly(pears);
+        assertThat(rounds.get(2).votes()[0]).isEqualTo(6 * SCALE);
+        assertThat(rounds.get(2).elected()).containsExactly(oranges);
+        assertThat(rounds.get(3).excluded()).containsExactly(hamburgers);
+        assertThat(rounds.get(4).elected()).containsExactly(strawberries);
+        assertThat(rounds).hasSize(5);
+    }
+
+    @Test
+    void tieIsBrokenByThePreviousRound() {
+        // B and C tie in the second round; C had fewer votes in the first and goes, although B has the higher id
+        int a = 10;
+        int c = 20;
+        int b = 30;
+        int d = 40;
+        RankedChoiceTally tally = new RankedChoiceTally(new int[]{a, b, c, d});
+        add(tally, 5, a);
+        add(tally, 4, b);
+        add(tally, 3, c, b);
+        add(tally, 1, d, c, b);
+
+        RankedChoiceTally.Result result = tally.count(1, true);
+
+        List<RankedChoiceTally.Round> rounds = result.rounds();
+        assertThat(rounds.get(0).excluded()).containsExactly(d);
+        assertThat(rounds.get(1).votes()).containsExactly(5 * SCALE, 4 * SCALE, 4 * SCALE, 0);
+        assertThat(rounds.get(1).excluded()).containsExactly(c);
+        assertThat(rounds.get(2).elected()).containsExactly(b);
+        assertThat(result.elected()).containsExactly(b);
+    }
+
+    @Test
+    void tieWithoutAnEarlierRoundGoesAgainstTheHigherId() {
+        RankedChoiceTally tally = new RankedChoiceTally(new int[]{1, 2, 3});
+        add(tally, 3, 1);
+        add(tally, 2, 2, 1);
+        add(tally, 2, 3, 2);
+
+        RankedChoiceTally.Result result = tally.count(1, true);
+
+        assertThat(result.rounds().get(0).excluded()).containsExactly(3);
+        assertThat(result.rounds().get(1).elected()).containsExactly(2);
+    }
+
+    @Test
+    void ballotsWithoutValidPreferencesAreAbstentions() {
+        RankedChoiceTally tally = new RankedChoiceTally(new int[]{1, 2, 3});
+        tally.addBallot(new int[0]);
+        tally.addBallot(new int[]{99});
+
+        for (boolean instantRunoff : new boolean[]{true, false}) {
+            RankedChoiceTally.Result result = tally.count(1, instantRunoff);
+
+            // Nothing to count: exclusions by id until the seat is the last candidate's
+            assertThat(result.ballots()).isZero();
+            assertThat(result.abstentions()).isEqualTo(2);
+            assertThat(result.rounds()).hasSize(3);
+            assertThat(result.rounds()).allSatisfy(round -> {
+                assertThat(round.votes()).containsOnly(0);
+                assertThat(round.exhausted()).isZero();
+            });
+            assertThat(result.elected()).containsExactly(1);
+        }
+    }
+
+    @Test
+    void noBallotsAndNoCandidatesCountNothing() {
+        RankedChoiceTally.Result result = new RankedChoiceTally(new int[0]).count(2, false);
+
+        assertThat(result.ballots()).isZero();
+        assertThat(result.rounds()).isEmpty();
+        assertThat(result.elected()).isEmpty();
+    }
+
+    @Test
+    void asManySeatsAsCandidatesElectsEveryoneInTheFirstRound() {
+        RankedChoiceTally tally = new RankedChoiceTally(new int[]{3, 1, 2});
+        add(tally, 5, 2, 1);
+        add(tally, 1, 3);
+
+        RankedChoiceTally.Result result = tally.count(3, false);
+
+        assertThat(result.rounds()).hasSize(1);
+        assertThat(result.rounds().get(0).votes()).containsExactly(0, 5 * SCALE, SCALE);
+        assertThat(result.elected()).containsExactlyInAnyOrder(1, 2, 3);
+    }
+
+    private static void add(RankedChoiceTally tally, int copies, int... ranking) {
+        for (int i = 0; i < copies; i++) {
+            tally.addBallot(ranking);
+        }
+    }
+}
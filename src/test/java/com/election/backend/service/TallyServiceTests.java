@@ -0,0 +1,110 @@
+package com.election.backend.service;
+
+import com.election.backend.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The live tally: votes and abstentions of open elections are counted after
+ * commit, and a difference to the vote table is only repaired once two checks
+ * agree on it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"local", "test"})
+class TallyServiceTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TallyService tallyService;
+
+    @Test
+    void votesAndAbstentionsAreCounted() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "tally-voter", 3);
+        long electionId = TestFixtures.seedElection(jdbc, "Tally", users.subList(0, 2), users);
+
+        vote("tally-voter-0", electionId, users.get(1));
+        vote("tally-voter-1", electionId, users.get(1));
+        vote("tally-voter-2", electionId, null);
+
+        assertThat(tallyService.counts(electionId)).isEqualTo(counts(users.get(1), 2L, null, 1L));
+    }
+
+    @Test
+    void driftIsRepairedOnTheSecondCheck() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "drift-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Drift", users, users);
+        vote("drift-voter-0", electionId, users.get(0));
+        // Abstentions only the database knows of, one in an election without any tally
+        long untallied = TestFixtures.seedElection(jdbc, "Untallied", users, users);
+        jdbc.update("INSERT INTO vote (election_id) VALUES (?), (?)", electionId, untallied);
+
+        tallyService.verify();
+        assertThat(tallyService.counts(electionId)).isEqualTo(counts(users.get(0), 1L));
+        assertThat(tallyService.counts(untallied)).isEmpty();
+
+        tallyService.verify();
+        assertThat(tallyService.counts(electionId)).isEqualTo(counts(users.get(0), 1L, null, 1L));
+        assertThat(tallyService.counts(untallied)).isEqualTo(counts(null, 1L));
+
+        // And the other way round: abstentions only the tally knows of
+        jdbc.update("DELETE FROM vote WHERE election_id IN (?, ?) AND candidate_id IS NULL", electionId, untallied);
+        tallyService.verify();
+        tallyService.verify();
+        assertThat(tallyService.counts(electionId)).isEqualTo(counts(users.get(0), 1L));
+        assertThat(tallyService.counts(untallied)).isEmpty();
+    }
+
+    @Test
+    void closedElectionsAreNoLongerTallied() throws Exception {
+        List<Long> users = TestFixtures.seedUsers(jdbc, "closing-voter", 2);
+        long electionId = TestFixtures.seedElection(jdbc, "Closing", users, users);
+        vote("closing-voter-0", electionId, users.get(1));
+        assertThat(tallyService.counts(electionId)).isEqualTo(counts(users.get(1), 1L));
+
+        mvc.perform(post("/api/elections/" + electionId + "/close").with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk());
+
+        assertThat(tallyService.counts(electionId)).isEmpty();
+        tallyService.verify();
+        tallyService.verify();
+        assertThat(tallyService.counts(electionId)).isEmpty();
+    }
+
+    private void vote(String username, long electionId, Long candidateId) throws Exception {
+        mvc.perform(post("/api/elections/" + electionId + "/vote")
+                .session(TestFixtures.login(mvc, username))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"candidateId\": " + candidateId + "}"))
+            .andExpect(status().isOk());
+    }
+
+    // Map.of() rejects the null abstention key
+    private static Map<Long, Long> counts(Object... keysAndCounts) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (int i = 0; i < keysAndCounts.length; i += 2) {
+            counts.put((Long) keysAndCounts[i], (Long) keysAndCounts[i + 1]);
+        }
+        return counts;
+    }
+}